@@ -0,0 +1,44 @@
+package ru.naujava.taskmanager.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.naujava.taskmanager.TaskManagerApplication;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Запуск контекста приложения для бенчмарков.
+ * Использует встроенную H2 со схемой, создаваемой Hibernate, и случайный порт,
+ * чтобы параллельные форки JMH не конфликтовали между собой.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Запускает приложение с изолированной базой данных в памяти.
+     *
+     * @param extraProperties дополнительные свойства в формате key=value
+     * @return запущенный контекст
+     */
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        // Свойства передаются как аргументы командной строки, чтобы перекрыть application.properties
+        Stream<String> properties = Stream.concat(Stream.of(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "javamelody.enabled=false",
+                        "logging.level.root=WARN",
+                        "admin.username=admin",
+                        "admin.password=benchmark-admin"),
+                Stream.of(extraProperties));
+        return new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run(properties.map(property -> "--" + property).toArray(String[]::new));
+    }
+}
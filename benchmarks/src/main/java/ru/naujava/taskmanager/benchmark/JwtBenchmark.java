@@ -0,0 +1,105 @@
+package ru.naujava.taskmanager.benchmark;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.security.JwtAuthenticationFilter;
+import ru.naujava.taskmanager.security.JwtUtil;
+import ru.naujava.taskmanager.security.TokenRevocationStore;
+import ru.naujava.taskmanager.service.UserService;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки выпуска и проверки JWT, а также полного прохода {@link JwtAuthenticationFilter}
+ * (разбор токена, проверка отзыва, загрузка пользователя из БД, установка SecurityContext).
+ * Перед измерениями отзывается {@value #REVOKED_TOKENS} токенов, чтобы проверка отзыва шла
+ * по заполненному {@link TokenRevocationStore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    private static final String USERNAME = "bench-user";
+    private static final int REVOKED_TOKENS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private UserDetails userDetails;
+    private String token;
+    private TokenRevocationStore revocationStore;
+    private String tokenId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        context.getBean(UserService.class).register(USERNAME, "benchmark-password", Role.USER);
+        jwtUtil = context.getBean(JwtUtil.class);
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        userDetails = context.getBean(UserDetailsService.class).loadUserByUsername(USERNAME);
+        token = jwtUtil.generateToken(userDetails);
+        tokenId = jwtUtil.getClaimFromToken(token, Claims::getId);
+        revocationStore = context.getBean(TokenRevocationStore.class);
+        Date expiresAt = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < REVOKED_TOKENS; i++) {
+            revocationStore.revoke(UUID.randomUUID().toString(), "revoked-user", expiresAt);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revocationStore.isRevoked(tokenId, USERNAME, new Date());
+    }
+
+    @Benchmark
+    public Object filterAuthenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
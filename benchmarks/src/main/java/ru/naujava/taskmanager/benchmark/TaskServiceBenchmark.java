@@ -0,0 +1,82 @@
+package ru.naujava.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.Task;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.service.TaskService;
+import ru.naujava.taskmanager.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки {@link TaskService} на встроенной H2: создание задачи, чтение списка активных задач
+ * и переключение статуса выполнения при разном количестве задач у пользователя.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tasksPerUser;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private User user;
+    private Task toggledTask;
+    private long createdCounter;
+    private boolean toggledDone;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        taskService = context.getBean(TaskService.class);
+        user = context.getBean(UserService.class).register("bench-user", "benchmark-password", Role.USER);
+        for (int i = 0; i < tasksPerUser; i++) {
+            Task task = taskService.createTask("Задача " + i, user);
+            if (i == 0) {
+                toggledTask = task;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> listActiveTasks() {
+        return taskService.findActiveTasksByUser(user);
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return taskService.createTask("Новая задача " + createdCounter++, user);
+    }
+
+    @Benchmark
+    public Task toggleTask() {
+        toggledDone = !toggledDone;
+        return toggledDone
+                ? taskService.markTaskAsDone(toggledTask.getId(), user)
+                : taskService.markTaskAsNotDone(toggledTask.getId(), user);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.naujava.taskmanager.benchmark;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.security.JwtUtil;
+import ru.naujava.taskmanager.service.TaskService;
+import ru.naujava.taskmanager.service.UserService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки накладных расходов трассировки: полный запрос {@code GET /api/tasks} через HTTP
+ * и одиночное наблюдение при отключенной трассировке, выключенной выборке и записи всех трасс.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingOverheadBenchmark {
+    private static final String USERNAME = "bench-user";
+
+    /**
+     * {@code off} — трассировка отключена, {@code 0.0} и {@code 1.0} — вероятность выборки.
+     */
+    @Param({"off", "0.0", "1.0"})
+    public String sampling;
+
+    private ConfigurableApplicationContext context;
+    private ObservationRegistry observationRegistry;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = "off".equals(sampling)
+                ? BenchmarkContext.start("management.tracing.enabled=false")
+                : BenchmarkContext.start("management.tracing.sampling.probability=" + sampling);
+        observationRegistry = context.getBean(ObservationRegistry.class);
+
+        User user = context.getBean(UserService.class).register(USERNAME, "benchmark-password", Role.USER);
+        TaskService taskService = context.getBean(TaskService.class);
+        for (int i = 0; i < 10; i++) {
+            taskService.createTask("Задача " + i, user);
+        }
+        String token = context.getBean(JwtUtil.class)
+                .generateToken(context.getBean(UserDetailsService.class).loadUserByUsername(USERNAME));
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int apiRequest() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+
+    @Benchmark
+    public void observation() {
+        Observation.createNotStarted("taskmanager.benchmark", observationRegistry).observe(() -> {
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package ru.naujava.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.service.UserAdminService;
+import ru.naujava.taskmanager.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Удаление пользователя с большим числом задач через {@link UserAdminService#delete} на встроенной H2.
+ * Каждое измерение удаляет заново созданного пользователя; задачи вставляются одним запросом
+ * {@code INSERT ... SELECT}, чтобы подготовка миллиона строк не занимала минуты.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserDeletionBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int tasksPerUser;
+
+    /**
+     * Размер части удаления; значение больше числа задач удаляет их одним запросом.
+     */
+    @Param({"10000"})
+    public int deleteChunkSize;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserAdminService userAdminService;
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+    private long userCounter;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start("taskmanager.admin.user-delete.chunk-size=" + deleteChunkSize);
+        userService = context.getBean(UserService.class);
+        userAdminService = context.getBean(UserAdminService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void createUser() {
+        user = userService.register("bench-delete-" + userCounter++, "benchmark-password", Role.USER);
+        jdbcTemplate.update("insert into tasks (description, is_done, created_at, updated_at, user_id) "
+                + "select 'Задача ' || x, false, now(), now(), ? from system_range(1, ?)",
+                user.getId(), tasksPerUser);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long deleteUser() {
+        return userAdminService.delete(user.getId(), "admin");
+    }
+}
@@ -0,0 +1,101 @@
+package ru.naujava.taskmanager.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.naujava.taskmanager.controller.TaskApiController.TaskDto;
+import ru.naujava.taskmanager.entity.Task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки преобразования задач в DTO и кодирования списков задач в JSON и CBOR.
+ * Размеры списков соответствуют типичному, большому и экстремальному ответу {@code GET /api/tasks}.
+ * Размер полезной нагрузки для каждого формата печатается при подготовке состояния.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+    private static final TypeReference<List<TaskDto>> TASK_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private List<Task> tasks;
+    private List<TaskDto> dtos;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_789);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task("Задача номер " + i, null);
+            task.setId((long) i);
+            task.setDone(i % 3 == 0);
+            task.setCreatedAt(now.minusMinutes(i));
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+        dtos = mapToDto();
+
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        }
+        ObjectMapper mapper = builder.build();
+        writer = mapper.writerFor(TASK_LIST);
+        reader = mapper.readerFor(TASK_LIST);
+        encoded = writer.writeValueAsBytes(dtos);
+        System.out.printf("%n[payload] format=%s size=%d bytes=%d%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public List<TaskDto> mapToDto() {
+        return tasks.stream().map(TaskApiController::convertToDto).toList();
+    }
+
+    @Benchmark
+    public void encode() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    @Benchmark
+    public void mapAndEncode() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), mapToDto());
+    }
+
+    @Benchmark
+    public List<TaskDto> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.naujava.taskmanager.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика одного эндпоинта: распределение задержек и число ошибок.
+ * Запись выполняется без блокировок из множества виртуальных потоков.
+ */
+public class EndpointStats {
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Записывает задержку запроса в наносекундах.
+     */
+    public void record(long latencyNanos, boolean success) {
+        recorder.recordValue(latencyNanos);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Сбрасывает накопленные данные (после прогрева).
+     */
+    public void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    /**
+     * Возвращает накопленную гистограмму и обнуляет рекордер.
+     */
+    public Histogram snapshot() {
+        return recorder.getIntervalHistogram();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
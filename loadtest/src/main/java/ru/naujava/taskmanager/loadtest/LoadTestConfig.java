@@ -0,0 +1,73 @@
+package ru.naujava.taskmanager.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста, читаются из системных свойств {@code loadtest.*}.
+ *
+ * @param users количество пользователей
+ * @param tasksPerUser количество задач, создаваемых каждому пользователю заранее
+ * @param rate целевая интенсивность запросов в секунду (открытая модель нагрузки)
+ * @param warmup длительность прогрева, результаты которого не попадают в отчет
+ * @param duration длительность измерения
+ * @param mix веса операций в смеси запросов
+ * @param datasourceUrl JDBC URL базы данных; по умолчанию встроенная H2
+ * @param datasourceUsername имя пользователя БД
+ * @param datasourcePassword пароль БД
+ * @param reportDirectory каталог для файлов с распределениями задержек
+ */
+public record LoadTestConfig(int users, int tasksPerUser, double rate, Duration warmup, Duration duration,
+                             Map<Operation, Integer> mix, String datasourceUrl, String datasourceUsername,
+                             String datasourcePassword, String reportDirectory) {
+
+    private static final String DEFAULT_MIX = "list=50,create=15,toggle=15,update=10,delete=5,login=5";
+
+    /**
+     * Читает конфигурацию из системных свойств.
+     */
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.tasks-per-user", 20),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                System.getProperty("loadtest.datasource.url"),
+                System.getProperty("loadtest.datasource.username", "postgres"),
+                System.getProperty("loadtest.datasource.password", "postgres"),
+                System.getProperty("loadtest.report-dir", "target/loadtest"));
+    }
+
+    /**
+     * Разбирает смесь операций вида {@code list=50,create=15}.
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Неверный формат смеси операций: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вес операции не может быть отрицательным: " + part);
+            }
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Смесь операций должна содержать хотя бы одну операцию");
+        }
+        return mix;
+    }
+
+    /**
+     * Используется ли внешняя база данных вместо встроенной H2.
+     */
+    public boolean externalDatabase() {
+        return datasourceUrl != null && !datasourceUrl.isBlank();
+    }
+}
@@ -0,0 +1,311 @@
+package ru.naujava.taskmanager.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.naujava.taskmanager.TaskManagerApplication;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.service.TaskService;
+import ru.naujava.taskmanager.service.UserService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный тест REST API задач.
+ * <p>
+ * Запускает приложение на случайном порту (встроенная H2 или внешняя БД), создает пользователей и задачи,
+ * выполняет вход через {@code /api/auth/login} и подает запросы по открытой модели: запросы стартуют
+ * по расписанию с заданной интенсивностью независимо от того, завершились ли предыдущие, каждый в своем
+ * виртуальном потоке. Задержка отсчитывается от запланированного, а не фактического времени старта,
+ * поэтому отчет не искажается эффектом coordinated omission. Токен пользователя обновляется refresh-токеном
+ * по истечении половины срока действия, поэтому длинный прогон не превращается в измерение ответов 401.
+ */
+public class LoadTestRunner {
+    private static final String PASSWORD = "loadtest-password";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    private final LoadTestConfig config;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicLong descriptionCounter = new AtomicLong();
+    private final Operation[] weightedOperations;
+    private TaskManagerClient client;
+    private List<SimulatedUser> users;
+
+    public LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        List<Operation> weighted = new ArrayList<>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.weightedOperations = weighted.toArray(Operation[]::new);
+    }
+
+    /**
+     * Точка входа. Параметры передаются системными свойствами {@code loadtest.*}.
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        try (ConfigurableApplicationContext context = startApplication(config)) {
+            new LoadTestRunner(config).run(context);
+        }
+    }
+
+    /**
+     * Запускает приложение на случайном порту. Ограничение частоты запросов выключено, а задержки после
+     * неудачных входов ослаблены: все запросы приходят с одного адреса и иначе измерялись бы ответы 429.
+     */
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "javamelody.enabled=false",
+                "logging.level.root=WARN",
+                "admin.username=admin",
+                "admin.password=loadtest-admin",
+                "taskmanager.rate-limit.enabled=false",
+                "taskmanager.login-throttle.ip.free-failures=1000000",
+                "taskmanager.login-throttle.ip.lockout-failures=1000000",
+                "taskmanager.login-throttle.user.free-failures=1000000",
+                "taskmanager.login-throttle.user.lockout-failures=1000000"));
+        if (config.externalDatabase()) {
+            properties.addAll(List.of(
+                    "spring.datasource.url=" + config.datasourceUrl(),
+                    "spring.datasource.username=" + config.datasourceUsername(),
+                    "spring.datasource.password=" + config.datasourcePassword(),
+                    "spring.jpa.hibernate.ddl-auto=update"));
+        } else {
+            properties.addAll(List.of(
+                    "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.driver-class-name=org.h2.Driver",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "spring.jpa.hibernate.ddl-auto=create-drop"));
+        }
+        return new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Выполняет подготовку данных, прогрев, измерение и печатает отчет.
+     */
+    public void run(ConfigurableApplicationContext context) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = new TaskManagerClient("http://localhost:" + port);
+
+        System.out.printf("Подготовка данных: %d пользователей по %d задач%n",
+                config.users(), config.tasksPerUser());
+        users = seed(context);
+        for (SimulatedUser user : users) {
+            if (!login(user)) {
+                throw new IllegalStateException("Не удалось войти пользователем " + user.getUsername());
+            }
+        }
+
+        System.out.printf("Прогрев %d с при %.0f запросов/с%n", config.warmup().toSeconds(), config.rate());
+        drive(config.warmup().toNanos());
+        stats.values().forEach(EndpointStats::reset);
+
+        System.out.printf("Измерение %d с при %.0f запросов/с%n", config.duration().toSeconds(), config.rate());
+        long startedAt = System.nanoTime();
+        drive(config.duration().toNanos());
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        report(elapsedSeconds);
+    }
+
+    /**
+     * Создает пользователей и задачи напрямую через сервисы приложения.
+     */
+    private List<SimulatedUser> seed(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        TaskService taskService = context.getBean(TaskService.class);
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<SimulatedUser> seeded = new ArrayList<>(config.users());
+        for (int i = 0; i < config.users(); i++) {
+            SimulatedUser simulatedUser = new SimulatedUser("load-" + runId + "-" + i, PASSWORD);
+            User user = userService.register(simulatedUser.getUsername(), PASSWORD, Role.USER);
+            for (int j = 0; j < config.tasksPerUser(); j++) {
+                simulatedUser.addTask(taskService.createTask("Задача " + j, user).getId());
+            }
+            seeded.add(simulatedUser);
+        }
+        return seeded;
+    }
+
+    /**
+     * Подает запросы по открытой модели в течение заданного времени.
+     */
+    private void drive(long durationNanos) {
+        long intervalNanos = (long) (1_000_000_000L / config.rate());
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long delay = intendedStart - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                Operation operation = weightedOperations[
+                        ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+                SimulatedUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+                executor.execute(() -> {
+                    boolean success = execute(operation, user);
+                    stats.get(operation).record(System.nanoTime() - intendedStart, success);
+                });
+            }
+        }
+    }
+
+    /**
+     * Выполняет одну операцию от имени пользователя.
+     */
+    private boolean execute(Operation operation, SimulatedUser user) {
+        try {
+            String token = token(user);
+            return switch (operation) {
+                case LIST -> client.listTasks(token).isSuccess();
+                case CREATE -> create(user);
+                case TOGGLE -> {
+                    Long taskId = user.randomTask();
+                    yield taskId == null
+                            ? create(user)
+                            : client.toggleTask(token, taskId, ThreadLocalRandom.current().nextBoolean()).isSuccess();
+                }
+                case UPDATE -> {
+                    Long taskId = user.randomTask();
+                    yield taskId == null
+                            ? create(user)
+                            : client.updateTask(token, taskId, nextDescription()).isSuccess();
+                }
+                case DELETE -> {
+                    Long taskId = user.takeRandomTask();
+                    yield taskId == null ? create(user) : client.deleteTask(token, taskId).isSuccess();
+                }
+                case LOGIN -> login(user);
+            };
+        } catch (IOException | RuntimeException e) {
+            // Сетевая ошибка или неожиданное тело ответа: запрос учитывается как неуспешный
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean create(SimulatedUser user) throws IOException, InterruptedException {
+        TaskManagerClient.Response response = client.createTask(token(user), nextDescription());
+        if (response.isSuccess()) {
+            user.addTask(client.readField(response, "id").asLong());
+        }
+        return response.isSuccess();
+    }
+
+    private boolean login(SimulatedUser user) throws IOException, InterruptedException {
+        user.getTokenLock().lock();
+        try {
+            TaskManagerClient.Response response = client.login(user.getUsername(), user.getPassword());
+            if (response.isSuccess()) {
+                storeTokens(user, response);
+            }
+            return response.isSuccess();
+        } finally {
+            user.getTokenLock().unlock();
+        }
+    }
+
+    /**
+     * Текущий токен пользователя. Токен, проживший половину срока, обменивается на новый по refresh-токену
+     * (если обмен не удался — новым входом); обмен выполняет один поток, остальные ждут его результата.
+     */
+    private String token(SimulatedUser user) throws IOException, InterruptedException {
+        if (!user.needsRefresh()) {
+            return user.getToken();
+        }
+        user.getTokenLock().lock();
+        try {
+            if (user.needsRefresh()) {
+                TaskManagerClient.Response response = client.refresh(user.getRefreshToken());
+                if (response.isSuccess()) {
+                    storeTokens(user, response);
+                } else {
+                    login(user);
+                }
+            }
+            return user.getToken();
+        } finally {
+            user.getTokenLock().unlock();
+        }
+    }
+
+    private void storeTokens(SimulatedUser user, TaskManagerClient.Response response) throws IOException {
+        user.setTokens(client.readField(response, "token").asText(),
+                client.readField(response, "refreshToken").asText(),
+                client.readField(response, "expiresIn").asLong());
+    }
+
+    private String nextDescription() {
+        return "Нагрузочная задача " + descriptionCounter.incrementAndGet();
+    }
+
+    /**
+     * Печатает пропускную способность и перцентили задержек по каждому эндпоинту
+     * и сохраняет полные распределения в файлы формата HdrHistogram.
+     */
+    private void report(double elapsedSeconds) throws IOException {
+        Path directory = Path.of(config.reportDirectory());
+        Files.createDirectories(directory);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-34s %9s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Эндпоинт", "Запросов", "RPS", "Ошибок",
+                "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "p99.99 мс", "max мс");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = stats.get(operation).snapshot();
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-34s %9d %8.1f %7d",
+                    operation.getEndpoint(), count, count / elapsedSeconds, stats.get(operation).getErrors()));
+            for (double percentile : PERCENTILES) {
+                line.append(String.format(Locale.ROOT, " %9.2f",
+                        histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI));
+            }
+            line.append(String.format(Locale.ROOT, " %9.2f", histogram.getMaxValue() / NANOS_PER_MILLI));
+            System.out.println(line);
+
+            Path file = directory.resolve(operation.name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+        System.out.println();
+        System.out.println("Распределения задержек (мс) сохранены в " + directory.toAbsolutePath());
+    }
+}
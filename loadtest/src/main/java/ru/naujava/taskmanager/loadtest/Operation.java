@@ -0,0 +1,26 @@
+package ru.naujava.taskmanager.loadtest;
+
+/**
+ * Типы запросов, которые генерирует нагрузочный тест.
+ */
+public enum Operation {
+    LIST("GET /api/tasks"),
+    CREATE("POST /api/tasks"),
+    TOGGLE("PUT /api/tasks/{id}/done|undone"),
+    UPDATE("PUT /api/tasks/{id}"),
+    DELETE("DELETE /api/tasks/{id}"),
+    LOGIN("POST /api/auth/login");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Получить описание эндпоинта для отчета.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
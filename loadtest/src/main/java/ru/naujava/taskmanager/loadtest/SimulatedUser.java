@@ -0,0 +1,95 @@
+package ru.naujava.taskmanager.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Состояние одного пользователя в нагрузочном тесте: учетные данные, текущие токены
+ * и идентификаторы задач, с которыми можно выполнять операции.
+ */
+public class SimulatedUser {
+    private final String username;
+    private final String password;
+    private final List<Long> taskIds = new ArrayList<>();
+    private final ReentrantLock tokenLock = new ReentrantLock();
+    private volatile String token;
+    private volatile String refreshToken;
+    private volatile long refreshAtNanos;
+
+    public SimulatedUser(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    /**
+     * Сохраняет выданные токены; токен следует обновить по истечении половины срока действия.
+     */
+    public void setTokens(String token, String refreshToken, long expiresInSeconds) {
+        this.refreshToken = refreshToken;
+        this.refreshAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(expiresInSeconds) / 2;
+        this.token = token;
+    }
+
+    /**
+     * Прошла ли половина срока действия токена.
+     */
+    public boolean needsRefresh() {
+        return System.nanoTime() - refreshAtNanos >= 0;
+    }
+
+    /**
+     * Блокировка, под которой токены получаются и обновляются: refresh-токен одноразовый,
+     * и его повторное использование отозвало бы все токены входа.
+     */
+    public ReentrantLock getTokenLock() {
+        return tokenLock;
+    }
+
+    /**
+     * Добавляет задачу в пул пользователя.
+     */
+    public synchronized void addTask(long taskId) {
+        taskIds.add(taskId);
+    }
+
+    /**
+     * Возвращает случайную задачу пользователя или {@code null}, если задач нет.
+     */
+    public synchronized Long randomTask() {
+        if (taskIds.isEmpty()) {
+            return null;
+        }
+        return taskIds.get(ThreadLocalRandom.current().nextInt(taskIds.size()));
+    }
+
+    /**
+     * Извлекает случайную задачу из пула (для удаления) или {@code null}, если задач нет.
+     */
+    public synchronized Long takeRandomTask() {
+        if (taskIds.isEmpty()) {
+            return null;
+        }
+        int index = ThreadLocalRandom.current().nextInt(taskIds.size());
+        Long last = taskIds.removeLast();
+        return index == taskIds.size() ? last : taskIds.set(index, last);
+    }
+}
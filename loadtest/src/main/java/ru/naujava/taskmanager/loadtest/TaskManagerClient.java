@@ -0,0 +1,122 @@
+package ru.naujava.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Минимальный HTTP-клиент REST API задач для нагрузочного теста.
+ */
+public class TaskManagerClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public TaskManagerClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Ответ сервера: код статуса и тело.
+     */
+    public record Response(int status, String body) {
+        /**
+         * Успешен ли ответ.
+         */
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /**
+     * Выполняет вход и возвращает JWT токен.
+     */
+    public Response login(String username, String password) throws IOException, InterruptedException {
+        return send(json("/api/auth/login", null)
+                .POST(body(Map.of("username", username, "password", password))));
+    }
+
+    /**
+     * Обменивает refresh-токен на новую пару токенов.
+     */
+    public Response refresh(String refreshToken) throws IOException, InterruptedException {
+        return send(json("/api/auth/refresh", null).POST(body(Map.of("refreshToken", refreshToken))));
+    }
+
+    /**
+     * Получает активные задачи пользователя.
+     */
+    public Response listTasks(String token) throws IOException, InterruptedException {
+        return send(json("/api/tasks", token).GET());
+    }
+
+    /**
+     * Создает задачу.
+     */
+    public Response createTask(String token, String description) throws IOException, InterruptedException {
+        return send(json("/api/tasks", token).POST(body(Map.of("description", description))));
+    }
+
+    /**
+     * Отмечает задачу как выполненную или возвращает в активные.
+     */
+    public Response toggleTask(String token, long taskId, boolean done) throws IOException, InterruptedException {
+        String path = "/api/tasks/" + taskId + (done ? "/done" : "/undone");
+        return send(json(path, token).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    /**
+     * Обновляет описание задачи.
+     */
+    public Response updateTask(String token, long taskId, String description)
+            throws IOException, InterruptedException {
+        return send(json("/api/tasks/" + taskId, token).PUT(body(Map.of("description", description))));
+    }
+
+    /**
+     * Удаляет задачу.
+     */
+    public Response deleteTask(String token, long taskId) throws IOException, InterruptedException {
+        return send(json("/api/tasks/" + taskId, token).DELETE());
+    }
+
+    /**
+     * Извлекает поле из JSON-ответа.
+     */
+    public JsonNode readField(Response response, String field) throws IOException {
+        return objectMapper.readTree(response.body()).get(field);
+    }
+
+    private HttpRequest.Builder json(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher body(Object value) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+    }
+
+    private Response send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), response.body());
+    }
+}
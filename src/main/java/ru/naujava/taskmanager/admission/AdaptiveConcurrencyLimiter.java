@@ -0,0 +1,170 @@
+package ru.naujava.taskmanager.admission;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничитель одновременных запросов с лимитом, который подстраивает {@link LimitAlgorithm}.
+ * <p>
+ * Запрос сверх лимита ждет в ограниченной очереди не дольше заданного времени, затем отклоняется.
+ * По завершении запроса вызывается один из методов {@link Permit}: время выполнения успешных
+ * запросов передается алгоритму.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final LimitAlgorithm algorithm;
+    private final int maxQueueSize;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private volatile int inFlight;
+    private volatile int queued;
+
+    /**
+     * Разрешение на выполнение запроса.
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean completed;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Запрос выполнен, его время выполнения учитывается алгоритмом.
+         */
+        public void onSuccess() {
+            complete(false, true);
+        }
+
+        /**
+         * Запрос потерян (превышено время ожидания или ошибка сервера), алгоритм должен уменьшить лимит.
+         */
+        public void onDropped() {
+            complete(true, true);
+        }
+
+        /**
+         * Запрос завершился ошибкой, не связанной с нагрузкой: время выполнения не учитывается.
+         */
+        public void onIgnore() {
+            complete(false, false);
+        }
+
+        private void complete(boolean dropped, boolean sample) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            release();
+            if (sample) {
+                int limitBefore = algorithm.getLimit();
+                algorithm.onSample(clock.getAsLong() - startNanos, inFlightAtStart, dropped);
+                if (algorithm.getLimit() > limitBefore) {
+                    signalAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param algorithm    алгоритм подстройки лимита
+     * @param maxQueueSize максимальное число запросов, ожидающих места
+     */
+    public AdaptiveConcurrencyLimiter(LimitAlgorithm algorithm, int maxQueueSize) {
+        this(algorithm, maxQueueSize, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(LimitAlgorithm algorithm, int maxQueueSize, LongSupplier clock) {
+        this.algorithm = algorithm;
+        this.maxQueueSize = maxQueueSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Получает разрешение без ожидания.
+     *
+     * @return разрешение или {@code null}, если лимит исчерпан
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            return inFlight < algorithm.getLimit() ? grant() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Получает разрешение, при исчерпанном лимите ожидая в очереди не дольше {@code maxWait}.
+     *
+     * @return разрешение или {@code null}, если очередь заполнена или время ожидания истекло
+     */
+    public Permit acquire(Duration maxWait) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < algorithm.getLimit()) {
+                return grant();
+            }
+            if (queued >= maxQueueSize || maxWait.isZero()) {
+                return null;
+            }
+            queued++;
+            try {
+                long remaining = maxWait.toNanos();
+                while (inFlight >= algorithm.getLimit()) {
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                return grant();
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    private Permit grant() {
+        inFlight++;
+        return new Permit(clock.getAsLong(), inFlight);
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalAll() {
+        lock.lock();
+        try {
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
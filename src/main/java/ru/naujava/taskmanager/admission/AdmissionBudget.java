@@ -0,0 +1,54 @@
+package ru.naujava.taskmanager.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Бюджет класса запросов: число одновременно выполняемых запросов и допустимое ожидание соединения.
+ */
+public class AdmissionBudget {
+    private final int maxConcurrent;
+    private final long maxPoolWaitNanos;
+    private final Semaphore permits;
+
+    /**
+     * @param maxConcurrent максимальное число одновременно выполняемых запросов класса
+     * @param maxPoolWait   среднее время ожидания соединения, начиная с которого новые запросы отклоняются
+     */
+    public AdmissionBudget(int maxConcurrent, Duration maxPoolWait) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Число одновременных запросов должно быть положительным");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxPoolWaitNanos = maxPoolWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Занимает место без ожидания.
+     *
+     * @return {@code true}, если место получено
+     */
+    boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    boolean isPoolWaitExceeded(ConnectionPoolMonitor.Sample sample) {
+        return sample.meanWaitNanos() > maxPoolWaitNanos;
+    }
+
+    /**
+     * Число выполняемых сейчас запросов класса.
+     */
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.naujava.taskmanager.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Конфигурация контроля допуска ({@link AdmissionFilter}).
+ * Отключается свойством {@code taskmanager.admission.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "taskmanager.admission.enabled", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public ConnectionPoolMonitor connectionPoolMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.admission.sample-interval:1s}") Duration sampleInterval) {
+        return new ConnectionPoolMonitor(meterRegistry, sampleInterval);
+    }
+
+    @Bean
+    public AdmissionFilter admissionFilter(
+            ConnectionPoolMonitor connectionPoolMonitor,
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.admission.read.max-concurrent:64}") int readMaxConcurrent,
+            @Value("${taskmanager.admission.read.max-pool-wait:200ms}") Duration readMaxPoolWait,
+            @Value("${taskmanager.admission.write.max-concurrent:32}") int writeMaxConcurrent,
+            @Value("${taskmanager.admission.write.max-pool-wait:500ms}") Duration writeMaxPoolWait,
+            @Value("${taskmanager.admission.login.max-concurrent:8}") int loginMaxConcurrent,
+            @Value("${taskmanager.admission.login.max-pool-wait:200ms}") Duration loginMaxPoolWait,
+            @Value("${taskmanager.admission.max-pending-connections:20}") int maxPendingConnections,
+            @Value("${taskmanager.admission.retry-after:1s}") Duration retryAfter) {
+        Map<RequestClass, AdmissionBudget> budgets = Map.of(
+                RequestClass.READ, new AdmissionBudget(readMaxConcurrent, readMaxPoolWait),
+                RequestClass.WRITE, new AdmissionBudget(writeMaxConcurrent, writeMaxPoolWait),
+                RequestClass.LOGIN, new AdmissionBudget(loginMaxConcurrent, loginMaxPoolWait));
+        return new AdmissionFilter(budgets, connectionPoolMonitor, maxPendingConnections, retryAfter, meterRegistry);
+    }
+}
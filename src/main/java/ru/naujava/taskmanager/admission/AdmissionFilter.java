@@ -0,0 +1,134 @@
+package ru.naujava.taskmanager.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.naujava.taskmanager.logging.LogMarkers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Фильтр контроля допуска: при перегрузке базы новые запросы сразу получают 503 с {@code Retry-After}
+ * вместо ожидания соединения в пуле.
+ * <p>
+ * Для чтения, изменения задач и входа ({@link RequestClass}) действуют отдельные бюджеты: запрос отклоняется,
+ * если занято {@code max-concurrent} мест своего класса, если среднее ожидание соединения Hikari превысило
+ * {@code max-pool-wait} класса или если соединения ждут больше {@code max-pending-connections} потоков.
+ * Сигналы пула обновляются раз в интервал выборки, поэтому прием запросов возобновляется сам,
+ * как только пул разгрузится. Отклоненные запросы считает метрика {@code taskmanager.admission.shed}.
+ * <p>
+ * Фильтр стоит перед Spring Security, чтобы отклоненные запросы не проверяли токен и не обращались к базе.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class AdmissionFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    static final String REASON_CONCURRENCY = "concurrency";
+    static final String REASON_POOL_WAIT = "pool-wait";
+    static final String REASON_POOL_PENDING = "pool-pending";
+
+    private static final byte[] BODY = ("{\"type\":\"about:blank\",\"title\":\"Service Unavailable\",\"status\":503,"
+            + "\"detail\":\"Сервер перегружен, повторите запрос позже\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final Map<RequestClass, AdmissionBudget> budgets;
+    private final ConnectionPoolMonitor poolMonitor;
+    private final int maxPendingConnections;
+    private final String retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param budgets               бюджеты классов запросов; классы без бюджета не ограничиваются
+     * @param poolMonitor           источник состояния пулов соединений
+     * @param maxPendingConnections число ожидающих соединение потоков, начиная с которого запросы отклоняются
+     * @param retryAfter            значение заголовка {@code Retry-After}
+     * @param meterRegistry         реестр метрик
+     */
+    public AdmissionFilter(Map<RequestClass, AdmissionBudget> budgets, ConnectionPoolMonitor poolMonitor,
+                           int maxPendingConnections, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.budgets = new EnumMap<>(budgets);
+        this.poolMonitor = poolMonitor;
+        this.maxPendingConnections = maxPendingConnections;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.meterRegistry = meterRegistry;
+        this.budgets.forEach((requestClass, budget) ->
+                Gauge.builder("taskmanager.admission.in.flight", budget, AdmissionBudget::getInFlight)
+                        .description("Выполняемые запросы класса")
+                        .tag("class", tag(requestClass))
+                        .register(meterRegistry));
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain chain) throws ServletException, IOException {
+        RequestClass requestClass = RequestClass.of(request);
+        AdmissionBudget budget = requestClass == null ? null : budgets.get(requestClass);
+        if (budget == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String reason = checkPool(budget);
+        if (reason == null && !budget.tryAcquire()) {
+            reason = REASON_CONCURRENCY;
+        }
+        if (reason != null) {
+            shed(requestClass, reason, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            budget.release();
+        }
+    }
+
+    private String checkPool(AdmissionBudget budget) {
+        ConnectionPoolMonitor.Sample sample = poolMonitor.sample();
+        if (sample.pendingThreads() > maxPendingConnections) {
+            return REASON_POOL_PENDING;
+        }
+        if (budget.isPoolWaitExceeded(sample)) {
+            return REASON_POOL_WAIT;
+        }
+        return null;
+    }
+
+    private void shed(RequestClass requestClass, String reason, HttpServletResponse response) throws IOException {
+        Counter.builder("taskmanager.admission.shed")
+                .description("Запросы, отклоненные контролем допуска")
+                .tag("class", tag(requestClass))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.atWarn().addMarker(LogMarkers.REPETITIVE)
+                .setMessage("Запрос отклонен контролем допуска")
+                .addKeyValue("class", requestClass)
+                .addKeyValue("reason", reason)
+                .log();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(BODY.length);
+        response.getOutputStream().write(BODY);
+    }
+
+    private static String tag(RequestClass requestClass) {
+        return requestClass.name().toLowerCase(Locale.ROOT);
+    }
+}
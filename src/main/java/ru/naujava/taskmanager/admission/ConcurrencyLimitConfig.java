@@ -0,0 +1,48 @@
+package ru.naujava.taskmanager.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Конфигурация адаптивного ограничения запросов к API ({@link ConcurrencyLimitFilter}).
+ * Алгоритм выбирается свойством {@code taskmanager.concurrency-limit.algorithm}:
+ * {@code gradient} (по умолчанию), {@code vegas} или {@code aimd}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "taskmanager.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public LimitAlgorithm limitAlgorithm(
+            @Value("${taskmanager.concurrency-limit.algorithm:gradient}") String algorithm,
+            @Value("${taskmanager.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${taskmanager.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${taskmanager.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${taskmanager.concurrency-limit.probe-interval:1000}") int probeInterval,
+            @Value("${taskmanager.concurrency-limit.aimd.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${taskmanager.concurrency-limit.aimd.timeout:500ms}") Duration timeout) {
+        return switch (algorithm.toLowerCase(Locale.ROOT)) {
+            case "gradient" -> new GradientLimit(initialLimit, minLimit, maxLimit, probeInterval);
+            case "vegas" -> new VegasLimit(initialLimit, minLimit, maxLimit, probeInterval);
+            case "aimd" -> new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, timeout);
+            default -> throw new IllegalArgumentException("Неизвестный алгоритм ограничения: " + algorithm);
+        };
+    }
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            LimitAlgorithm limitAlgorithm,
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.concurrency-limit.max-queue-size:50}") int maxQueueSize,
+            @Value("${taskmanager.concurrency-limit.max-queue-wait:50ms}") Duration maxQueueWait,
+            @Value("${taskmanager.admission.retry-after:1s}") Duration retryAfter) {
+        return new ConcurrencyLimitFilter(new AdaptiveConcurrencyLimiter(limitAlgorithm, maxQueueSize),
+                maxQueueWait, retryAfter, meterRegistry);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.naujava.taskmanager.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.naujava.taskmanager.logging.LogMarkers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Адаптивное ограничение числа одновременных запросов к {@code /api/**}.
+ * <p>
+ * Стоит после {@link AdmissionFilter} и перед Spring Security с {@code JwtAuthenticationFilter}:
+ * отклоненный запрос не проверяет токен. Запросы сверх лимита ждут в очереди до {@code maxQueueWait},
+ * затем получают 503 с {@code Retry-After}. Время выполнения ответов без ошибки сервера подстраивает лимит,
+ * а ответы 5xx (в том числе 503 от исчерпанных пулов) и исключения считаются потерянными запросами
+ * и уменьшают его.
+ * Метрики: {@code taskmanager.concurrency.limit}, {@code taskmanager.concurrency.in.flight},
+ * {@code taskmanager.concurrency.queued} и {@code taskmanager.concurrency.rejected}.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 30)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final byte[] BODY = ("{\"type\":\"about:blank\",\"title\":\"Service Unavailable\",\"status\":503,"
+            + "\"detail\":\"Превышен лимит одновременных запросов, повторите запрос позже\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration maxQueueWait;
+    private final String retryAfterSeconds;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Duration maxQueueWait, Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.maxQueueWait = maxQueueWait;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.rejected = Counter.builder("taskmanager.concurrency.rejected")
+                .description("Запросы к API, отклоненные адаптивным лимитом")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий адаптивный лимит одновременных запросов к API")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Выполняемые запросы к API")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Запросы к API, ожидающие места")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@Nonnull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain chain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire(maxQueueWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+        if (permit == null) {
+            reject(response);
+            return;
+        }
+        boolean success = false;
+        try {
+            chain.doFilter(request, response);
+            success = response.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            if (success) {
+                permit.onSuccess();
+            } else {
+                permit.onDropped();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        rejected.increment();
+        log.atWarn().addMarker(LogMarkers.REPETITIVE)
+                .setMessage("Запрос отклонен адаптивным лимитом")
+                .addKeyValue("limit", limiter.getLimit())
+                .log();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(BODY.length);
+        response.getOutputStream().write(BODY);
+    }
+}
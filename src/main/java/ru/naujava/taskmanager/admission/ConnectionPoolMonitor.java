@@ -0,0 +1,80 @@
+package ru.naujava.taskmanager.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Состояние пулов соединений по метрикам Hikari ({@code hikaricp.connections.pending}
+ * и {@code hikaricp.connections.acquire}) всех пулов приложения, включая реплики.
+ * <p>
+ * Снимок обновляется не чаще раза в {@code sampleInterval} потоком запроса, который первым заметил
+ * устаревание; остальные потоки в это время используют предыдущий снимок.
+ */
+public class ConnectionPoolMonitor {
+    private static final String PENDING = "hikaricp.connections.pending";
+    private static final String ACQUIRE = "hikaricp.connections.acquire";
+
+    private final MeterRegistry meterRegistry;
+    private final long sampleIntervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Sample sample = new Sample(0, 0);
+    private volatile long nextSampleAt = System.nanoTime();
+    private long lastAcquireCount;
+    private double lastAcquireNanos;
+
+    /**
+     * Снимок состояния пулов.
+     *
+     * @param pendingThreads  потоки, ожидающие соединение, во всех пулах
+     * @param meanWaitNanos   среднее время получения соединения за последний интервал
+     */
+    public record Sample(int pendingThreads, long meanWaitNanos) {
+    }
+
+    public ConnectionPoolMonitor(MeterRegistry meterRegistry, Duration sampleInterval) {
+        this.meterRegistry = meterRegistry;
+        this.sampleIntervalNanos = sampleInterval.toNanos();
+    }
+
+    /**
+     * Возвращает актуальный снимок, при необходимости обновляя его.
+     */
+    public Sample sample() {
+        long now = System.nanoTime();
+        if (now - nextSampleAt >= 0 && lock.tryLock()) {
+            try {
+                if (now - nextSampleAt >= 0) {
+                    sample = refresh();
+                    nextSampleAt = now + sampleIntervalNanos;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return sample;
+    }
+
+    private Sample refresh() {
+        int pending = 0;
+        for (Gauge gauge : meterRegistry.find(PENDING).gauges()) {
+            pending += (int) gauge.value();
+        }
+        long count = 0;
+        double totalNanos = 0;
+        for (Timer timer : meterRegistry.find(ACQUIRE).timers()) {
+            count += timer.count();
+            totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long deltaCount = count - lastAcquireCount;
+        long meanWait = deltaCount > 0 ? (long) ((totalNanos - lastAcquireNanos) / deltaCount) : 0;
+        lastAcquireCount = count;
+        lastAcquireNanos = totalNanos;
+        return new Sample(pending, meanWait);
+    }
+}
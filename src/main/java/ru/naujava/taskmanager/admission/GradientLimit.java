@@ -0,0 +1,73 @@
+package ru.naujava.taskmanager.admission;
+
+/**
+ * Градиентный алгоритм по мотивам Gradient из Netflix concurrency-limits.
+ * <p>
+ * Сравнивает экспоненциальное среднее времени выполнения с минимальным ({@code rttNoLoad}):
+ * градиент {@code tolerance * rttNoLoad / rtt}, ограниченный интервалом [0.5, 1], уменьшает лимит,
+ * когда задержка растет, а слагаемое {@code sqrt(limit)} дает запас для роста. Каждые
+ * {@code probeInterval} запросов лимит опускается до этого запаса, чтобы заново измерить время без очереди:
+ * иначе при постоянной перегрузке минимум растет вместе с задержкой и лимит не перестает расти.
+ */
+public class GradientLimit implements LimitAlgorithm {
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int RTT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double rtt;
+    private long rttNoLoad;
+    private int samplesUntilProbe;
+
+    /**
+     * @param probeInterval число запросов, после которого минимальное время выполнения измеряется заново
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.estimatedLimit = limit;
+        this.samplesUntilProbe = probeInterval;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = probeInterval;
+            rtt = 0;
+            rttNoLoad = 0;
+            update(Math.sqrt(estimatedLimit));
+            return;
+        }
+        rtt = rtt == 0 ? rttNanos : rtt + (rttNanos - rtt) * 2 / (RTT_WINDOW + 1);
+        if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+        }
+
+        if (inFlight * 2 < estimatedLimit && !dropped) {
+            return;
+        }
+        double gradient = dropped ? 0.5 : Math.clamp(TOLERANCE * rttNoLoad / rtt, 0.5, 1.0);
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING);
+    }
+
+    private void update(double next) {
+        estimatedLimit = Math.clamp(next, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
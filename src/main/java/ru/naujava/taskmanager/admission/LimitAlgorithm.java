@@ -0,0 +1,23 @@
+package ru.naujava.taskmanager.admission;
+
+/**
+ * Алгоритм адаптивного ограничения числа одновременных запросов.
+ * По завершенным запросам оценивает число запросов, при котором задержка еще не растет из-за очереди.
+ * Реализации потокобезопасны.
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * Текущий лимит одновременных запросов.
+     */
+    int getLimit();
+
+    /**
+     * Учитывает завершенный запрос.
+     *
+     * @param rttNanos время выполнения запроса
+     * @param inFlight число выполнявшихся запросов на момент начала этого запроса
+     * @param dropped  признак потерянного запроса (превышено время ожидания или ошибка сервера)
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
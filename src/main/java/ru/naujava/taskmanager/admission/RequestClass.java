@@ -0,0 +1,44 @@
+package ru.naujava.taskmanager.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Класс запроса для контроля допуска: у каждого класса свой бюджет.
+ */
+public enum RequestClass {
+    /**
+     * Чтение задач (GET и HEAD к {@code /tasks} и {@code /api/tasks}).
+     */
+    READ,
+    /**
+     * Изменение задач (остальные методы к {@code /tasks} и {@code /api/tasks}).
+     */
+    WRITE,
+    /**
+     * Вход и регистрация: хеширование пароля и обращение к базе.
+     */
+    LOGIN;
+
+    /**
+     * Определяет класс запроса.
+     *
+     * @return класс запроса или {@code null}, если запрос не контролируется
+     */
+    public static RequestClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        boolean get = "GET".equals(method) || "HEAD".equals(method);
+        if (!get && (path.equals("/login") || path.equals("/register")
+                || path.equals("/api/auth/login") || path.equals("/api/auth/register"))) {
+            return LOGIN;
+        }
+        if (isUnder(path, "/tasks") || isUnder(path, "/api/tasks")) {
+            return get ? READ : WRITE;
+        }
+        return null;
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+}
@@ -0,0 +1,77 @@
+package ru.naujava.taskmanager.admission;
+
+/**
+ * Алгоритм по мотивам TCP Vegas.
+ * <p>
+ * Минимальное время выполнения считается временем без очереди ({@code rttNoLoad}), а размер очереди
+ * оценивается как {@code limit * (1 - rttNoLoad / rtt)}. Пока очередь меньше {@code alpha}, лимит растет,
+ * когда больше {@code beta} — уменьшается. Пороги пропорциональны {@code log10(limit)}, поэтому большие
+ * лимиты меняются быстрее. Минимум периодически сбрасывается, чтобы учесть замедление самой базы.
+ */
+public class VegasLimit implements LimitAlgorithm {
+    private static final int ALPHA = 3;
+    private static final int BETA = 6;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private long rttNoLoad;
+    private int samplesUntilProbe;
+
+    /**
+     * @param probeInterval число запросов, после которого минимальное время выполнения измеряется заново
+     */
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.estimatedLimit = limit;
+        this.samplesUntilProbe = probeInterval;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = probeInterval;
+            rttNoLoad = rttNanos;
+            return;
+        }
+        if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return;
+        }
+
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double next;
+        if (dropped) {
+            next = estimatedLimit - log;
+        } else if (inFlight * 2 < estimatedLimit) {
+            return;
+        } else {
+            double queueSize = Math.ceil(estimatedLimit * (1 - (double) rttNoLoad / rttNanos));
+            if (queueSize <= log) {
+                next = estimatedLimit + BETA * log;
+            } else if (queueSize < ALPHA * log) {
+                next = estimatedLimit + log;
+            } else if (queueSize > BETA * log) {
+                next = estimatedLimit - log;
+            } else {
+                return;
+            }
+        }
+        estimatedLimit = Math.clamp(next, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
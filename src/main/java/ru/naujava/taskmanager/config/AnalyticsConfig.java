@@ -0,0 +1,33 @@
+package ru.naujava.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.naujava.taskmanager.repository.TaskCompletionLatencyRepository;
+import ru.naujava.taskmanager.repository.TaskDailyActiveUserRepository;
+import ru.naujava.taskmanager.repository.TaskDailyStatsRepository;
+import ru.naujava.taskmanager.service.TaskAnalyticsRecorder;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация аналитики задач ({@link TaskAnalyticsRecorder}): накопленные изменения
+ * записываются в дневные итоги каждые {@code taskmanager.analytics.flush-interval}.
+ */
+@Configuration
+public class AnalyticsConfig {
+
+    @Bean
+    public TaskAnalyticsRecorder taskAnalyticsRecorder(
+            TaskDailyStatsRepository dailyStatsRepository,
+            TaskDailyActiveUserRepository activeUserRepository,
+            TaskCompletionLatencyRepository latencyRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${taskmanager.analytics.flush-interval:30s}") Duration flushInterval) {
+        TaskAnalyticsRecorder recorder = new TaskAnalyticsRecorder(dailyStatsRepository, activeUserRepository,
+                latencyRepository, transactionManager);
+        recorder.scheduleFlush(flushInterval);
+        return recorder;
+    }
+}
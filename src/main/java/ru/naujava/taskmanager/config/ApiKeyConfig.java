@@ -0,0 +1,28 @@
+package ru.naujava.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.naujava.taskmanager.repository.ApiKeyRepository;
+import ru.naujava.taskmanager.security.ApiKeyUsageRecorder;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация учета использования API-ключей ({@link ApiKeyUsageRecorder}): время последнего
+ * использования записывается в базу каждые {@code taskmanager.api-keys.last-used-flush-interval}.
+ */
+@Configuration
+public class ApiKeyConfig {
+
+    @Bean
+    public ApiKeyUsageRecorder apiKeyUsageRecorder(
+            ApiKeyRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${taskmanager.api-keys.last-used-flush-interval:1m}") Duration flushInterval) {
+        ApiKeyUsageRecorder recorder = new ApiKeyUsageRecorder(repository, transactionManager);
+        recorder.scheduleFlush(flushInterval);
+        return recorder;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.naujava.taskmanager.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Конфигурация бинарных форматов для REST API.
+ * Клиенты, передающие {@code Accept: application/cbor} или {@code Content-Type: application/cbor},
+ * получают и отправляют тела запросов в CBOR вместо JSON.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    /**
+     * Конвертер CBOR на основе того же построителя ObjectMapper, что и JSON,
+     * чтобы модули и настройки сериализации (в том числе дат) совпадали.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+}
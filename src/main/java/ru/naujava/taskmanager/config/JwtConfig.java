@@ -0,0 +1,30 @@
+package ru.naujava.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.naujava.taskmanager.security.JwtKeyRing;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Конфигурация ключей подписи JWT ({@link JwtKeyRing}).
+ * Ключ {@code jwt.secret} действует всегда; для смены ключей без перезапуска {@code jwt.key-file}
+ * указывает файл с дополнительными ключами и текущим ключом, который перечитывается
+ * каждые {@code jwt.key-reload-interval}.
+ */
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public JwtKeyRing jwtKeyRing(
+            @Value("${jwt.secret:defaultSecret123023404560789012345678901234567890}") String secret,
+            @Value("${jwt.key-id:default}") String keyId,
+            @Value("${jwt.key-file:}") String keyFile,
+            @Value("${jwt.key-reload-interval:30s}") Duration reloadInterval) {
+        JwtKeyRing keyRing = new JwtKeyRing(keyId, secret, keyFile.isBlank() ? null : Path.of(keyFile));
+        keyRing.scheduleReload(reloadInterval);
+        return keyRing;
+    }
+}
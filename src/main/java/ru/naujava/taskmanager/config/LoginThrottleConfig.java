@@ -0,0 +1,37 @@
+package ru.naujava.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.naujava.taskmanager.security.LoginAttemptTracker;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация учета неудачных попыток входа и регистрации ({@link LoginAttemptTracker}).
+ * Пороги задаются отдельно для имени пользователя ({@code taskmanager.login-throttle.user.*})
+ * и IP-адреса ({@code taskmanager.login-throttle.ip.*}).
+ */
+@Configuration
+public class LoginThrottleConfig {
+
+    @Bean
+    public LoginAttemptTracker loginAttemptTracker(
+            @Value("${taskmanager.login-throttle.window:15m}") Duration window,
+            @Value("${taskmanager.login-throttle.base-delay:1s}") Duration baseDelay,
+            @Value("${taskmanager.login-throttle.max-delay:1m}") Duration maxDelay,
+            @Value("${taskmanager.login-throttle.lockout:15m}") Duration lockout,
+            @Value("${taskmanager.login-throttle.user.free-failures:3}") int userFreeFailures,
+            @Value("${taskmanager.login-throttle.user.lockout-failures:10}") int userLockoutFailures,
+            @Value("${taskmanager.login-throttle.ip.free-failures:20}") int ipFreeFailures,
+            @Value("${taskmanager.login-throttle.ip.lockout-failures:100}") int ipLockoutFailures,
+            @Value("${taskmanager.login-throttle.max-entries:100000}") int maxEntries,
+            @Value("${taskmanager.login-throttle.unknown-user-ttl:1m}") Duration unknownUserTtl) {
+        return new LoginAttemptTracker(
+                new LoginAttemptTracker.Policy(window, userFreeFailures, userLockoutFailures,
+                        baseDelay, maxDelay, lockout),
+                new LoginAttemptTracker.Policy(window, ipFreeFailures, ipLockoutFailures,
+                        baseDelay, maxDelay, lockout),
+                maxEntries, unknownUserTtl);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.naujava.taskmanager.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.naujava.taskmanager.security.BCryptCostCalibrator;
+import ru.naujava.taskmanager.security.ObservedPasswordEncoder;
+import ru.naujava.taskmanager.security.OffloadingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Конфигурация кодировщика паролей.
+ * <p>
+ * Новые хеши получают префикс {@code {bcrypt}} и стоимость {@code taskmanager.password.bcrypt.strength}
+ * или, если она не задана, подобранную под {@code taskmanager.password.target-hash-time}. Хеши без префикса
+ * и с меньшей стоимостью проверяются BCrypt и заменяются при следующем успешном входе.
+ * Хеширование выполняется в отдельном ограниченном пуле ({@link OffloadingPasswordEncoder}).
+ */
+@Configuration
+public class PasswordEncoderConfig {
+    private static final String BCRYPT = "bcrypt";
+
+    /**
+     * Настройка кодировщика паролей (с измерением времени BCrypt).
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            ObservationRegistry observationRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.password.bcrypt.strength:0}") int strength,
+            @Value("${taskmanager.password.bcrypt.min-strength:10}") int minStrength,
+            @Value("${taskmanager.password.target-hash-time:250ms}") Duration targetHashTime,
+            @Value("${taskmanager.password.hashing.threads:0}") int threads,
+            @Value("${taskmanager.password.hashing.queue-capacity:16}") int queueCapacity) {
+        int cost = strength > 0 ? strength : BCryptCostCalibrator.calibrate(targetHashTime, minStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        int hashingThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new OffloadingPasswordEncoder(new ObservedPasswordEncoder(delegating, observationRegistry),
+                hashingThreads, queueCapacity, meterRegistry);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.naujava.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает периодические задачи {@code @Scheduled}, например удаление истекших refresh-токенов.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
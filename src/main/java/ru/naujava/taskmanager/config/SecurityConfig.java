@@ -1,16 +1,23 @@
 package ru.naujava.taskmanager.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import ru.naujava.taskmanager.ratelimit.RateLimitFilter;
+import ru.naujava.taskmanager.security.ApiKeyAuthenticationFilter;
 import ru.naujava.taskmanager.security.CustomAccessDeniedHandler;
 import ru.naujava.taskmanager.security.CustomAuthenticationEntryPoint;
+import ru.naujava.taskmanager.security.FormLoginAuthenticationProvider;
+import ru.naujava.taskmanager.security.FormLoginFailureHandler;
 import ru.naujava.taskmanager.security.JwtAuthenticationFilter;
+import ru.naujava.taskmanager.security.LoginAttemptTracker;
+import ru.naujava.taskmanager.service.CustomUserDetailsService;
 
 /**
  * Конфигурация безопасности.
@@ -19,53 +26,75 @@ import ru.naujava.taskmanager.security.JwtAuthenticationFilter;
 @EnableWebSecurity
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
+    private final FormLoginFailureHandler formLoginFailureHandler;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          ApiKeyAuthenticationFilter apiKeyAuthenticationFilter,
                           CustomAuthenticationEntryPoint customAuthenticationEntryPoint,
-                          CustomAccessDeniedHandler customAccessDeniedHandler) {
+                          CustomAccessDeniedHandler customAccessDeniedHandler,
+                          FormLoginFailureHandler formLoginFailureHandler) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.apiKeyAuthenticationFilter = apiKeyAuthenticationFilter;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
         this.customAccessDeniedHandler = customAccessDeniedHandler;
+        this.formLoginFailureHandler = formLoginFailureHandler;
+    }
+
+    /**
+     * Проверка пароля при входе через форму. Пользователь загружается из базы, а не из кэша второго уровня,
+     * чтобы смена пароля и блокировка на другом узле действовали сразу; устаревший хеш пароля заменяется.
+     * Попытки после серии неудач отклоняются {@link LoginAttemptTracker} до проверки пароля (ответ 429),
+     * отказ пула хеширования становится ответом 503 ({@link FormLoginFailureHandler}).
+     */
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService,
+                                                            PasswordEncoder passwordEncoder,
+                                                            LoginAttemptTracker loginAttemptTracker) {
+        DaoAuthenticationProvider provider = new FormLoginAuthenticationProvider(
+                userDetailsService::loadUserForAuthentication, loginAttemptTracker);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return provider;
     }
 
     /**
      * Настройка цепочки фильтров безопасности.
+     * Аутентификация по API-ключу стоит перед JWT-аутентификацией, ограничение частоты запросов,
+     * если включено, — после нее. Импорт пользователей принимает только CSV и NDJSON, которые браузер
+     * не отправит с чужой страницы без CORS, поэтому CSRF-токен для него не требуется.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, ObjectProvider<RateLimitFilter> rateLimitFilter)
+            throws Exception {
         http
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/register", "/login", "/css/**", "/js/**",
                                 "/swagger-ui/**", "/v3/api-docs/**", "/api/auth/register",
-                                "/api/auth/login", "/api/**", "/access-denied").permitAll()
-                        .requestMatchers("/admin/**", "/monitoring/**").hasRole("ADMIN")
+                                "/api/auth/login", "/api/**", "/access-denied", "/actuator/health").permitAll()
+                        .requestMatchers("/admin/**", "/monitoring/**", "/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
                         .loginPage("/login")
                         .defaultSuccessUrl("/tasks", true)
+                        .failureHandler(formLoginFailureHandler)
                         .permitAll()
                 )
                 .logout(logout -> logout
                         .logoutSuccessUrl("/login?logout")
                         .permitAll()
                 )
-                .csrf(csrf -> csrf.ignoringRequestMatchers("/api/**"))
+                .csrf(csrf -> csrf.ignoringRequestMatchers("/api/**", "/admin/users/import"))
                 .exceptionHandling(exceptions -> exceptions
                         .authenticationEntryPoint(customAuthenticationEntryPoint)
                         .accessDeniedHandler(customAccessDeniedHandler)
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(apiKeyAuthenticationFilter, JwtAuthenticationFilter.class);
+        rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, JwtAuthenticationFilter.class));
         return http.build();
     }
-
-    /**
-     * Настройка кодировщика паролей.
-     */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
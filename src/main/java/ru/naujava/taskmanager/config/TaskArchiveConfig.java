@@ -0,0 +1,36 @@
+package ru.naujava.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.naujava.taskmanager.repository.ArchivedTaskRepository;
+import ru.naujava.taskmanager.repository.TaskRepository;
+import ru.naujava.taskmanager.service.TaskArchiver;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация архива выполненных задач ({@link TaskArchiver}): каждые {@code taskmanager.task-archive.interval}
+ * в {@code tasks_archive} переносятся задачи, выполненные раньше {@code taskmanager.task-archive.min-age}.
+ */
+@Configuration
+public class TaskArchiveConfig {
+
+    @Bean
+    public TaskArchiver taskArchiver(
+            TaskRepository taskRepository,
+            ArchivedTaskRepository archivedTaskRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${taskmanager.task-archive.min-age:90d}") Duration minAge,
+            @Value("${taskmanager.task-archive.batch-size:1000}") int batchSize,
+            @Value("${taskmanager.task-archive.batch-pause:200ms}") Duration batchPause,
+            @Value("${taskmanager.task-archive.interval:1h}") Duration interval) {
+        TaskArchiver archiver = new TaskArchiver(taskRepository, archivedTaskRepository, jdbcTemplate,
+                transactionManager, minAge, batchSize, batchPause);
+        archiver.scheduleArchiving(interval);
+        return archiver;
+    }
+}
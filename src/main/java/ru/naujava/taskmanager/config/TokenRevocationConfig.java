@@ -0,0 +1,33 @@
+package ru.naujava.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.naujava.taskmanager.repository.RevokedTokenRepository;
+import ru.naujava.taskmanager.security.TokenRevocationStore;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация списка отозванных JWT токенов ({@link TokenRevocationStore}).
+ * Записи загружаются из базы при запуске и подгружаются каждые
+ * {@code taskmanager.token-revocation.refresh-interval}.
+ */
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean
+    public TokenRevocationStore tokenRevocationStore(
+            RevokedTokenRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${jwt.expiration:900000}") long tokenLifetimeMillis,
+            @Value("${taskmanager.token-revocation.expected-entries:100000}") int expectedEntries,
+            @Value("${taskmanager.token-revocation.refresh-interval:30s}") Duration refreshInterval) {
+        TokenRevocationStore store = new TokenRevocationStore(repository, transactionManager,
+                Duration.ofMillis(tokenLifetimeMillis), expectedEntries);
+        store.refresh();
+        store.scheduleRefresh(refreshInterval);
+        return store;
+    }
+}
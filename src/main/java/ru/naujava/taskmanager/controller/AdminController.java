@@ -1,8 +1,20 @@
 package ru.naujava.taskmanager.controller;
 
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import ru.naujava.taskmanager.monitoring.SlowTraceStore;
+import ru.naujava.taskmanager.service.TaskAnalyticsService;
+import ru.naujava.taskmanager.service.UserAdminService;
 
 /**
  * Контроллер для административных функций.
@@ -10,11 +22,128 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
+    private static final int USERS_PAGE_SIZE = 50;
+
+    private static final int ANALYTICS_DEFAULT_DAYS = 30;
+
+    private final SlowTraceStore slowTraceStore;
+    private final UserAdminService userAdminService;
+    private final TaskAnalyticsService taskAnalyticsService;
+
+    public AdminController(SlowTraceStore slowTraceStore, UserAdminService userAdminService,
+                           TaskAnalyticsService taskAnalyticsService) {
+        this.slowTraceStore = slowTraceStore;
+        this.userAdminService = userAdminService;
+        this.taskAnalyticsService = taskAnalyticsService;
+    }
+
     /**
-     * Страница метрик (перенаправление на JavaMelody).
+     * Страница метрик (перенаправление на аналитику; метрики JVM доступны в JavaMelody по {@code /monitoring}).
      */
     @GetMapping("/metrics")
     public String metrics() {
-        return "redirect:/monitoring";
+        return "redirect:/admin/analytics";
+    }
+
+    /**
+     * Аналитика задач за последние {@code days} дней.
+     */
+    @GetMapping("/analytics")
+    public String analytics(@RequestParam(defaultValue = "" + ANALYTICS_DEFAULT_DAYS) int days, Model model) {
+        model.addAttribute("analytics", taskAnalyticsService.dashboard(days));
+        model.addAttribute("days", days);
+        return "admin/analytics";
+    }
+
+    /**
+     * Страница самых медленных и ошибочных трасс.
+     */
+    @GetMapping("/traces")
+    public String traces(Model model) {
+        model.addAttribute("traces", slowTraceStore.getSlowest());
+        return "admin/traces";
+    }
+
+    /**
+     * Очистка сохраненных трасс.
+     */
+    @PostMapping("/traces/clear")
+    public String clearTraces() {
+        slowTraceStore.clear();
+        return "redirect:/admin/traces";
+    }
+
+    /**
+     * Страница пользователей с поиском по имени; {@code after} — имя последнего пользователя предыдущей страницы.
+     */
+    @GetMapping("/users")
+    public String users(@RequestParam(required = false) String q,
+                        @RequestParam(defaultValue = "PREFIX") UserAdminService.SearchMode mode,
+                        @RequestParam(required = false) String after,
+                        Model model) {
+        model.addAttribute("users", userAdminService.findUsers(q, mode, after, USERS_PAGE_SIZE));
+        model.addAttribute("q", q);
+        model.addAttribute("mode", mode);
+        return "admin/users";
+    }
+
+    /**
+     * Список пользователей в JSON с теми же параметрами, что и страница.
+     */
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public UserAdminService.UserDirectoryPage usersJson(@RequestParam(required = false) String q,
+                                                        @RequestParam(defaultValue = "PREFIX") UserAdminService.SearchMode mode,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "50") int size) {
+        return userAdminService.findUsers(q, mode, after, size);
+    }
+
+    /**
+     * Блокировка пользователя.
+     */
+    @PostMapping("/users/{id}/lock")
+    public String lockUser(@PathVariable Long id,
+                           @AuthenticationPrincipal UserDetails userDetails,
+                           RedirectAttributes redirectAttributes) {
+        try {
+            userAdminService.setLocked(id, true, userDetails.getUsername());
+            redirectAttributes.addFlashAttribute("success", "Пользователь заблокирован");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/admin/users";
+    }
+
+    /**
+     * Разблокировка пользователя.
+     */
+    @PostMapping("/users/{id}/unlock")
+    public String unlockUser(@PathVariable Long id,
+                             @AuthenticationPrincipal UserDetails userDetails,
+                             RedirectAttributes redirectAttributes) {
+        try {
+            userAdminService.setLocked(id, false, userDetails.getUsername());
+            redirectAttributes.addFlashAttribute("success", "Пользователь разблокирован");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/admin/users";
+    }
+
+    /**
+     * Удаление пользователя вместе с задачами.
+     */
+    @PostMapping("/users/{id}/delete")
+    public String deleteUser(@PathVariable Long id,
+                             @AuthenticationPrincipal UserDetails userDetails,
+                             RedirectAttributes redirectAttributes) {
+        try {
+            long tasks = userAdminService.delete(id, userDetails.getUsername());
+            redirectAttributes.addFlashAttribute("success", "Пользователь удален, задач удалено: " + tasks);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/admin/users";
     }
 }
@@ -0,0 +1,188 @@
+package ru.naujava.taskmanager.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import ru.naujava.taskmanager.entity.ApiKey;
+import ru.naujava.taskmanager.entity.ApiKeyScope;
+import ru.naujava.taskmanager.service.ApiKeyService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * REST API контроллер для управления API-ключами текущего пользователя.
+ * Сам ключ возвращается только в ответе на создание; запросы с API-ключом к этому контроллеру
+ * отклоняет {@link ru.naujava.taskmanager.security.ApiKeyAuthenticationFilter}.
+ */
+@RestController
+@RequestMapping("/api/keys")
+@Tag(name = "API Keys", description = "API-ключи для машинных клиентов")
+@SecurityRequirement(name = "bearerAuth")
+public class ApiKeyApiController {
+    private final ApiKeyService apiKeyService;
+
+    public ApiKeyApiController(ApiKeyService apiKeyService) {
+        this.apiKeyService = apiKeyService;
+    }
+
+    /**
+     * Создать API-ключ.
+     */
+    @PostMapping
+    @Operation(summary = "Создать API-ключ",
+            description = "Создает ключ с указанными правами. Значение ключа возвращается только в этом ответе " +
+                    "и передается в заголовке X-API-Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ключ создан"),
+            @ApiResponse(responseCode = "400", description = "Неверные данные"),
+            @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+    })
+    public ResponseEntity<?> createKey(@RequestBody @Valid ApiKeyRequest request,
+                                       @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            Duration validity = request.getValidityDays() == null ? null : Duration.ofDays(request.getValidityDays());
+            ApiKeyService.CreatedKey created = apiKeyService.create(userDetails.getUsername(), request.getName(),
+                    request.getScopes(), validity);
+            ApiKey apiKey = created.apiKey();
+            return ResponseEntity.ok(new CreatedApiKeyDto(apiKey.getId(), apiKey.getName(), created.key(),
+                    apiKey.getScopes(), apiKey.getExpiresAt()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Получить API-ключи пользователя.
+     */
+    @GetMapping
+    @Operation(summary = "Получить API-ключи",
+            description = "Возвращает ключи текущего пользователя без их значений.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список ключей получен"),
+            @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+    })
+    public ResponseEntity<List<ApiKeyDto>> getKeys(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        List<ApiKeyDto> keys = apiKeyService.findByUsername(userDetails.getUsername()).stream()
+                .map(ApiKeyApiController::convertToDto)
+                .toList();
+        return ResponseEntity.ok(keys);
+    }
+
+    /**
+     * Отозвать API-ключ.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Отозвать API-ключ", description = "Отзывает ключ текущего пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Ключ отозван"),
+            @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован"),
+            @ApiResponse(responseCode = "404", description = "Ключ не найден")
+    })
+    public ResponseEntity<Void> revokeKey(@Parameter(description = "ID ключа") @PathVariable Long id,
+                                          @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!apiKeyService.revoke(userDetails.getUsername(), id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ApiKeyDto convertToDto(ApiKey apiKey) {
+        return new ApiKeyDto(apiKey.getId(), apiKey.getName(), apiKey.getPrefix(), apiKey.getScopes(),
+                apiKey.getCreatedAt(), apiKey.getExpiresAt(), apiKey.getLastUsedAt(), apiKey.getRevokedAt() != null);
+    }
+
+    /**
+     * DTO созданного ключа: единственный ответ, содержащий значение ключа.
+     */
+    public record CreatedApiKeyDto(Long id, String name, String key, Set<ApiKeyScope> scopes,
+                                   LocalDateTime expiresAt) {
+    }
+
+    /**
+     * DTO ключа без его значения.
+     */
+    public record ApiKeyDto(Long id, String name, String prefix, Set<ApiKeyScope> scopes, LocalDateTime createdAt,
+                            LocalDateTime expiresAt, LocalDateTime lastUsedAt, boolean revoked) {
+    }
+
+    /**
+     * DTO для запроса ключа.
+     */
+    public static class ApiKeyRequest {
+        @NotBlank(message = "Название ключа не должно быть пустым")
+        @Size(max = 100, message = "Название ключа не может превышать 100 символов")
+        private String name;
+
+        @NotEmpty(message = "Нужно указать хотя бы одно право ключа")
+        private Set<ApiKeyScope> scopes;
+
+        @Positive(message = "Срок действия должен быть положительным")
+        private Integer validityDays;
+
+        /**
+         * Получить название ключа.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Установить название ключа.
+         */
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Получить права ключа.
+         */
+        public Set<ApiKeyScope> getScopes() {
+            return scopes;
+        }
+
+        /**
+         * Установить права ключа.
+         */
+        public void setScopes(Set<ApiKeyScope> scopes) {
+            this.scopes = scopes;
+        }
+
+        /**
+         * Получить срок действия в днях ({@code null} — бессрочный ключ).
+         */
+        public Integer getValidityDays() {
+            return validityDays;
+        }
+
+        /**
+         * Установить срок действия в днях.
+         */
+        public void setValidityDays(Integer validityDays) {
+            this.validityDays = validityDays;
+        }
+    }
+}
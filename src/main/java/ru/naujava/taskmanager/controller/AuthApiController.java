@@ -1,5 +1,7 @@
 package ru.naujava.taskmanager.controller;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,31 +14,45 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
 import org.springframework.web.bind.annotation.*;
 import ru.naujava.taskmanager.entity.Role;
 import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.exception.LoginThrottledException;
 import ru.naujava.taskmanager.security.JwtUtil;
+import ru.naujava.taskmanager.security.LoginAttemptTracker;
+import ru.naujava.taskmanager.security.TokenRevocationStore;
+import ru.naujava.taskmanager.service.RefreshTokenService;
 import ru.naujava.taskmanager.service.UserService;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST API контроллер для аутентификации и управления пользователями.
+ * Неудачные попытки входа и регистрации учитывает {@link LoginAttemptTracker}: после серии неудач
+ * попытки с того же имени или адреса получают 429 без проверки пароля. Вход выдает короткоживущий JWT
+ * и одноразовый refresh-токен ({@link RefreshTokenService}), который обменивается на новую пару без пароля.
+ * При выходе токен запроса отзывается ({@link TokenRevocationStore}).
  */
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication API", description = "API для аутентификации и управления пользователями")
 public class AuthApiController {
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthApiController(UserService userService, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthApiController(UserService userService, JwtUtil jwtUtil, LoginAttemptTracker loginAttemptTracker,
+                             TokenRevocationStore tokenRevocationStore, RefreshTokenService refreshTokenService) {
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.loginAttemptTracker = loginAttemptTracker;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.refreshTokenService = refreshTokenService;
     }
 
     /**
@@ -46,11 +62,15 @@ public class AuthApiController {
     @Operation(summary = "Регистрация нового пользователя",
             description = "Создает нового пользователя с указанным именем и паролем. " +
                     "Пароль должен быть не менее 8 символов.")
-    public ResponseEntity<String> register(@RequestBody @Valid RegisterRequest request) {
+    public ResponseEntity<String> register(@RequestBody @Valid RegisterRequest request,
+                                           HttpServletRequest httpRequest) {
+        String clientAddress = httpRequest.getRemoteAddr();
+        checkThrottled(null, clientAddress);
         try {
             userService.register(request.getUsername(), request.getPassword(), Role.USER);
             return ResponseEntity.ok("Пользователь успешно зарегистрирован");
         } catch (IllegalArgumentException e) {
+            loginAttemptTracker.onFailure(null, clientAddress);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -98,13 +118,19 @@ public class AuthApiController {
      */
     @PostMapping("/logout")
     @Operation(summary = "Выход из системы",
-            description = "Выполняет выход из системы для текущего пользователя.")
+            description = "Выполняет выход из системы для текущего пользователя. JWT токен запроса " +
+                    "отзывается и больше не принимается; переданный refresh-токен отзывается вместе с семейством.")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<String> logout(HttpServletRequest request, HttpServletResponse response,
+    public ResponseEntity<String> logout(@RequestBody(required = false) RefreshRequest refreshRequest,
+                                         HttpServletRequest request, HttpServletResponse response,
                                          @AuthenticationPrincipal UserDetails userDetails) {
         if (userDetails == null) {
             return ResponseEntity.status(401).build();
         }
+        revokeRequestToken(request);
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revokeFamily(refreshRequest.getRefreshToken());
+        }
         SecurityContextLogoutHandler logoutHandler = new SecurityContextLogoutHandler();
         logoutHandler.logout(request, response, null);
         return ResponseEntity.ok("Выход выполнен успешно");
@@ -115,20 +141,74 @@ public class AuthApiController {
      */
     @PostMapping("/login")
     @Operation(summary = "Вход в систему",
-            description = "Аутентифицирует пользователя и возвращает JWT токен.")
-    public ResponseEntity<?> login(@RequestBody @Valid LoginRequest request) {
-        // Проверка учетных данных через UserService
-        var user = userService.findByUsername(request.getUsername());
-        if (user.isPresent() && passwordEncoder.matches(request.getPassword(), user.get().getPassword())) {
-            String token = jwtUtil.generateToken(new org.springframework.security.core.userdetails.User(
-                    user.get().getUsername(), user.get().getPassword(),
-                    List.of(new SimpleGrantedAuthority("ROLE_" + user.get().getRole().name()))));
-            return ResponseEntity.ok(new LoginResponse(token));
+            description = "Аутентифицирует пользователя и возвращает JWT токен и refresh-токен.")
+    public ResponseEntity<?> login(@RequestBody @Valid LoginRequest request, HttpServletRequest httpRequest) {
+        String username = request.getUsername();
+        String clientAddress = httpRequest.getRemoteAddr();
+        // Попытки после серии неудач и несуществующие имена отклоняются до запроса к базе и BCrypt
+        checkThrottled(username, clientAddress);
+        Optional<User> user = loginAttemptTracker.isUnknownUser(username)
+                ? Optional.empty()
+                : userService.findForAuthentication(username);
+        if (user.isEmpty()) {
+            loginAttemptTracker.markUnknownUser(username);
+        }
+        // Проверка пароля через UserService (устаревший хеш пароля заменяется)
+        if (user.isPresent() && userService.verifyPassword(user.get(), request.getPassword())) {
+            loginAttemptTracker.onSuccess(username);
+            if (user.get().isLocked()) {
+                return ResponseEntity.status(403).body("Учетная запись заблокирована");
+            }
+            return ResponseEntity.ok(issueTokens(user.get(), refreshTokenService.issue(user.get())));
         } else {
+            loginAttemptTracker.onFailure(username, clientAddress);
             return ResponseEntity.status(401).body("Неверные учетные данные");
         }
     }
 
+    private void revokeRequestToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return;
+        }
+        try {
+            Claims claims = jwtUtil.getAllClaimsFromToken(header.substring(7));
+            if (claims.getId() != null) {
+                tokenRevocationStore.revoke(claims.getId(), claims.getSubject(), claims.getExpiration());
+            }
+        } catch (JwtException e) {
+            // Пользователь аутентифицирован сессией, а не этим токеном: отзывать нечего
+        }
+    }
+
+    /**
+     * Обмен refresh-токена на новую пару токенов.
+     */
+    @PostMapping("/refresh")
+    @Operation(summary = "Обновить токены",
+            description = "Обменивает одноразовый refresh-токен на новый JWT и новый refresh-токен без проверки " +
+                    "пароля. Повторное использование refresh-токена отзывает все токены этого входа.")
+    public ResponseEntity<?> refresh(@RequestBody @Valid RefreshRequest request) {
+        return refreshTokenService.rotate(request.getRefreshToken())
+                .<ResponseEntity<?>>map(rotation -> ResponseEntity.ok(
+                        issueTokens(rotation.user(), rotation.refreshToken())))
+                .orElseGet(() -> ResponseEntity.status(401).body("Недействительный refresh-токен"));
+    }
+
+    private LoginResponse issueTokens(User user, String refreshToken) {
+        String token = jwtUtil.generateToken(new org.springframework.security.core.userdetails.User(
+                user.getUsername(), user.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))));
+        return new LoginResponse(token, refreshToken, jwtUtil.getExpiration().toSeconds());
+    }
+
+    private void checkThrottled(String username, String clientAddress) {
+        Duration retryAfter = loginAttemptTracker.retryAfter(username, clientAddress);
+        if (retryAfter.isPositive()) {
+            throw new LoginThrottledException(retryAfter);
+        }
+    }
+
     /**
      * DTO для запроса регистрации.
      */
@@ -276,13 +356,40 @@ public class AuthApiController {
     }
 
     /**
-     * DTO для ответа при входе в систему (содержит JWT токен).
+     * DTO для запроса обмена refresh-токена.
+     */
+    public static class RefreshRequest {
+        @NotBlank(message = "Refresh-токен не должен быть пустым")
+        private String refreshToken;
+
+        /**
+         * Получить refresh-токен.
+         */
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        /**
+         * Установить refresh-токен.
+         */
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
+    /**
+     * DTO для ответа при входе в систему и обмене refresh-токена
+     * (JWT токен, refresh-токен и время жизни JWT в секундах).
      */
     public static class LoginResponse {
         private final String token;
+        private final String refreshToken;
+        private final long expiresIn;
 
-        public LoginResponse(String token) {
+        public LoginResponse(String token, String refreshToken, long expiresIn) {
             this.token = token;
+            this.refreshToken = refreshToken;
+            this.expiresIn = expiresIn;
         }
 
         /**
@@ -291,5 +398,19 @@ public class AuthApiController {
         public String getToken() {
             return token;
         }
+
+        /**
+         * Получить refresh-токен.
+         */
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        /**
+         * Получить время жизни токена в секундах.
+         */
+        public long getExpiresIn() {
+            return expiresIn;
+        }
     }
 }
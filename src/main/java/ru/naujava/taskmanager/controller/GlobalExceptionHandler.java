@@ -1,18 +1,33 @@
 package ru.naujava.taskmanager.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import ru.naujava.taskmanager.exception.DomainException;
+import ru.naujava.taskmanager.exception.DuplicateTaskException;
+import ru.naujava.taskmanager.exception.InvalidTaskException;
+import ru.naujava.taskmanager.exception.LoginThrottledException;
+import ru.naujava.taskmanager.exception.PasswordHashingRejectedException;
+import ru.naujava.taskmanager.exception.TaskNotFoundException;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Глобальный обработчик исключений для контроллеров.
+ * Исключения предметной области преобразуются в ответы RFC 7807 ({@code application/problem+json})
+ * и логируются на уровне DEBUG без трассировки стека: предупреждения о дубликатах пишет сам сервис.
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     /**
      * Обработка ошибок валидации.
      */
@@ -24,4 +39,57 @@ public class GlobalExceptionHandler {
                 errors.put(error.getField(), error.getDefaultMessage()));
         return ResponseEntity.badRequest().body(errors);
     }
+
+    /**
+     * Задача не найдена: 404.
+     */
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleTaskNotFound(TaskNotFoundException ex) {
+        logger.atDebug().setMessage("Задача не найдена")
+                .addKeyValue("taskId", ex.getTaskId())
+                .log();
+        return problem(HttpStatus.NOT_FOUND, "Задача не найдена", ex);
+    }
+
+    /**
+     * Неверные данные или дубликат задачи: 400.
+     */
+    @ExceptionHandler({InvalidTaskException.class, DuplicateTaskException.class})
+    public ResponseEntity<ProblemDetail> handleRejectedTask(DomainException ex) {
+        logger.atDebug().setMessage("Операция с задачей отклонена")
+                .addKeyValue("reason", ex.getClass().getSimpleName())
+                .log();
+        return problem(HttpStatus.BAD_REQUEST, "Неверные данные задачи", ex);
+    }
+
+    /**
+     * Очередь хеширования паролей заполнена: 503 с {@code Retry-After}.
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ProblemDetail> handlePasswordHashingRejected(PasswordHashingRejectedException ex) {
+        logger.atDebug().setMessage("Операция с паролем отклонена: очередь хеширования заполнена").log();
+        ProblemDetail body = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    /**
+     * Попытка входа или регистрации после серии неудач: 429 с {@code Retry-After}.
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ProblemDetail> handleLoginThrottled(LoginThrottledException ex) {
+        logger.atDebug().setMessage("Попытка входа отклонена после серии неудач").log();
+        long retryAfterSeconds = Math.max(1, ex.getRetryAfter().plusMillis(999).toSeconds());
+        ProblemDetail body = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(body);
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String title, DomainException ex) {
+        ProblemDetail body = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        body.setTitle(title);
+        return ResponseEntity.status(status).body(body);
+    }
 }
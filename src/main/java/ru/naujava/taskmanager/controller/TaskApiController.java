@@ -1,5 +1,6 @@
 package ru.naujava.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -7,8 +8,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,13 +22,13 @@ import java.util.List;
 
 /**
  * REST API контроллер для управления задачами.
+ * Отказы сервиса (задача не найдена, дубликат) преобразуются в ответы {@code application/problem+json}
+ * в {@link GlobalExceptionHandler}.
  */
 @RestController
 @RequestMapping("/api/tasks")
 @Tag(name = "Task Management API", description = "API для управления задачами пользователя")
 public class TaskApiController {
-    private static final Logger logger = LoggerFactory.getLogger(TaskApiController.class);
-
     private final TaskService taskService;
     private final UserService userService;
 
@@ -54,7 +53,7 @@ public class TaskApiController {
         }
         User user = getCurrentUser(userDetails);
         List<Task> tasks = taskService.findActiveTasksByUser(user);
-        List<TaskDto> taskDtos = tasks.stream().map(this::convertToDto).toList();
+        List<TaskDto> taskDtos = tasks.stream().map(TaskApiController::convertToDto).toList();
         return ResponseEntity.ok(taskDtos);
     }
 
@@ -75,7 +74,7 @@ public class TaskApiController {
         }
         User user = getCurrentUser(userDetails);
         List<Task> tasks = taskService.findCompletedTasksByUser(user);
-        List<TaskDto> taskDtos = tasks.stream().map(this::convertToDto).toList();
+        List<TaskDto> taskDtos = tasks.stream().map(TaskApiController::convertToDto).toList();
         return ResponseEntity.ok(taskDtos);
     }
 
@@ -97,14 +96,9 @@ public class TaskApiController {
             return ResponseEntity.status(401).build();
         }
         User user = getCurrentUser(userDetails);
-        try {
-            Task task = taskService.createTask(request.getDescription(), user);
-            TaskDto taskDto = convertToDto(task);
-            return ResponseEntity.ok(taskDto);
-        } catch (IllegalArgumentException e) {
-            logger.error("Ошибка при создании задачи для пользователя {}", userDetails.getUsername(), e);
-            return ResponseEntity.badRequest().build();
-        }
+        Task task = taskService.createTask(request.getDescription(), user);
+        TaskDto taskDto = convertToDto(task);
+        return ResponseEntity.ok(taskDto);
     }
 
     /**
@@ -124,15 +118,9 @@ public class TaskApiController {
             return ResponseEntity.status(401).build();
         }
         User user = getCurrentUser(userDetails);
-        try {
-            Task task = taskService.markTaskAsDone(id, user);
-            TaskDto taskDto = convertToDto(task);
-            return ResponseEntity.ok(taskDto);
-        } catch (IllegalArgumentException e) {
-            logger.error("Ошибка при отметке задачи {} как выполненной для пользователя {}",
-                    id, userDetails.getUsername(), e);
-            return ResponseEntity.notFound().build();
-        }
+        Task task = taskService.markTaskAsDone(id, user);
+        TaskDto taskDto = convertToDto(task);
+        return ResponseEntity.ok(taskDto);
     }
 
     /**
@@ -152,15 +140,9 @@ public class TaskApiController {
             return ResponseEntity.status(401).build();
         }
         User user = getCurrentUser(userDetails);
-        try {
-            Task task = taskService.markTaskAsNotDone(id, user);
-            TaskDto taskDto = convertToDto(task);
-            return ResponseEntity.ok(taskDto);
-        } catch (IllegalArgumentException e) {
-            logger.error("Ошибка при возврате задачи {} в активные для пользователя {}",
-                    id, userDetails.getUsername(), e);
-            return ResponseEntity.notFound().build();
-        }
+        Task task = taskService.markTaskAsNotDone(id, user);
+        TaskDto taskDto = convertToDto(task);
+        return ResponseEntity.ok(taskDto);
     }
 
     /**
@@ -182,18 +164,9 @@ public class TaskApiController {
             return ResponseEntity.status(401).build();
         }
         User user = getCurrentUser(userDetails);
-        try {
-            Task task = taskService.updateTaskDescription(id, request.getDescription(), user);
-            TaskDto taskDto = convertToDto(task);
-            return ResponseEntity.ok(taskDto);
-        } catch (IllegalArgumentException e) {
-            logger.error("Ошибка при обновлении задачи {} для пользователя {}", id, userDetails.getUsername(), e);
-            if (e.getMessage().contains("не найдена")) {
-                return ResponseEntity.notFound().build();
-            } else {
-                return ResponseEntity.badRequest().build();
-            }
-        }
+        Task task = taskService.updateTaskDescription(id, request.getDescription(), user);
+        TaskDto taskDto = convertToDto(task);
+        return ResponseEntity.ok(taskDto);
     }
 
     /**
@@ -213,13 +186,8 @@ public class TaskApiController {
             return ResponseEntity.status(401).build();
         }
         User user = getCurrentUser(userDetails);
-        try {
-            taskService.deleteTaskByIdAndUser(id, user);
-            return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            logger.error("Ошибка при удалении задачи {} для пользователя {}", id, userDetails.getUsername(), e);
-            return ResponseEntity.notFound().build();
-        }
+        taskService.deleteTaskByIdAndUser(id, user);
+        return ResponseEntity.noContent().build();
     }
 
     /**
@@ -233,64 +201,18 @@ public class TaskApiController {
     /**
      * Преобразовать Task в TaskDto.
      */
-    private TaskDto convertToDto(Task task) {
+    static TaskDto convertToDto(Task task) {
         return new TaskDto(task.getId(), task.getDescription(), task.isDone(),
                 task.getCreatedAt(), task.getUpdatedAt());
     }
 
     /**
      * DTO для задачи.
+     * Сериализуется через {@link TaskDtoSerializer} без рефлексии и промежуточных строк для дат.
      */
-    public static class TaskDto {
-        private final Long id;
-        private final String description;
-        private final boolean done;
-        private final LocalDateTime createdAt;
-        private final LocalDateTime updatedAt;
-
-        public TaskDto(Long id, String description, boolean done,
-                       LocalDateTime createdAt, LocalDateTime updatedAt) {
-            this.id = id;
-            this.description = description;
-            this.done = done;
-            this.createdAt = createdAt;
-            this.updatedAt = updatedAt;
-        }
-
-        /**
-         * Получить ID.
-         */
-        public Long getId() {
-            return id;
-        }
-
-        /**
-         * Получить описание.
-         */
-        public String getDescription() {
-            return description;
-        }
-
-        /**
-         * Проверить, выполнена ли задача.
-         */
-        public boolean isDone() {
-            return done;
-        }
-
-        /**
-         * Получить дату создания.
-         */
-        public LocalDateTime getCreatedAt() {
-            return createdAt;
-        }
-
-        /**
-         * Получить дату обновления.
-         */
-        public LocalDateTime getUpdatedAt() {
-            return updatedAt;
-        }
+    @JsonSerialize(using = TaskDtoSerializer.class)
+    public record TaskDto(Long id, String description, boolean done,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
     }
 
     /**
@@ -19,6 +19,8 @@ import java.util.List;
 @Controller
 @RequestMapping("/tasks")
 public class TaskController {
+    private static final int COMPLETED_PAGE_SIZE = 50;
+
     private final TaskService taskService;
     private final UserService userService;
 
@@ -40,13 +42,16 @@ public class TaskController {
     }
 
     /**
-     * Показывает выполненные задачи.
+     * Показывает выполненные задачи, включая архивные, страницами после задачи {@code after}.
      */
     @GetMapping("/completed")
-    public String listCompletedTasks(@AuthenticationPrincipal UserDetails userDetails, Model model) {
+    public String listCompletedTasks(@AuthenticationPrincipal UserDetails userDetails,
+                                     @RequestParam(required = false) Long after,
+                                     Model model) {
         User user = getCurrentUser(userDetails);
-        List<Task> tasks = taskService.findCompletedTasksByUser(user);
-        model.addAttribute("tasks", tasks);
+        TaskService.CompletedTasksPage page = taskService.findCompletedTasksByUser(user, after, COMPLETED_PAGE_SIZE);
+        model.addAttribute("tasks", page.tasks());
+        model.addAttribute("next", page.next());
         return "completed-tasks";
     }
 
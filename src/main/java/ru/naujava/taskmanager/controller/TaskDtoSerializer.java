@@ -0,0 +1,107 @@
+package ru.naujava.taskmanager.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.naujava.taskmanager.controller.TaskApiController.TaskDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Сериализатор {@link TaskDto}.
+ * Пишет поля напрямую в генератор: имена полей закодированы заранее, а даты форматируются
+ * в ISO-8601 (как {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}) в буфер символов без создания строк.
+ */
+public class TaskDtoSerializer extends StdSerializer<TaskDto> {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString DONE = new SerializedString("done");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+
+    /**
+     * Максимальная длина даты: yyyy-MM-ddTHH:mm:ss.nnnnnnnnn.
+     */
+    private static final int MAX_TIMESTAMP_LENGTH = 29;
+
+    public TaskDtoSerializer() {
+        super(TaskDto.class);
+    }
+
+    @Override
+    public void serialize(TaskDto task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[MAX_TIMESTAMP_LENGTH];
+        gen.writeStartObject(task);
+        gen.writeFieldName(ID);
+        if (task.id() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(task.id());
+        }
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(task.description());
+        gen.writeFieldName(DONE);
+        gen.writeBoolean(task.done());
+        gen.writeFieldName(CREATED_AT);
+        writeTimestamp(gen, task.createdAt(), buffer);
+        gen.writeFieldName(UPDATED_AT);
+        writeTimestamp(gen, task.updatedAt(), buffer);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Записывает дату в формате ISO-8601.
+     * Годы вне диапазона 0..9999 требуют знака и расширенной записи, поэтому отдаются стандартному форматтеру.
+     */
+    private static void writeTimestamp(JsonGenerator gen, LocalDateTime value, char[] buffer) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        int pos = 0;
+        pos = writeDigits(buffer, pos, year, 4);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, value.getMonthValue(), 2);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, value.getDayOfMonth(), 2);
+        buffer[pos++] = 'T';
+        pos = writeDigits(buffer, pos, value.getHour(), 2);
+        buffer[pos++] = ':';
+        pos = writeDigits(buffer, pos, value.getMinute(), 2);
+        buffer[pos++] = ':';
+        pos = writeDigits(buffer, pos, value.getSecond(), 2);
+
+        int nano = value.getNano();
+        if (nano > 0) {
+            // Как и ISO_LOCAL_DATE_TIME, выводим минимально необходимое число знаков дробной части
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[pos++] = '.';
+            pos = writeDigits(buffer, pos, nano, digits);
+        }
+        gen.writeString(buffer, 0, pos);
+    }
+
+    /**
+     * Записывает число с ведущими нулями фиксированной ширины.
+     */
+    private static int writeDigits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
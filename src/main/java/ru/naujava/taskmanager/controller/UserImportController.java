@@ -0,0 +1,77 @@
+package ru.naujava.taskmanager.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.naujava.taskmanager.service.UserImportJob;
+import ru.naujava.taskmanager.service.UserImportService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST контроллер массового импорта пользователей (только для администраторов).
+ * Импорт выполняется в фоне, ход и отклоненные строки доступны по {@code GET /admin/users/import/{id}}.
+ */
+@RestController
+@RequestMapping("/admin/users/import")
+@Tag(name = "User Import", description = "Массовый импорт пользователей")
+@SecurityRequirement(name = "bearerAuth")
+public class UserImportController {
+    private final UserImportService userImportService;
+
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    /**
+     * Запустить импорт пользователей.
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Импортировать пользователей",
+            description = "Принимает CSV (username,password[,role]) или NDJSON и запускает фоновый импорт.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Импорт поставлен в очередь"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав"),
+            @ApiResponse(responseCode = "503", description = "Очередь импортов заполнена")
+    })
+    public ResponseEntity<UserImportJob.Snapshot> startImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        UserImportService.Format format = UserImportService.Format.of(contentType).orElseThrow();
+        try {
+            UserImportJob.Snapshot job = userImportService.start(request.getInputStream(), format);
+            return ResponseEntity.accepted()
+                    .location(URI.create(request.getRequestURI() + "/" + job.id()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "60").build();
+        }
+    }
+
+    /**
+     * Получить ход импорта.
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Получить ход импорта",
+            description = "Возвращает состояние импорта, счетчики и отклоненные строки.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт найден"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав"),
+            @ApiResponse(responseCode = "404", description = "Импорт не найден")
+    })
+    public ResponseEntity<UserImportJob.Snapshot> getImport(@Parameter(description = "ID импорта") @PathVariable String id) {
+        return userImportService.findJob(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
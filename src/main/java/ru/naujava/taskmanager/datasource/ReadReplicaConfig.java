@@ -0,0 +1,114 @@
+package ru.naujava.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разделение чтения и записи между основной базой и репликами.
+ * <p>
+ * Включается свойством {@code taskmanager.datasource.replica-urls} (адреса реплик через запятую).
+ * Тогда бин {@code dataSource} заменяется на {@link ReadWriteRoutingDataSource} поверх пулов основной базы
+ * и реплик: методы с {@code @Transactional(readOnly = true)} читают с реплик, остальное идет на основную базу.
+ * Без свойства используется обычный источник данных Spring Boot.
+ * <p>
+ * Все пулы получают настройки {@code spring.datasource.hikari.*}. У реплик время ожидания соединения
+ * ({@code taskmanager.datasource.replica-connection-timeout}) и проверки соединения
+ * ({@code taskmanager.datasource.replica-validation-timeout}) короткие: при недоступной реплике чтение
+ * быстро переключается на основную базу, а не ждет стандартные 30 секунд Hikari.
+ */
+@Configuration
+@ConditionalOnProperty("taskmanager.datasource.replica-urls")
+public class ReadReplicaConfig implements DisposableBean {
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${taskmanager.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${taskmanager.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${taskmanager.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${taskmanager.datasource.read-your-writes:5s}") Duration readYourWrites,
+            @Value("${taskmanager.datasource.replica-retry-interval:10s}") Duration retryInterval,
+            @Value("${taskmanager.datasource.replica-connection-timeout:1s}") Duration replicaConnectionTimeout,
+            @Value("${taskmanager.datasource.replica-validation-timeout:500ms}") Duration replicaValidationTimeout) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindHikariProperties(binder, primary);
+        register(primary, "primary", meterRegistry);
+
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (String url : replicaUrls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            bindHikariProperties(binder, replica);
+            replica.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+            replica.setValidationTimeout(replicaValidationTimeout.toMillis());
+            replica.setReadOnly(true);
+            register(replica, "replica-" + (replicas.size() + 1), meterRegistry);
+            replicas.add(replica);
+        }
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replicas, readYourWrites, retryInterval));
+    }
+
+    /**
+     * По умолчанию Hibernate держит соединение до закрытия сессии, а при открытой сессии в представлении
+     * это весь HTTP-запрос: первая транзакция определила бы базу для всех последующих.
+     * Освобождение соединения после каждой транзакции позволяет выбирать базу заново.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    List<HikariDataSource> getPools() {
+        return pools;
+    }
+
+    /**
+     * Применяет к пулу настройки {@code spring.datasource.hikari.*}, как Spring Boot для своего источника данных.
+     */
+    private static void bindHikariProperties(Binder binder, HikariDataSource pool) {
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+    }
+
+    private void register(HikariDataSource pool, String name, ObjectProvider<MeterRegistry> meterRegistry) {
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        pools.add(pool);
+    }
+}
@@ -0,0 +1,173 @@
+package ru.naujava.taskmanager.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.naujava.taskmanager.logging.LogMarkers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Источник данных, направляющий транзакции только для чтения на реплики, а остальные запросы на основную базу.
+ * <p>
+ * Решение принимается при получении соединения, поэтому источник нужно оборачивать
+ * в {@link LazyConnectionDataSourceProxy}: тогда соединение берется при первом запросе,
+ * когда признак {@code readOnly} транзакции уже известен.
+ * <ul>
+ *     <li>Реплики выбираются по кругу.</li>
+ *     <li>После фиксации изменяющей транзакции чтения того же пользователя в течение {@code readYourWrites}
+ *     идут на основную базу, чтобы он видел свои изменения несмотря на задержку репликации.</li>
+ *     <li>Реплика, не выдавшая соединение, исключается на {@code retryInterval};
+ *     если доступных реплик нет, чтение идет на основную базу.</li>
+ * </ul>
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private static final int STICKY_CLEANUP_THRESHOLD = 10_000;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesNanos;
+    private final long retryIntervalNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    /**
+     * @param primary        основная база
+     * @param replicas       реплики для чтения
+     * @param readYourWrites время после изменения, в течение которого чтения пользователя идут на основную базу
+     * @param retryInterval  время, на которое исключается недоступная реплика
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                      Duration readYourWrites, Duration retryInterval) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica(i + 1, replicas.get(i)))
+                .toList();
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWrite();
+            return source.get(primary);
+        }
+        if (replicas.isEmpty() || isSticky(currentUser())) {
+            return source.get(primary);
+        }
+        long now = System.nanoTime();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (now - replica.retryAt < 0) {
+                continue;
+            }
+            try {
+                return source.get(replica.dataSource);
+            } catch (SQLException e) {
+                replica.retryAt = now + retryIntervalNanos;
+                log.atWarn().addMarker(LogMarkers.REPETITIVE)
+                        .setMessage("Реплика недоступна, чтение переключено")
+                        .addKeyValue("replica", replica.index)
+                        .addKeyValue("reason", e.getMessage())
+                        .log();
+            }
+        }
+        return source.get(primary);
+    }
+
+    /**
+     * После фиксации изменяющей транзакции закрепляет чтения пользователя за основной базой.
+     */
+    private void registerWrite() {
+        String user = currentUser();
+        if (user == null || readYourWritesNanos <= 0
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markWrite(user);
+            }
+        });
+    }
+
+    /**
+     * Отмечает изменение данных пользователем.
+     */
+    void markWrite(String user) {
+        long now = System.nanoTime();
+        if (stickyUntil.size() >= STICKY_CLEANUP_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> now - until >= 0);
+        }
+        stickyUntil.put(user, now + readYourWritesNanos);
+    }
+
+    boolean isSticky(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            stickyUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final int index;
+        private final DataSource dataSource;
+        private volatile long retryAt = System.nanoTime();
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.naujava.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * API-ключ пользователя для машинных клиентов.
+ * Сам ключ не хранится: по индексированному префиксу находится запись, а ключ сверяется с его SHA-256.
+ */
+@Entity
+@Table(name = "api_keys", indexes = @Index(name = "idx_api_keys_prefix", columnList = "prefix", unique = true))
+public class ApiKey {
+    /**
+     * Идентификатор ключа.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Владелец ключа.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * Название ключа, заданное пользователем.
+     */
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    /**
+     * Открытая часть ключа, по которой ищется запись.
+     */
+    @Column(name = "prefix", nullable = false, length = 32)
+    private String prefix;
+
+    /**
+     * SHA-256 ключа в шестнадцатеричном виде.
+     */
+    @Column(name = "digest", nullable = false, length = 64)
+    private String digest;
+
+    /**
+     * Права ключа через запятую.
+     */
+    @Column(name = "scopes", nullable = false)
+    private String scopes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Время истечения или {@code null}, если ключ бессрочный.
+     */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    /**
+     * Время последнего использования; обновляется пакетами, поэтому может отставать.
+     */
+    @Column(name = "last_used_at")
+    private LocalDateTime lastUsedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public ApiKey() {
+    }
+
+    public ApiKey(User user, String name, String prefix, String digest, Set<ApiKeyScope> scopes,
+                  LocalDateTime expiresAt) {
+        this.user = user;
+        this.name = name;
+        this.prefix = prefix;
+        this.digest = digest;
+        this.scopes = scopes.stream().map(Enum::name).sorted().collect(Collectors.joining(","));
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public Set<ApiKeyScope> getScopes() {
+        EnumSet<ApiKeyScope> result = EnumSet.noneOf(ApiKeyScope.class);
+        Arrays.stream(scopes.split(",")).filter(s -> !s.isEmpty()).map(ApiKeyScope::valueOf).forEach(result::add);
+        return result;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.naujava.taskmanager.entity;
+
+/**
+ * Права API-ключа.
+ */
+public enum ApiKeyScope {
+    /**
+     * Чтение задач ({@code GET} и {@code HEAD} к {@code /api/tasks}).
+     */
+    TASKS_READ,
+    /**
+     * Изменение задач (остальные методы к {@code /api/tasks}).
+     */
+    TASKS_WRITE
+}
@@ -0,0 +1,86 @@
+package ru.naujava.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Выполненная задача, перенесенная из {@code tasks} архиватором ({@code TaskArchiver}).
+ * Сохраняет идентификатор исходной задачи, поэтому задачи из обеих таблиц упорядочиваются вместе,
+ * а возврат задачи в активные восстанавливает ее под тем же идентификатором.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = @Index(name = "idx_tasks_archive_user_id", columnList = "user_id, id"))
+public class ArchivedTask {
+    /**
+     * Идентификатор исходной задачи.
+     */
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * Время переноса в архив.
+     */
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    public ArchivedTask() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Задача с полями архивной записи, не связанная с сессией: для чтения вместе с задачами из {@code tasks}.
+     */
+    public Task toTask() {
+        Task task = new Task(description, user);
+        task.setId(id);
+        task.setDone(true);
+        task.setCreatedAt(createdAt);
+        task.setUpdatedAt(updatedAt);
+        task.setCompletedAt(completedAt);
+        return task;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.naujava.taskmanager.entity;
+
+import java.time.Duration;
+
+/**
+ * Интервал времени от создания задачи до ее выполнения в распределении {@link TaskCompletionLatency}.
+ */
+public enum CompletionLatencyBucket {
+    UNDER_HOUR("до часа", Duration.ofHours(1)),
+    UNDER_DAY("до суток", Duration.ofDays(1)),
+    UNDER_WEEK("до недели", Duration.ofDays(7)),
+    UNDER_MONTH("до 30 дней", Duration.ofDays(30)),
+    LONGER("дольше", null);
+
+    private final String label;
+    private final Duration upperBound;
+
+    CompletionLatencyBucket(String label, Duration upperBound) {
+        this.label = label;
+        this.upperBound = upperBound;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Интервал, в который попадает время выполнения.
+     */
+    public static CompletionLatencyBucket of(Duration latency) {
+        for (CompletionLatencyBucket bucket : values()) {
+            if (bucket.upperBound == null || latency.compareTo(bucket.upperBound) < 0) {
+                return bucket;
+            }
+        }
+        return LONGER;
+    }
+}
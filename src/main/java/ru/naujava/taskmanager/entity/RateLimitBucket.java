@@ -0,0 +1,43 @@
+package ru.naujava.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Корзина токенов ограничения частоты запросов, общая для всех узлов.
+ */
+@Entity
+@Table(name = "rate_limit_buckets")
+public class RateLimitBucket {
+    /**
+     * Ключ корзины: имя хранилища и пользователь или IP-адрес.
+     */
+    @Id
+    @Column(name = "bucket_key", length = 255)
+    private String key;
+
+    /**
+     * Время, когда корзина снова станет полной (наносекунды от начала эпохи).
+     */
+    @Column(name = "tat", nullable = false)
+    private long tat;
+
+    public RateLimitBucket() {
+    }
+
+    public RateLimitBucket(String key, long tat) {
+        this.key = key;
+        this.tat = tat;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getTat() {
+        return tat;
+    }
+
+    public void setTat(long tat) {
+        this.tat = tat;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.naujava.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Отозванный JWT токен или отзыв всех токенов пользователя, выданных до момента отзыва.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+    /**
+     * Префикс ключа записи, отзывающей все токены пользователя.
+     */
+    public static final String USER_KEY_PREFIX = "user:";
+
+    /**
+     * Идентификатор токена ({@code jti}) или {@value #USER_KEY_PREFIX} и имя пользователя.
+     */
+    @Id
+    @Column(name = "token_key", length = 300)
+    private String key;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    /**
+     * Время отзыва (миллисекунды от начала эпохи).
+     */
+    @Column(name = "revoked_at", nullable = false)
+    private long revokedAt;
+
+    /**
+     * Время, после которого отозванные токены истекли сами и запись не нужна (миллисекунды от начала эпохи).
+     */
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String key, String username, long revokedAt, long expiresAt) {
+        this.key = key;
+        this.username = username;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return true, если запись отзывает все токены пользователя, а не один токен
+     */
+    public boolean isUserWide() {
+        return key.startsWith(USER_KEY_PREFIX);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getRevokedAt() {
+        return revokedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
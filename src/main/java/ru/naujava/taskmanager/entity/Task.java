@@ -8,9 +8,14 @@ import java.time.LocalDateTime;
 
 /**
  * Сущность задачи.
+ * Индекс по (user_id, id) обслуживает списки задач пользователя и удаление пользователя частями,
+ * индекс по (is_done, updated_at) — выбор старых выполненных задач для архива.
  */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_tasks_done_updated_at", columnList = "is_done, updated_at")
+})
 public class Task {
     /**
      * Идентификатор задачи.
@@ -45,6 +50,12 @@ public class Task {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Время выполнения задачи; {@code null}, пока задача не выполнена.
+     */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
     /**
      * Пользователь, которому принадлежит задача.
      */
@@ -117,6 +128,14 @@ public class Task {
         this.updatedAt = updatedAt;
     }
 
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
     public User getUser() {
         return user;
     }
@@ -0,0 +1,68 @@
+package ru.naujava.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Число задач, выполненных за день, со временем выполнения из интервала {@link CompletionLatencyBucket}.
+ */
+@Entity
+@Table(name = "task_completion_latency")
+@IdClass(TaskCompletionLatency.Key.class)
+public class TaskCompletionLatency {
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate date;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bucket", length = 20)
+    private CompletionLatencyBucket bucket;
+
+    @Column(name = "tasks_completed", nullable = false)
+    private long tasksCompleted;
+
+    public TaskCompletionLatency() {
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public CompletionLatencyBucket getBucket() {
+        return bucket;
+    }
+
+    public long getTasksCompleted() {
+        return tasksCompleted;
+    }
+
+    /**
+     * Составной ключ: день и интервал.
+     */
+    public static class Key implements Serializable {
+        private LocalDate date;
+        private CompletionLatencyBucket bucket;
+
+        public Key() {
+        }
+
+        public Key(LocalDate date, CompletionLatencyBucket bucket) {
+            this.date = date;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(date, key.date) && bucket == key.bucket;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, bucket);
+        }
+    }
+}
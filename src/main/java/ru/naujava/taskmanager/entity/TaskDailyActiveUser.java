@@ -0,0 +1,60 @@
+package ru.naujava.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Пользователь, активный в течение дня. Связи с {@link User} нет: аналитика переживает удаление пользователя.
+ */
+@Entity
+@Table(name = "task_daily_active_users")
+@IdClass(TaskDailyActiveUser.Key.class)
+public class TaskDailyActiveUser {
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate date;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    public TaskDailyActiveUser() {
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Составной ключ: день и пользователь.
+     */
+    public static class Key implements Serializable {
+        private LocalDate date;
+        private Long userId;
+
+        public Key() {
+        }
+
+        public Key(LocalDate date, Long userId) {
+            this.date = date;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(date, key.date) && Objects.equals(userId, key.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, userId);
+        }
+    }
+}
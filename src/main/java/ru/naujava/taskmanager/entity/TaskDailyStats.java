@@ -0,0 +1,61 @@
+package ru.naujava.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Счетчики задач за день для аналитики администратора. Строки пополняются приращениями
+ * из {@code TaskAnalyticsRecorder}, а не пересчетом по таблице задач.
+ */
+@Entity
+@Table(name = "task_daily_stats")
+public class TaskDailyStats {
+    /**
+     * День по времени сервера.
+     */
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate date;
+
+    /**
+     * Создано задач за день.
+     */
+    @Column(name = "tasks_created", nullable = false)
+    private long tasksCreated;
+
+    /**
+     * Выполнено задач за день за вычетом возвращенных в активные.
+     */
+    @Column(name = "tasks_completed", nullable = false)
+    private long tasksCompleted;
+
+    /**
+     * Пользователей, создававших или изменявших задачи за день (см. {@link TaskDailyActiveUser}).
+     */
+    @Column(name = "active_users", nullable = false)
+    private long activeUsers;
+
+    public TaskDailyStats() {
+    }
+
+    public TaskDailyStats(LocalDate date) {
+        this.date = date;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getTasksCreated() {
+        return tasksCreated;
+    }
+
+    public long getTasksCompleted() {
+        return tasksCompleted;
+    }
+
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+}
@@ -3,16 +3,31 @@ package ru.naujava.taskmanager.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Сущность пользователя.
+ * Хранится в кэше второго уровня (регион {@value #CACHE_REGION}); поиск по имени пользователя
+ * идет через кэш естественного идентификатора (регион {@value #NATURAL_ID_CACHE_REGION}).
+ * Кэш вытесняется только на своем узле, поэтому пароль и признак блокировки при входе читаются
+ * из базы ({@code UserRepository#findByUsernameBypassingCache}).
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 public class User {
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-username";
+
     /**
      * Идентификатор пользователя.
      */
@@ -23,6 +38,7 @@ public class User {
     /**
      * Имя пользователя.
      */
+    @NaturalId
     @Column(name = "username", nullable = false, unique = true)
     @NotBlank(message = "Имя пользователя не может быть пустым")
     @Size(min = 3, max = 50, message = "Имя пользователя должно быть от 3 до 50 символов")
@@ -44,7 +60,15 @@ public class User {
     private Role role = Role.USER;
 
     /**
-     * Список задач пользователя.
+     * Заблокирован ли пользователь администратором.
+     */
+    @Column(name = "locked", nullable = false)
+    @ColumnDefault("false")
+    private boolean locked = false;
+
+    /**
+     * Список задач пользователя. Пользователь удаляется запросами к таблице задач
+     * ({@code UserAdminService}), а не каскадом через эту коллекцию.
      */
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true,
             fetch = FetchType.LAZY)
@@ -91,6 +115,14 @@ public class User {
         this.role = role;
     }
 
+    public boolean isLocked() {
+        return locked;
+    }
+
+    public void setLocked(boolean locked) {
+        this.locked = locked;
+    }
+
     public List<Task> getTasks() {
         return tasks;
     }
@@ -0,0 +1,20 @@
+package ru.naujava.taskmanager.exception;
+
+/**
+ * Базовое исключение предметной области: ожидаемый отказ в операции (задача не найдена, дубликат и т.п.).
+ * <p>
+ * Трассировка стека не заполняется: такие исключения часть обычного потока управления, а при переборе
+ * идентификаторов сканерами их создаются тысячи в секунду. Наследуется от {@link IllegalArgumentException},
+ * чтобы существующие обработчики продолжали их перехватывать.
+ */
+public abstract class DomainException extends IllegalArgumentException {
+
+    protected DomainException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
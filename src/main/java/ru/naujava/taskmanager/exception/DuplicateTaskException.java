@@ -0,0 +1,11 @@
+package ru.naujava.taskmanager.exception;
+
+/**
+ * У пользователя уже есть задача с таким описанием.
+ */
+public class DuplicateTaskException extends DomainException {
+
+    public DuplicateTaskException(String description) {
+        super("Задача с описанием '" + description + "' уже существует");
+    }
+}
@@ -0,0 +1,11 @@
+package ru.naujava.taskmanager.exception;
+
+/**
+ * Данные задачи не прошли проверку (например, пустое описание).
+ */
+public class InvalidTaskException extends DomainException {
+
+    public InvalidTaskException(String message) {
+        super(message);
+    }
+}
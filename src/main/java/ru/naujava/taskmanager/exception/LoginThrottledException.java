@@ -0,0 +1,27 @@
+package ru.naujava.taskmanager.exception;
+
+import java.time.Duration;
+
+/**
+ * Попытка входа или регистрации отклонена из-за предыдущих неудач с того же имени пользователя
+ * или адреса; пароль при этом не проверяется.
+ * <p>
+ * Трассировка стека не заполняется: при подборе паролей такие исключения создаются массово.
+ */
+public class LoginThrottledException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public LoginThrottledException(Duration retryAfter) {
+        super("Слишком много неудачных попыток, повторите позже");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.naujava.taskmanager.exception;
+
+/**
+ * Пул хеширования паролей занят, а очередь заполнена: запрос отклоняется сразу, а не ждет
+ * на потоке обработки запросов.
+ * <p>
+ * Трассировка стека не заполняется: при наплыве попыток входа такие исключения создаются массово.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException() {
+        super("Сервер занят проверкой паролей, повторите запрос позже");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
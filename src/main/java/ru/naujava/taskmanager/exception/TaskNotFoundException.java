@@ -0,0 +1,17 @@
+package ru.naujava.taskmanager.exception;
+
+/**
+ * Задача не найдена или принадлежит другому пользователю.
+ */
+public class TaskNotFoundException extends DomainException {
+    private final Long taskId;
+
+    public TaskNotFoundException(Long taskId) {
+        super("Задача не найдена");
+        this.taskId = taskId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+}
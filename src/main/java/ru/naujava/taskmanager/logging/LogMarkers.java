@@ -0,0 +1,19 @@
+package ru.naujava.taskmanager.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Маркеры логирования приложения.
+ */
+public final class LogMarkers {
+
+    /**
+     * Повторяющиеся события (не найденные задачи, дубликаты, неверные токены).
+     * Сообщения с этим маркером ограничиваются {@link RateLimitingFilter}.
+     */
+    public static final Marker REPETITIVE = MarkerFactory.getMarker("REPETITIVE");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,106 @@
+package ru.naujava.taskmanager.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Фильтр Logback, ограничивающий частоту сообщений с маркером {@link LogMarkers#REPETITIVE}.
+ * <p>
+ * Для каждой пары логгер + шаблон сообщения пропускается не более {@code maxEvents} сообщений
+ * за интервал {@code intervalMillis}. Фильтр подключается к асинхронному appender'у, поэтому
+ * отброшенные события не форматируются и не занимают место в очереди. Первое сообщение следующего
+ * интервала получает пару {@code suppressed} с числом отброшенных сообщений.
+ * Работает как для классического, так и для fluent API SLF4J, в отличие от turbo-фильтров,
+ * которые для fluent API не получают маркеры.
+ */
+public class RateLimitingFilter extends Filter<ILoggingEvent> {
+    /**
+     * Ограничение числа отслеживаемых шаблонов на случай динамически формируемых сообщений.
+     */
+    private static final int MAX_KEYS = 1024;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private String markerName = LogMarkers.REPETITIVE.getName();
+    private int maxEvents = 10;
+    private long intervalMillis = 1000;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (!isStarted() || event.getMessage() == null || !hasMarker(event.getMarkerList())) {
+            return FilterReply.NEUTRAL;
+        }
+        String key = event.getLoggerName() + '|' + event.getMessage();
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_KEYS) {
+                windows.clear();
+            }
+            window = windows.computeIfAbsent(key, k -> new Window());
+        }
+
+        long now = System.currentTimeMillis();
+        int suppressed = 0;
+        synchronized (window) {
+            if (now - window.start >= intervalMillis) {
+                suppressed = window.suppressed;
+                window.start = now;
+                window.count = 0;
+                window.suppressed = 0;
+            }
+            if (window.count >= maxEvents) {
+                window.suppressed++;
+                return FilterReply.DENY;
+            }
+            window.count++;
+        }
+        if (suppressed > 0 && event instanceof LoggingEvent loggingEvent) {
+            loggingEvent.addKeyValuePair(new KeyValuePair("suppressed", suppressed));
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean hasMarker(List<Marker> markers) {
+        if (markers == null) {
+            return false;
+        }
+        for (Marker marker : markers) {
+            if (marker.contains(markerName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setMarker(String markerName) {
+        this.markerName = markerName;
+    }
+
+    public void setMaxEvents(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public void stop() {
+        windows.clear();
+        super.stop();
+    }
+
+    private static final class Window {
+        private long start = System.currentTimeMillis();
+        private int count;
+        private int suppressed;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.naujava.taskmanager.monitoring;
+
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import net.ttddyy.observation.tracing.JdbcObservationDocumentation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+/**
+ * Оборачивает источник данных приложения в datasource-proxy для подсчета SQL-запросов
+ * и создания span'ов трассировки для выражений JDBC.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * Постпроцессор, заменяющий бин {@code dataSource} прокси с {@link QueryStatsListener}
+     * и {@link DataSourceObservationListener}.
+     * Реестр наблюдений запрашивается лениво, так как постпроцессор создается раньше остальных бинов.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    DataSourceObservationListener observationListener = new DataSourceObservationListener(
+                            () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+                    // Только выражения: span соединения при открытой сессии в представлении живет весь запрос
+                    // и закрывается не в порядке вложенности, а span'ы строк результата слишком дороги
+                    observationListener.setSupportedTypes(Set.of(JdbcObservationDocumentation.QUERY));
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new QueryStatsListener())
+                            .listener(observationListener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package ru.naujava.taskmanager.monitoring;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счетчики SQL-запросов в пределах одной области (HTTP-запроса или проверки в тесте).
+ * Области могут быть вложенными: запрос, учтенный во вложенной области, учитывается и во всех внешних.
+ * Экземпляр используется только потоком, который его открыл.
+ */
+public class QueryStats {
+    private final QueryStats parent;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statements;
+    private long elapsedNanos;
+
+    QueryStats(QueryStats parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Учитывает выполненный запрос в этой и всех внешних областях.
+     */
+    void record(String sql, long nanos) {
+        for (QueryStats scope = this; scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.elapsedNanos += nanos;
+            scope.statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    QueryStats getParent() {
+        return parent;
+    }
+
+    /**
+     * Получить количество выполненных запросов.
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Получить суммарное время выполнения запросов в наносекундах.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Получить количество выполнений каждого уникального SQL.
+     */
+    public Map<String, Integer> getStatementCounts() {
+        return Collections.unmodifiableMap(statementCounts);
+    }
+
+    /**
+     * Находит SQL, выполненный не менее заданного числа раз (признак N+1).
+     *
+     * @param threshold минимальное число повторений
+     * @return SQL с наибольшим числом повторений или {@code null}
+     */
+    public String findRepeatedStatement(int threshold) {
+        String repeated = null;
+        int max = threshold - 1;
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (entry.getValue() > max) {
+                max = entry.getValue();
+                repeated = entry.getKey();
+            }
+        }
+        return repeated;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.naujava.taskmanager.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.naujava.taskmanager.logging.LogMarkers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр, подсчитывающий SQL-запросы и время БД для каждого HTTP-запроса.
+ * <p>
+ * Результаты публикуются метриками {@code taskmanager.request.statements} и {@code taskmanager.request.db.time}
+ * с тегом шаблона URI. Медленные запросы, запросы со слишком большим числом выражений и повторяющиеся
+ * выражения (признак N+1) записываются в лог. В режиме разработки количество запросов и время БД
+ * возвращаются в заголовках {@code X-Query-Count} и {@code X-Query-Time-Ms}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryStatsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    static final String COUNT_HEADER = "X-Query-Count";
+    static final String TIME_HEADER = "X-Query-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${taskmanager.query-stats.header-enabled:false}")
+    private boolean headerEnabled;
+
+    @Value("${taskmanager.query-stats.slow-request-threshold:500ms}")
+    private Duration slowRequestThreshold;
+
+    @Value("${taskmanager.query-stats.max-statements:20}")
+    private int maxStatements;
+
+    @Value("${taskmanager.query-stats.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse =
+                headerEnabled ? new ContentCachingResponseWrapper(response) : null;
+        long start = System.nanoTime();
+        QueryStats stats = QueryStatsHolder.open();
+        try {
+            chain.doFilter(request, cachingResponse != null ? cachingResponse : response);
+        } finally {
+            QueryStatsHolder.close(stats);
+            long requestNanos = System.nanoTime() - start;
+            record(request, stats, requestNanos);
+            if (cachingResponse != null) {
+                cachingResponse.setHeader(COUNT_HEADER, Integer.toString(stats.getStatements()));
+                cachingResponse.setHeader(TIME_HEADER,
+                        Long.toString(TimeUnit.NANOSECONDS.toMillis(stats.getElapsedNanos())));
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * Публикует метрики и пишет предупреждения о медленных запросах и N+1.
+     */
+    private void record(HttpServletRequest request, QueryStats stats, long requestNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("taskmanager.request.statements")
+                .description("Количество SQL-запросов на HTTP-запрос")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("taskmanager.request.db.time")
+                .description("Суммарное время SQL-запросов на HTTP-запрос")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        if (requestNanos >= slowRequestThreshold.toNanos() || stats.getStatements() > maxStatements) {
+            log.warn(LogMarkers.REPETITIVE, "Медленный запрос {} {}: {} мс, SQL-запросов: {}, время БД: {} мс",
+                    request.getMethod(), uri, TimeUnit.NANOSECONDS.toMillis(requestNanos),
+                    stats.getStatements(), TimeUnit.NANOSECONDS.toMillis(stats.getElapsedNanos()));
+        }
+        String repeated = stats.findRepeatedStatement(nPlusOneThreshold);
+        if (repeated != null) {
+            log.warn(LogMarkers.REPETITIVE, "Возможная проблема N+1 в {} {}: запрос выполнен {} раз: {}",
+                    request.getMethod(), uri, stats.getStatementCounts().get(repeated), repeated);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.naujava.taskmanager.monitoring;
+
+/**
+ * Хранит текущую область подсчета SQL-запросов для потока.
+ */
+public final class QueryStatsHolder {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryStatsHolder() {
+    }
+
+    /**
+     * Открывает новую область подсчета, вложенную в текущую.
+     *
+     * @return открытая область
+     */
+    public static QueryStats open() {
+        QueryStats stats = new QueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Закрывает область и восстанавливает внешнюю.
+     *
+     * @param stats ранее открытая область
+     */
+    public static void close(QueryStats stats) {
+        if (stats.getParent() == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats.getParent());
+        }
+    }
+
+    /**
+     * Учитывает запрос в текущей области, если она открыта.
+     */
+    static void record(String sql, long nanos) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql, nanos);
+        }
+    }
+}
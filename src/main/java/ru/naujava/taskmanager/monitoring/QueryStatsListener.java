@@ -0,0 +1,30 @@
+package ru.naujava.taskmanager.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Слушатель datasource-proxy, передающий каждый выполненный SQL в текущую область {@link QueryStatsHolder}.
+ */
+public class QueryStatsListener implements QueryExecutionListener {
+    private static final String START_NANOS = QueryStatsListener.class.getName() + ".start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsed = startNanos == null ? 0 : System.nanoTime() - startNanos;
+        // Для пакетных запросов время делится поровну между выражениями пакета
+        long nanos = elapsed / Math.max(1, queryInfoList.size());
+        for (QueryInfo queryInfo : queryInfoList) {
+            QueryStatsHolder.record(queryInfo.getQuery(), nanos);
+        }
+    }
+}
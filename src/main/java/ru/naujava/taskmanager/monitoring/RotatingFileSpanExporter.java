@@ -0,0 +1,153 @@
+package ru.naujava.taskmanager.monitoring;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Экспортер span'ов в локальный файл в формате JSON Lines (один span на строку).
+ * При превышении размера файл переименовывается в {@code <имя>.1}, старые файлы сдвигаются,
+ * хранится не более {@code maxFiles} архивных файлов.
+ */
+public class RotatingFileSpanExporter implements SpanExporter {
+    private static final Logger log = LoggerFactory.getLogger(RotatingFileSpanExporter.class);
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private OutputStream out;
+    private long size;
+
+    public RotatingFileSpanExporter(Path file, long maxFileSize, int maxFiles) {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            if (out == null) {
+                open();
+            }
+            for (SpanData span : spans) {
+                byte[] line = toJsonLine(span);
+                if (size > 0 && size + line.length > maxFileSize) {
+                    rotate();
+                }
+                out.write(line);
+                size += line.length;
+            }
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Не удалось записать span'ы в {}: {}", file, e.getMessage());
+            closeQuietly();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            if (out != null) {
+                out.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        closeQuietly();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        size = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        out = null;
+        Files.deleteIfExists(archive(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = archive(i);
+            if (Files.exists(source)) {
+                Files.move(source, archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        open();
+    }
+
+    private Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private byte[] toJsonLine(SpanData span) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (JsonGenerator gen = jsonFactory.createGenerator(buffer, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeStringField("traceId", span.getTraceId());
+            gen.writeStringField("spanId", span.getSpanId());
+            gen.writeStringField("parentSpanId", span.getParentSpanId());
+            gen.writeStringField("name", span.getName());
+            gen.writeStringField("kind", span.getKind().name());
+            gen.writeNumberField("startEpochNanos", span.getStartEpochNanos());
+            gen.writeNumberField("endEpochNanos", span.getEndEpochNanos());
+            gen.writeStringField("status", span.getStatus().getStatusCode().name());
+            gen.writeObjectFieldStart("attributes");
+            for (Map.Entry<AttributeKey<?>, Object> attribute : span.getAttributes().asMap().entrySet()) {
+                gen.writeStringField(attribute.getKey().getKey(), String.valueOf(attribute.getValue()));
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+        buffer.write('\n');
+        return buffer.toByteArray();
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.debug("Ошибка при закрытии файла span'ов", e);
+        }
+        out = null;
+    }
+}
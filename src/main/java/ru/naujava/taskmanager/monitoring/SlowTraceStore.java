@@ -0,0 +1,50 @@
+package ru.naujava.taskmanager.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Хранилище самых медленных трасс для страницы администратора.
+ * Хранит не более {@code capacity} трасс: при переполнении вытесняется самая быстрая.
+ */
+public class SlowTraceStore {
+    private static final Comparator<TraceSummary> BY_DURATION = Comparator.comparing(TraceSummary::duration);
+
+    private final int capacity;
+    private final PriorityQueue<TraceSummary> traces;
+
+    public SlowTraceStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Емкость хранилища трасс должна быть положительной");
+        }
+        this.capacity = capacity;
+        this.traces = new PriorityQueue<>(capacity, BY_DURATION);
+    }
+
+    /**
+     * Добавляет трассу, если она медленнее самой быстрой из сохраненных или хранилище не заполнено.
+     */
+    public synchronized void add(TraceSummary trace) {
+        if (traces.size() < capacity) {
+            traces.add(trace);
+        } else if (BY_DURATION.compare(trace, traces.peek()) > 0) {
+            traces.poll();
+            traces.add(trace);
+        }
+    }
+
+    /**
+     * Возвращает сохраненные трассы от самой медленной к самой быстрой.
+     */
+    public synchronized List<TraceSummary> getSlowest() {
+        List<TraceSummary> result = new ArrayList<>(traces);
+        result.sort(BY_DURATION.reversed());
+        return result;
+    }
+
+    public synchronized void clear() {
+        traces.clear();
+    }
+}
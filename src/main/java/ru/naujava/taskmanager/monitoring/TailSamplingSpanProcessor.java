@@ -0,0 +1,168 @@
+package ru.naujava.taskmanager.monitoring;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Процессор span'ов с выборкой по завершении трассы (tail-based sampling).
+ * <p>
+ * Завершенные span'ы буферизуются по идентификатору трассы до завершения локального корневого span'а.
+ * Трасса сохраняется, если корневой span длился не меньше порога или любой span завершился с ошибкой:
+ * сводка попадает в {@link SlowTraceStore}, а span'ы передаются экспортеру (например, в файл).
+ * Остальные трассы отбрасываются. Процессор видит только span'ы, прошедшие выборку при старте трассы
+ * ({@code management.tracing.sampling.probability}).
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+    private static final Logger log = LoggerFactory.getLogger(TailSamplingSpanProcessor.class);
+
+    private final SlowTraceStore store;
+    private final SpanExporter exporter;
+    private final long slowThresholdNanos;
+    private final int maxPendingTraces;
+    private final long pendingTimeoutNanos;
+
+    private final Map<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param store            хранилище медленных трасс
+     * @param exporter         экспортер сохраненных трасс или {@code null}
+     * @param slowThreshold    минимальная длительность сохраняемой трассы
+     * @param maxPendingTraces максимальное число незавершенных трасс в буфере
+     * @param pendingTimeout   время, после которого незавершенная трасса считается потерянной
+     */
+    public TailSamplingSpanProcessor(SlowTraceStore store, SpanExporter exporter, Duration slowThreshold,
+                                     int maxPendingTraces, Duration pendingTimeout) {
+        this.store = store;
+        this.exporter = exporter;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxPendingTraces = maxPendingTraces;
+        this.pendingTimeoutNanos = pendingTimeout.toNanos();
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        String traceId = span.getSpanContext().getTraceId();
+        if (isLocalRoot(span)) {
+            PendingTrace trace = pending.remove(traceId);
+            complete(span.toSpanData(), trace == null ? List.of() : trace.spans());
+            return;
+        }
+        PendingTrace trace = pending.get(traceId);
+        if (trace == null) {
+            if (pending.size() >= maxPendingTraces && !evictStale()) {
+                dropped.incrementAndGet();
+                return;
+            }
+            trace = pending.computeIfAbsent(traceId, id -> new PendingTrace(System.nanoTime()));
+        }
+        trace.add(span.toSpanData());
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        pending.clear();
+        return exporter == null ? CompletableResultCode.ofSuccess() : exporter.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return exporter == null ? CompletableResultCode.ofSuccess() : exporter.flush();
+    }
+
+    /**
+     * Количество span'ов, отброшенных из-за переполнения буфера.
+     */
+    public long getDroppedSpans() {
+        return dropped.get();
+    }
+
+    int getPendingTraces() {
+        return pending.size();
+    }
+
+    private void complete(SpanData root, List<SpanData> children) {
+        long duration = root.getEndEpochNanos() - root.getStartEpochNanos();
+        if (duration < slowThresholdNanos && !TraceSummary.isError(root)
+                && children.stream().noneMatch(TraceSummary::isError)) {
+            return;
+        }
+        store.add(TraceSummary.of(root, children));
+        if (exporter != null) {
+            List<SpanData> spans = new ArrayList<>(children.size() + 1);
+            spans.addAll(children);
+            spans.add(root);
+            exporter.export(spans);
+        }
+    }
+
+    /**
+     * Удаляет трассы, корневой span которых так и не завершился (например, асинхронные продолжения).
+     *
+     * @return {@code true}, если в буфере освободилось место
+     */
+    private boolean evictStale() {
+        long now = System.nanoTime();
+        pending.values().removeIf(trace -> now - trace.createdNanos() > pendingTimeoutNanos);
+        if (pending.size() < maxPendingTraces) {
+            return true;
+        }
+        log.debug("Буфер трасс переполнен ({} трасс), span отброшен", pending.size());
+        return false;
+    }
+
+    /**
+     * Корневой span процесса: без родителя или с удаленным родителем.
+     */
+    private static boolean isLocalRoot(ReadableSpan span) {
+        var parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private record PendingTrace(long createdNanos, List<SpanData> spans) {
+        PendingTrace(long createdNanos) {
+            this(createdNanos, new ArrayList<>());
+        }
+
+        void add(SpanData span) {
+            synchronized (spans) {
+                spans.add(span);
+            }
+        }
+
+        @Override
+        public List<SpanData> spans() {
+            synchronized (spans) {
+                return new ArrayList<>(spans);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.naujava.taskmanager.monitoring;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сводка по сохраненной трассе: корневой span и все дочерние span'ы в порядке начала.
+ *
+ * @param traceId  идентификатор трассы
+ * @param name     имя корневого span'а
+ * @param startedAt время начала трассы
+ * @param duration длительность корневого span'а
+ * @param error    признак ошибки в любом span'е трассы
+ * @param spans    span'ы трассы
+ */
+public record TraceSummary(String traceId, String name, LocalDateTime startedAt, Duration duration, boolean error,
+                           List<SpanSummary> spans) {
+    private static final AttributeKey<String> STATUS = AttributeKey.stringKey("status");
+    private static final AttributeKey<String> URI = AttributeKey.stringKey("uri");
+    private static final AttributeKey<String> METHOD = AttributeKey.stringKey("method");
+
+    /**
+     * Span трассы.
+     *
+     * @param name     имя span'а
+     * @param depth    глубина вложенности относительно корня
+     * @param offset   смещение начала относительно начала трассы
+     * @param duration длительность
+     * @param error    признак ошибки
+     */
+    public record SpanSummary(String name, int depth, Duration offset, Duration duration, boolean error) {
+    }
+
+    /**
+     * Строит сводку по корневому span'у и завершенным дочерним span'ам.
+     */
+    static TraceSummary of(SpanData root, List<SpanData> children) {
+        List<SpanData> all = new ArrayList<>(children.size() + 1);
+        all.add(root);
+        all.addAll(children);
+        all.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+
+        Map<String, String> parents = new HashMap<>();
+        for (SpanData span : all) {
+            parents.put(span.getSpanId(), span.getParentSpanId());
+        }
+
+        long start = root.getStartEpochNanos();
+        boolean error = false;
+        List<SpanSummary> spans = new ArrayList<>(all.size());
+        for (SpanData span : all) {
+            boolean spanError = isError(span);
+            error |= spanError;
+            spans.add(new SpanSummary(span.getName(), depth(span, root, parents),
+                    Duration.ofNanos(span.getStartEpochNanos() - start),
+                    Duration.ofNanos(span.getEndEpochNanos() - span.getStartEpochNanos()), spanError));
+        }
+        return new TraceSummary(root.getTraceId(), describe(root),
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(0, start), ZoneId.systemDefault()),
+                Duration.ofNanos(root.getEndEpochNanos() - start), error, List.copyOf(spans));
+    }
+
+    /**
+     * Ошибкой считается статус ERROR span'а или ответ сервера с кодом 5xx.
+     */
+    static boolean isError(SpanData span) {
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            return true;
+        }
+        String status = span.getAttributes().get(STATUS);
+        return status != null && status.startsWith("5");
+    }
+
+    /**
+     * Для HTTP-запросов к имени span'а добавляются метод и шаблон URI.
+     */
+    private static String describe(SpanData root) {
+        String uri = root.getAttributes().get(URI);
+        if (uri == null) {
+            return root.getName();
+        }
+        String method = root.getAttributes().get(METHOD);
+        return method == null ? uri : method + " " + uri;
+    }
+
+    private static int depth(SpanData span, SpanData root, Map<String, String> parents) {
+        int depth = 0;
+        String spanId = span.getSpanId();
+        while (!spanId.equals(root.getSpanId()) && depth < parents.size()) {
+            spanId = parents.get(spanId);
+            if (spanId == null) {
+                break;
+            }
+            depth++;
+        }
+        return depth;
+    }
+}
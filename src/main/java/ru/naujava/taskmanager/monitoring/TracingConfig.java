@@ -0,0 +1,61 @@
+package ru.naujava.taskmanager.monitoring;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Конфигурация трассировки OpenTelemetry.
+ * <p>
+ * Выборка при старте трассы задается стандартным свойством {@code management.tracing.sampling.probability},
+ * экспорт по OTLP включается свойством {@code management.otlp.tracing.endpoint}.
+ * Поверх них работает выборка по завершении: медленные и ошибочные трассы сохраняются
+ * для страницы {@code /admin/traces} и, при {@code taskmanager.tracing.file.enabled=true}, в ротируемый файл.
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+    private final ObservationRegistry observationRegistry;
+
+    public TracingConfig(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /*
+     * Бины процессора статические: они нужны при создании ObservationRegistry,
+     * а экземпляр конфигурации сам зависит от реестра.
+     */
+    @Bean
+    public static SlowTraceStore slowTraceStore(@Value("${taskmanager.tracing.slow-traces.capacity:50}") int capacity) {
+        return new SlowTraceStore(capacity);
+    }
+
+    @Bean
+    public static SpanProcessor tailSamplingSpanProcessor(
+            SlowTraceStore slowTraceStore,
+            @Value("${taskmanager.tracing.tail.slow-threshold:500ms}") Duration slowThreshold,
+            @Value("${taskmanager.tracing.tail.max-pending-traces:10000}") int maxPendingTraces,
+            @Value("${taskmanager.tracing.tail.pending-timeout:1m}") Duration pendingTimeout,
+            @Value("${taskmanager.tracing.file.enabled:false}") boolean fileEnabled,
+            @Value("${taskmanager.tracing.file.path:logs/traces.jsonl}") Path file,
+            @Value("${taskmanager.tracing.file.max-size:10MB}") DataSize maxFileSize,
+            @Value("${taskmanager.tracing.file.max-history:5}") int maxFiles) {
+        RotatingFileSpanExporter exporter = fileEnabled
+                ? new RotatingFileSpanExporter(file, maxFileSize.toBytes(), maxFiles)
+                : null;
+        return new TailSamplingSpanProcessor(slowTraceStore, exporter, slowThreshold,
+                maxPendingTraces, pendingTimeout);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderingObservationInterceptor(observationRegistry));
+    }
+}
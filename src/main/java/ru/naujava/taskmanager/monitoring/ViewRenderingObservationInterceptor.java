@@ -0,0 +1,54 @@
+package ru.naujava.taskmanager.monitoring;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+
+/**
+ * Перехватчик, измеряющий рендеринг шаблонов Thymeleaf.
+ * Наблюдение {@code taskmanager.view.render} начинается после обработчика и завершается
+ * после рендеринга представления. Область наблюдения не открывается: {@code afterCompletion}
+ * других перехватчиков выполняется в произвольном порядке, и область могла бы остаться в потоке.
+ */
+public class ViewRenderingObservationInterceptor implements HandlerInterceptor {
+    static final String OBSERVATION_NAME = "taskmanager.view.render";
+    private static final String OBSERVATION_ATTRIBUTE =
+            ViewRenderingObservationInterceptor.class.getName() + ".observation";
+
+    private final ObservationRegistry observationRegistry;
+
+    public ViewRenderingObservationInterceptor(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void postHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                           @Nonnull Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith(UrlBasedViewResolver.REDIRECT_URL_PREFIX)) {
+            return;
+        }
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .lowCardinalityKeyValue("view", modelAndView.getViewName())
+                .start();
+        request.setAttribute(OBSERVATION_ATTRIBUTE, observation);
+    }
+
+    @Override
+    public void afterCompletion(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                @Nonnull Object handler, Exception ex) {
+        if (!(request.getAttribute(OBSERVATION_ATTRIBUTE) instanceof Observation observation)) {
+            return;
+        }
+        request.removeAttribute(OBSERVATION_ATTRIBUTE);
+        if (ex != null) {
+            observation.error(ex);
+        }
+        observation.stop();
+    }
+}
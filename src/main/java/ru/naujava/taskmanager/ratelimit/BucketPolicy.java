@@ -0,0 +1,62 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Параметры корзины токенов: не больше {@code capacity} запросов подряд, пустая корзина
+ * полностью наполняется за {@code period}.
+ * <p>
+ * Состояние корзины хранится одним числом — теоретическим временем прибытия (TAT) алгоритма GCRA:
+ * моментом, когда корзина снова станет полной. Это эквивалентно счетчику токенов с пополнением,
+ * но не требует отдельного времени последнего обновления, а корзину с TAT в прошлом можно удалить
+ * без потери состояния.
+ *
+ * @param capacity число токенов в полной корзине
+ * @param period   время полного пополнения корзины
+ */
+public record BucketPolicy(int capacity, Duration period) {
+
+    public BucketPolicy {
+        if (capacity <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Емкость и период корзины должны быть положительными");
+        }
+    }
+
+    /**
+     * Время пополнения одного токена.
+     */
+    public long emissionIntervalNanos() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+
+    /**
+     * Пытается взять токен из корзины.
+     *
+     * @param tat текущее время заполнения корзины (не больше {@code now}, если корзина полна)
+     * @param now текущее время в тех же единицах
+     * @return новое время заполнения, если токен взят, иначе {@code tat}
+     */
+    long consume(long tat, long now) {
+        long next = Math.max(tat, now) + emissionIntervalNanos();
+        return next - now <= burstNanos() ? next : tat;
+    }
+
+    /**
+     * Результат попытки для {@link TokenBucketStore#tryConsume}.
+     *
+     * @param tat      время заполнения до попытки
+     * @param consumed время заполнения после попытки
+     * @param now      текущее время
+     */
+    long result(long tat, long consumed, long now) {
+        long interval = emissionIntervalNanos();
+        if (consumed != tat) {
+            return (burstNanos() - (consumed - now)) / interval;
+        }
+        return -(Math.max(tat, now) + interval - burstNanos() - now);
+    }
+
+    private long burstNanos() {
+        return emissionIntervalNanos() * capacity;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.RateLimitBucket;
+import ru.naujava.taskmanager.repository.RateLimitBucketRepository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Корзины токенов в таблице {@code rate_limit_buckets}: лимиты соблюдаются для всех узлов вместе.
+ * <p>
+ * Каждая проверка — транзакция на основной базе с блокировкой строки корзины, поэтому хранилище
+ * дороже {@link StripedTokenBucketStore} и нужно только при нескольких узлах. Время берется
+ * по часам узла, их расхождение должно быть малым по сравнению с периодом пополнения.
+ * Наполнившиеся корзины удаляются раз в {@value #CLEANUP_INTERVAL} проверок.
+ */
+public class DatabaseTokenBucketStore implements TokenBucketStore {
+    static final int CLEANUP_INTERVAL = 1000;
+
+    private final String name;
+    private final BucketPolicy policy;
+    private final RateLimitBucketRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final LongSupplier clock;
+    private final AtomicInteger untilCleanup = new AtomicInteger(CLEANUP_INTERVAL);
+
+    /**
+     * @param name имя хранилища, отделяющее его корзины от корзин других хранилищ в той же таблице
+     */
+    public DatabaseTokenBucketStore(String name, BucketPolicy policy, RateLimitBucketRepository repository,
+                                    PlatformTransactionManager transactionManager) {
+        this(name, policy, repository, transactionManager,
+                () -> TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+    }
+
+    DatabaseTokenBucketStore(String name, BucketPolicy policy, RateLimitBucketRepository repository,
+                             PlatformTransactionManager transactionManager, LongSupplier clock) {
+        this.name = name;
+        this.policy = policy;
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    @Override
+    public BucketPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public long tryConsume(String key) {
+        String bucketKey = name + ':' + key;
+        if (untilCleanup.decrementAndGet() <= 0) {
+            untilCleanup.set(CLEANUP_INTERVAL);
+            transactionTemplate.executeWithoutResult(status -> repository.deleteFull(clock.getAsLong()));
+        }
+        try {
+            return consume(bucketKey);
+        } catch (DataIntegrityViolationException e) {
+            // Корзину одновременно создал другой узел: теперь строка есть и ее можно заблокировать
+            return consume(bucketKey);
+        }
+    }
+
+    private long consume(String bucketKey) {
+        Long result = transactionTemplate.execute(status -> {
+            long now = clock.getAsLong();
+            RateLimitBucket bucket = repository.findForUpdate(bucketKey).orElse(null);
+            long tat = bucket != null ? bucket.getTat() : now;
+            long consumed = policy.consume(tat, now);
+            if (bucket == null) {
+                repository.save(new RateLimitBucket(bucketKey, consumed));
+            } else {
+                bucket.setTat(consumed);
+            }
+            return policy.result(tat, consumed, now);
+        });
+        return result != null ? result : 0;
+    }
+}
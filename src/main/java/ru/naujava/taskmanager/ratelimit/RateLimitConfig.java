@@ -0,0 +1,74 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.naujava.taskmanager.admission.RequestClass;
+import ru.naujava.taskmanager.repository.RateLimitBucketRepository;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Конфигурация ограничения частоты запросов ({@link RateLimitFilter}).
+ * Хранилище корзин выбирается свойством {@code taskmanager.rate-limit.store}: {@code memory} (по умолчанию,
+ * лимиты каждого узла) или {@code database} (общие лимиты для нескольких узлов).
+ */
+@Configuration
+@ConditionalOnProperty(name = "taskmanager.rate-limit.enabled", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            RateLimitBucketRepository bucketRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.rate-limit.store:memory}") String store,
+            @Value("${taskmanager.rate-limit.segments:64}") int segments,
+            @Value("${taskmanager.rate-limit.read.capacity:100}") int readCapacity,
+            @Value("${taskmanager.rate-limit.read.period:10s}") Duration readPeriod,
+            @Value("${taskmanager.rate-limit.write.capacity:30}") int writeCapacity,
+            @Value("${taskmanager.rate-limit.write.period:10s}") Duration writePeriod,
+            @Value("${taskmanager.rate-limit.login.capacity:10}") int loginCapacity,
+            @Value("${taskmanager.rate-limit.login.period:1m}") Duration loginPeriod) {
+        Map<RequestClass, BucketPolicy> policies = Map.of(
+                RequestClass.READ, new BucketPolicy(readCapacity, readPeriod),
+                RequestClass.WRITE, new BucketPolicy(writeCapacity, writePeriod),
+                RequestClass.LOGIN, new BucketPolicy(loginCapacity, loginPeriod));
+        Map<RequestClass, TokenBucketStore> userBuckets = new EnumMap<>(RequestClass.class);
+        Map<RequestClass, TokenBucketStore> ipBuckets = new EnumMap<>(RequestClass.class);
+        policies.forEach((requestClass, policy) -> {
+            String name = requestClass.name().toLowerCase(Locale.ROOT);
+            switch (store.toLowerCase(Locale.ROOT)) {
+                case "memory" -> {
+                    userBuckets.put(requestClass, new StripedTokenBucketStore(policy, segments));
+                    ipBuckets.put(requestClass, new StripedTokenBucketStore(policy, segments));
+                }
+                case "database" -> {
+                    userBuckets.put(requestClass, new DatabaseTokenBucketStore(name + "-user", policy,
+                            bucketRepository, transactionManager));
+                    ipBuckets.put(requestClass, new DatabaseTokenBucketStore(name + "-ip", policy,
+                            bucketRepository, transactionManager));
+                }
+                default -> throw new IllegalArgumentException("Неизвестное хранилище корзин: " + store);
+            }
+        });
+        return new RateLimitFilter(userBuckets, ipBuckets, meterRegistry);
+    }
+
+    /**
+     * Фильтр вызывается только из цепочки Spring Security, где известен пользователь.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
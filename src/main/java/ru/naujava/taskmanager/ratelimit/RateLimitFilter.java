@@ -0,0 +1,123 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.naujava.taskmanager.admission.RequestClass;
+import ru.naujava.taskmanager.logging.LogMarkers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов к API задач и входа корзинами токенов.
+ * <p>
+ * Аутентифицированный пользователь расходует свою корзину (по имени из токена), анонимный клиент —
+ * корзину своего IP-адреса. Для чтения, изменения задач и входа ({@link RequestClass}) корзины отдельные.
+ * Ответы содержат заголовки {@code RateLimit-Policy}, {@code RateLimit-Limit}, {@code RateLimit-Remaining}
+ * и {@code RateLimit-Reset}; при пустой корзине запрос получает 429 с {@code Retry-After}
+ * и учитывается метрикой {@code taskmanager.ratelimit.throttled}.
+ * <p>
+ * Фильтр стоит в цепочке Spring Security после {@code JwtAuthenticationFilter}, чтобы знать пользователя.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    static final String POLICY = "RateLimit-Policy";
+    static final String LIMIT = "RateLimit-Limit";
+    static final String REMAINING = "RateLimit-Remaining";
+    static final String RESET = "RateLimit-Reset";
+
+    private static final byte[] BODY = ("{\"type\":\"about:blank\",\"title\":\"Too Many Requests\",\"status\":429,"
+            + "\"detail\":\"Слишком много запросов, повторите запрос позже\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final Map<RequestClass, TokenBucketStore> userBuckets;
+    private final Map<RequestClass, TokenBucketStore> ipBuckets;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param userBuckets   корзины пользователей по классам запросов; классы без корзины не ограничиваются
+     * @param ipBuckets     корзины IP-адресов анонимных клиентов по классам запросов
+     * @param meterRegistry реестр метрик
+     */
+    public RateLimitFilter(Map<RequestClass, TokenBucketStore> userBuckets,
+                           Map<RequestClass, TokenBucketStore> ipBuckets, MeterRegistry meterRegistry) {
+        this.userBuckets = new EnumMap<>(userBuckets);
+        this.ipBuckets = new EnumMap<>(ipBuckets);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@Nonnull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain chain) throws ServletException, IOException {
+        RequestClass requestClass = RequestClass.of(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean user = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        TokenBucketStore buckets = requestClass == null ? null
+                : (user ? userBuckets : ipBuckets).get(requestClass);
+        if (buckets == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long result = buckets.tryConsume(user ? authentication.getName() : request.getRemoteAddr());
+        BucketPolicy policy = buckets.getPolicy();
+        response.setHeader(POLICY, policy.capacity() + ";w=" + policy.period().toSeconds());
+        response.setHeader(LIMIT, Integer.toString(policy.capacity()));
+        if (result >= 0) {
+            long refill = (policy.capacity() - result) * policy.emissionIntervalNanos();
+            response.setHeader(REMAINING, Long.toString(result));
+            response.setHeader(RESET, Long.toString(seconds(refill)));
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String retryAfter = Long.toString(Math.max(1, seconds(-result)));
+        Counter.builder("taskmanager.ratelimit.throttled")
+                .description("Запросы, отклоненные ограничением частоты")
+                .tag("class", requestClass.name().toLowerCase(Locale.ROOT))
+                .tag("key", user ? "user" : "ip")
+                .register(meterRegistry)
+                .increment();
+        log.atInfo().addMarker(LogMarkers.REPETITIVE)
+                .setMessage("Запрос отклонен ограничением частоты")
+                .addKeyValue("class", requestClass)
+                .addKeyValue("user", user)
+                .log();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(REMAINING, "0");
+        response.setHeader(RESET, retryAfter);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(BODY.length);
+        response.getOutputStream().write(BODY);
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
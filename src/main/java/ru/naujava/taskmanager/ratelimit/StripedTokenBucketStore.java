@@ -0,0 +1,136 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Корзины токенов в памяти узла.
+ * <p>
+ * Ключи распределены по сегментам с отдельными блокировками, каждый сегмент — хеш-таблица с открытой
+ * адресацией на массивах ключей и времен заполнения: проверка запроса не создает объектов
+ * (кроме редкой перестройки сегмента).
+ * Корзины, которые успели полностью наполниться, ничем не отличаются от новых и удаляются
+ * при заполнении сегмента, поэтому память занимают только клиенты, недавно присылавшие запросы.
+ */
+public class StripedTokenBucketStore implements TokenBucketStore {
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final BucketPolicy policy;
+    private final LongSupplier clock;
+    private final Segment[] segments;
+
+    /**
+     * @param segments число сегментов, округляется вверх до степени двойки
+     */
+    public StripedTokenBucketStore(BucketPolicy policy, int segments) {
+        this(policy, segments, System::nanoTime);
+    }
+
+    StripedTokenBucketStore(BucketPolicy policy, int segments, LongSupplier clock) {
+        this.policy = policy;
+        this.clock = clock;
+        this.segments = new Segment[Integer.highestOneBit(Math.max(1, segments - 1)) << 1];
+        for (int i = 0; i < this.segments.length; i++) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public BucketPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public long tryConsume(String key) {
+        int hash = spread(key.hashCode());
+        Segment segment = segments[hash & (segments.length - 1)];
+        synchronized (segment) {
+            long now = clock.getAsLong();
+            int slot = segment.find(key, hash);
+            if (slot < 0) {
+                slot = segment.insert(key, hash, now);
+            }
+            long tat = segment.tats[slot];
+            long consumed = policy.consume(tat, now);
+            segment.tats[slot] = consumed;
+            return policy.result(tat, consumed, now);
+        }
+    }
+
+    /**
+     * Число хранимых корзин.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Сегмент с линейным пробированием; ключ {@code null} — свободная ячейка.
+     */
+    private static final class Segment {
+        private String[] keys = new String[INITIAL_SEGMENT_CAPACITY];
+        private long[] tats = new long[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+
+        int find(String key, int hash) {
+            int mask = keys.length - 1;
+            for (int i = (hash >>> 8) & mask; keys[i] != null; i = (i + 1) & mask) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int insert(String key, int hash, long now) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                rebuild(now);
+            }
+            size++;
+            return place(key, hash, now);
+        }
+
+        /**
+         * Удаляет наполнившиеся корзины и расширяет таблицу, если живых корзин больше половины.
+         */
+        private void rebuild(long now) {
+            String[] oldKeys = keys;
+            long[] oldTats = tats;
+            int live = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null && oldTats[i] > now) {
+                    live++;
+                }
+            }
+            int capacity = live * 2 >= oldKeys.length ? oldKeys.length * 2 : oldKeys.length;
+            keys = new String[capacity];
+            tats = new long[capacity];
+            size = live;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null && oldTats[i] > now) {
+                    place(oldKeys[i], spread(oldKeys[i].hashCode()), oldTats[i]);
+                }
+            }
+        }
+
+        private int place(String key, int hash, long tat) {
+            int mask = keys.length - 1;
+            int i = (hash >>> 8) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            tats[i] = tat;
+            return i;
+        }
+    }
+}
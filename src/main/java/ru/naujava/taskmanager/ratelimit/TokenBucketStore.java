@@ -0,0 +1,17 @@
+package ru.naujava.taskmanager.ratelimit;
+
+/**
+ * Хранилище корзин токенов с общей {@link BucketPolicy}, по корзине на ключ (пользователя или IP).
+ */
+public interface TokenBucketStore {
+
+    BucketPolicy getPolicy();
+
+    /**
+     * Берет токен из корзины ключа.
+     *
+     * @return число оставшихся токенов, если запрос разрешен, иначе отрицательное время
+     * в наносекундах до появления токена
+     */
+    long tryConsume(String key);
+}
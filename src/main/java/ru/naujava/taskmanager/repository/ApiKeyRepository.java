@@ -0,0 +1,38 @@
+package ru.naujava.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.ApiKey;
+import ru.naujava.taskmanager.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий API-ключей.
+ */
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+    /**
+     * Находит ключ по префиксу вместе с владельцем.
+     */
+    @Query("select k from ApiKey k join fetch k.user where k.prefix = :prefix")
+    Optional<ApiKey> findByPrefixWithUser(String prefix);
+
+    List<ApiKey> findByUserOrderByCreatedAtDesc(User user);
+
+    Optional<ApiKey> findByIdAndUser(Long id, User user);
+
+    /**
+     * Записывает время последнего использования, если оно позже сохраненного.
+     */
+    @Modifying
+    @Query("update ApiKey k set k.lastUsedAt = :usedAt where k.id = :id "
+            + "and (k.lastUsedAt is null or k.lastUsedAt < :usedAt)")
+    int updateLastUsed(Long id, LocalDateTime usedAt);
+
+    @Modifying
+    @Query("delete from ApiKey k where k.user.id = :userId")
+    int deleteByUserId(Long userId);
+}
@@ -0,0 +1,71 @@
+package ru.naujava.taskmanager.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.ArchivedTask;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий архива выполненных задач.
+ */
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    Optional<ArchivedTask> findByIdAndUser_Id(Long id, Long userId);
+
+    List<ArchivedTask> findByUser_IdOrderByIdAsc(Long userId);
+
+    boolean existsByUser_IdAndDescription(Long userId, String description);
+
+    /**
+     * Архивные задачи пользователя с идентификатором больше {@code afterId} по возрастанию.
+     */
+    List<ArchivedTask> findByUser_IdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    /**
+     * Копирует выполненные задачи из {@code tasks} в архив одним запросом.
+     */
+    @Modifying
+    @Query("insert into ArchivedTask (id, description, createdAt, updatedAt, completedAt, archivedAt, user) "
+            + "select t.id, t.description, t.createdAt, t.updatedAt, t.completedAt, :archivedAt, t.user "
+            + "from Task t where t.id in :ids and t.isDone = true")
+    int copyFromTasks(Collection<Long> ids, LocalDateTime archivedAt);
+
+    /**
+     * Копирует архивную задачу обратно в {@code tasks} под тем же идентификатором.
+     */
+    @Modifying
+    @Query("insert into Task (id, description, isDone, createdAt, updatedAt, completedAt, user) "
+            + "select a.id, a.description, true, a.createdAt, a.updatedAt, a.completedAt, a.user "
+            + "from ArchivedTask a where a.id = :id and a.user.id = :userId")
+    int copyToTasks(Long id, Long userId);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.id = :id and a.user.id = :userId")
+    int deleteByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Идентификаторы архивных задач пользователя по возрастанию (страница задает смещение и число).
+     */
+    @Query("select a.id from ArchivedTask a where a.user.id = :userId order by a.id")
+    List<Long> findIdsByUserId(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.user.id = :userId and a.id <= :maxId")
+    int deleteByUserIdUpTo(Long userId, Long maxId);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.user.id = :userId")
+    int deleteByUserId(Long userId);
+
+    /**
+     * Число архивных задач каждого из пользователей: пары (id пользователя, число задач).
+     */
+    @Query("select a.user.id, count(a) from ArchivedTask a where a.user.id in :userIds group by a.user.id")
+    List<Object[]> countByUserIds(Collection<Long> userIds);
+}
@@ -0,0 +1,29 @@
+package ru.naujava.taskmanager.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.RateLimitBucket;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий корзин токенов для ограничения частоты запросов на нескольких узлах.
+ */
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+    /**
+     * Находит корзину и блокирует ее строку до конца транзакции.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from RateLimitBucket b where b.key = :key")
+    Optional<RateLimitBucket> findForUpdate(String key);
+
+    /**
+     * Удаляет корзины, наполнившиеся к моменту {@code now}.
+     */
+    @Modifying
+    @Query("delete from RateLimitBucket b where b.tat <= :now")
+    int deleteFull(long now);
+}
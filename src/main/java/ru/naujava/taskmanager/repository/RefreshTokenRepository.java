@@ -0,0 +1,52 @@
+package ru.naujava.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.RefreshToken;
+import ru.naujava.taskmanager.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Репозиторий refresh-токенов.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    /**
+     * Находит токен по SHA-256 вместе с владельцем.
+     */
+    @Query("select t from RefreshToken t join fetch t.user where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(String tokenHash);
+
+    /**
+     * Отмечает токен использованным, если он еще не использован и не отозван.
+     *
+     * @return 0, если токен уже использован или отозван (в том числе параллельным запросом)
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :now where t.id = :id and t.usedAt is null and t.revokedAt is null")
+    int markUsed(Long id, LocalDateTime now);
+
+    /**
+     * Отзывает семейство токенов; загруженные в текущую транзакцию токены после этого перечитываются.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(String familyId, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken t set t.revokedAt = :now where t.user = :user and t.revokedAt is null")
+    int revokeByUser(User user, LocalDateTime now);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user.id = :userId")
+    int deleteByUserId(Long userId);
+
+    /**
+     * Удаляет токены, истекшие к моменту {@code now}.
+     */
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
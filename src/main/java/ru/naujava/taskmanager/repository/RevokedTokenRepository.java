@@ -0,0 +1,26 @@
+package ru.naujava.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.RevokedToken;
+
+import java.util.List;
+
+/**
+ * Репозиторий отозванных JWT токенов.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    /**
+     * Находит записи, отозванные начиная с {@code since} и еще не истекшие к моменту {@code now}.
+     */
+    @Query("select t from RevokedToken t where t.revokedAt >= :since and t.expiresAt > :now")
+    List<RevokedToken> findActiveRevokedSince(long since, long now);
+
+    /**
+     * Удаляет записи, истекшие к моменту {@code now}.
+     */
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(long now);
+}
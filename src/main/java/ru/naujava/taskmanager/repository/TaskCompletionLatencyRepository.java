@@ -0,0 +1,34 @@
+package ru.naujava.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.CompletionLatencyBucket;
+import ru.naujava.taskmanager.entity.TaskCompletionLatency;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий распределения времени выполнения задач по дням.
+ */
+public interface TaskCompletionLatencyRepository
+        extends JpaRepository<TaskCompletionLatency, TaskCompletionLatency.Key> {
+
+    @Modifying
+    @Query("insert into TaskCompletionLatency (date, bucket, tasksCompleted) values (:date, :bucket, 0) "
+            + "on conflict do nothing")
+    int insertIfAbsent(LocalDate date, CompletionLatencyBucket bucket);
+
+    @Modifying
+    @Query("update TaskCompletionLatency l set l.tasksCompleted = l.tasksCompleted + :delta "
+            + "where l.date = :date and l.bucket = :bucket")
+    int increment(LocalDate date, CompletionLatencyBucket bucket, long delta);
+
+    /**
+     * Число выполненных задач по интервалам за период: пары (интервал, число).
+     */
+    @Query("select l.bucket, sum(l.tasksCompleted) from TaskCompletionLatency l "
+            + "where l.date between :from and :to group by l.bucket")
+    List<Object[]> sumByBucket(LocalDate from, LocalDate to);
+}
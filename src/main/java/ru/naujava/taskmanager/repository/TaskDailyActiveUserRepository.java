@@ -0,0 +1,18 @@
+package ru.naujava.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.TaskDailyActiveUser;
+
+import java.time.LocalDate;
+
+/**
+ * Репозиторий активных за день пользователей.
+ */
+public interface TaskDailyActiveUserRepository extends JpaRepository<TaskDailyActiveUser, TaskDailyActiveUser.Key> {
+
+    @Modifying
+    @Query("insert into TaskDailyActiveUser (date, userId) values (:date, :userId) on conflict do nothing")
+    int insertIfAbsent(LocalDate date, Long userId);
+}
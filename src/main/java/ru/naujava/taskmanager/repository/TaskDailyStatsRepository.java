@@ -0,0 +1,39 @@
+package ru.naujava.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.naujava.taskmanager.entity.TaskDailyStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий дневных счетчиков задач. Счетчики меняются приращениями одним запросом,
+ * поэтому записи с нескольких экземпляров приложения не теряются.
+ */
+public interface TaskDailyStatsRepository extends JpaRepository<TaskDailyStats, LocalDate> {
+
+    List<TaskDailyStats> findByDateBetweenOrderByDateAsc(LocalDate from, LocalDate to);
+
+    /**
+     * Создает нулевую строку дня, если ее еще нет.
+     */
+    @Modifying
+    @Query("insert into TaskDailyStats (date, tasksCreated, tasksCompleted, activeUsers) "
+            + "values (:date, 0, 0, 0) on conflict do nothing")
+    int insertIfAbsent(LocalDate date);
+
+    @Modifying
+    @Query("update TaskDailyStats s set s.tasksCreated = s.tasksCreated + :created, "
+            + "s.tasksCompleted = s.tasksCompleted + :completed where s.date = :date")
+    int increment(LocalDate date, long created, long completed);
+
+    /**
+     * Пересчитывает число активных пользователей дня по {@code task_daily_active_users}.
+     */
+    @Modifying
+    @Query("update TaskDailyStats s set s.activeUsers = "
+            + "(select count(a) from TaskDailyActiveUser a where a.date = :date) where s.date = :date")
+    int refreshActiveUsers(LocalDate date);
+}
@@ -1,8 +1,15 @@
 package ru.naujava.taskmanager.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.naujava.taskmanager.entity.Task;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,13 +32,67 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      */
     List<Task> findByUser_IdAndIsDoneTrueOrderByIdAsc(Long userId);
 
+    /**
+     * Выполненные задачи пользователя с идентификатором больше {@code afterId} по возрастанию.
+     */
+    List<Task> findByUser_IdAndIsDoneTrueAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
     /**
      * Находит задачу по её ID и ID пользователя.
      */
     Optional<Task> findByIdAndUser_Id(Long id, Long userId);
 
+    /**
+     * Находит задачу пользователя и блокирует ее строку до конца транзакции. Если задачу уже переносит
+     * в архив {@code TaskArchiver}, запрос дожидается конца переноса и задачу не находит.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id = :id and t.user.id = :userId")
+    Optional<Task> findForUpdate(Long id, Long userId);
+
     /**
      * Проверяет, существует ли задача с таким описанием у указанного пользователя.
      */
     boolean existsByUser_IdAndDescription(Long userId, String description);
+
+    /**
+     * Идентификаторы задач пользователя по возрастанию (страница задает смещение и число).
+     */
+    @Query("select t.id from Task t where t.user.id = :userId order by t.id")
+    List<Long> findIdsByUserId(Long userId, Pageable pageable);
+
+    /**
+     * Удаляет задачи пользователя с идентификатором не больше {@code maxId} одним запросом.
+     */
+    @Modifying
+    @Query("delete from Task t where t.user.id = :userId and t.id <= :maxId")
+    int deleteByUserIdUpTo(Long userId, Long maxId);
+
+    /**
+     * Удаляет все задачи пользователя одним запросом, не загружая их.
+     */
+    @Modifying
+    @Query("delete from Task t where t.user.id = :userId")
+    int deleteByUserId(Long userId);
+
+    /**
+     * Идентификаторы выполненных задач, не менявшихся с {@code cutoff}, по возрастанию.
+     * Строки блокируются до конца транзакции, чтобы возврат задачи в активные дождался переноса в архив.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.isDone = true and t.updatedAt < :cutoff order by t.id")
+    List<Long> findArchivableIds(LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Удаляет выполненные задачи с указанными идентификаторами одним запросом.
+     */
+    @Modifying
+    @Query("delete from Task t where t.id in :ids and t.isDone = true")
+    int deleteDoneByIds(Collection<Long> ids);
+
+    /**
+     * Число задач каждого из пользователей: пары (id пользователя, число задач).
+     */
+    @Query("select t.user.id, count(t) from Task t where t.user.id in :userIds group by t.user.id")
+    List<Object[]> countByUserIds(Collection<Long> userIds);
 }
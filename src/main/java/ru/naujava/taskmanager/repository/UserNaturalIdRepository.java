@@ -0,0 +1,16 @@
+package ru.naujava.taskmanager.repository;
+
+import ru.naujava.taskmanager.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователей по естественному идентификатору (имени пользователя) через кэш второго уровня.
+ */
+public interface UserNaturalIdRepository {
+    /**
+     * Находит пользователя по имени пользователя.
+     * При попадании в кэш естественного идентификатора и кэш сущностей SQL-запросы не выполняются.
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,32 @@
+package ru.naujava.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Реализация {@link UserNaturalIdRepository} на {@link Session#bySimpleNaturalId(Class)}.
+ */
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    private final EntityManager entityManager;
+
+    UserNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Вне транзакции общий {@link EntityManager} закрывает сессию сразу после {@code unwrap},
+     * поэтому метод выполняется в контексте транзакции, не открывая новую физическую транзакцию.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -1,21 +1,63 @@
 package ru.naujava.taskmanager.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.naujava.taskmanager.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Репозиторий для управления пользователями.
+ * Поиск по имени пользователя реализован в {@link UserNaturalIdRepository}.
  */
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     /**
-     * Находит пользователя по имени пользователя.
+     * Проверяет существование пользователя по имени.
      */
-    Optional<User> findByUsername(String username);
+    boolean existsByUsername(String username);
 
     /**
-     * Проверяет существование пользователя по имени.
+     * Находит пользователя по имени запросом к базе мимо кэша второго уровня и обновляет запись в кэше.
+     * Кэш другого узла может хранить прежние пароль и признак блокировки до истечения записи,
+     * поэтому проверка пароля читает пользователя этим методом.
      */
-    boolean existsByUsername(String username);
+    @QueryHints({
+            @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"),
+            @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "REFRESH")
+    })
+    @Query("select u from User u where u.username = :username")
+    Optional<User> findByUsernameBypassingCache(String username);
+
+    /**
+     * Возвращает имена из переданных, которые уже заняты (проверка пачки одним запросом).
+     */
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * Пользователи с именем больше {@code after} по возрастанию имени (keyset-пагинация по уникальному индексу).
+     */
+    List<User> findByUsernameGreaterThanOrderByUsername(String after, Pageable pageable);
+
+    /**
+     * Пользователи, у которых {@code lower(username)} подходит под шаблон LIKE, с именем больше {@code after}
+     * по возрастанию имени. В PostgreSQL шаблон обслуживают индексы из {@link UserSearchIndexes}.
+     */
+    @Query("select u from User u where lower(u.username) like :pattern escape '\\' and u.username > :after "
+            + "order by u.username")
+    List<User> findPageByUsernamePattern(String pattern, String after, Pageable pageable);
+
+    /**
+     * Удаляет строку пользователя одним запросом, без каскада по {@link User#getTasks()}.
+     */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteRowById(Long id);
 }
@@ -0,0 +1,89 @@
+package ru.naujava.taskmanager.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Индексы PostgreSQL для поиска пользователей по имени без учета регистра
+ * ({@link UserRepository#findPageByUsernamePattern}), которые Hibernate не умеет описать аннотациями:
+ * <ul>
+ *     <li>{@code lower(username) text_pattern_ops} — поиск по началу имени ({@code like 'abc%'});</li>
+ *     <li>GIN {@code lower(username) gin_trgm_ops} — поиск по части имени ({@code like '%abc%'}),
+ *     если расширение pg_trgm установлено или его можно установить.</li>
+ * </ul>
+ * Индексы создаются при старте ({@code taskmanager.admin.user-search.create-indexes}) с {@code CONCURRENTLY},
+ * чтобы не блокировать запись в большую таблицу. Прерванное построение с {@code CONCURRENTLY} оставляет
+ * невалидный индекс ({@code pg_index.indisvalid = false}), который планировщик не использует, а
+ * {@code if not exists} пропускает; такой индекс удаляется и строится заново. На других базах ничего не делается.
+ */
+@Component
+public class UserSearchIndexes {
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndexes.class);
+
+    static final String PREFIX_INDEX_NAME = "idx_users_username_lower_prefix";
+    static final String PREFIX_INDEX = "create index concurrently if not exists " + PREFIX_INDEX_NAME
+            + " on users (lower(username) text_pattern_ops)";
+    static final String TRIGRAM_EXTENSION = "create extension if not exists pg_trgm";
+    static final String TRIGRAM_INDEX_NAME = "idx_users_username_lower_trgm";
+    static final String TRIGRAM_INDEX = "create index concurrently if not exists " + TRIGRAM_INDEX_NAME
+            + " on users using gin (lower(username) gin_trgm_ops)";
+    static final String INDEX_VALID = "select i.indisvalid from pg_index i where i.indexrelid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public UserSearchIndexes(JdbcTemplate jdbcTemplate,
+                             @Value("${taskmanager.admin.user-search.create-indexes:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Создает индексы после создания схемы Hibernate.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!enabled || !isPostgres()) {
+            return;
+        }
+        try {
+            createIndex(PREFIX_INDEX_NAME, PREFIX_INDEX);
+        } catch (DataAccessException e) {
+            log.warn("Unable to create username prefix index, prefix search will scan users", e);
+            return;
+        }
+        try {
+            jdbcTemplate.execute(TRIGRAM_EXTENSION);
+            createIndex(TRIGRAM_INDEX_NAME, TRIGRAM_INDEX);
+        } catch (DataAccessException e) {
+            log.warn("pg_trgm is not available, username substring search will scan users: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Создает индекс, предварительно удалив оставшийся от прерванного построения невалидный индекс.
+     */
+    private void createIndex(String name, String ddl) {
+        List<Boolean> valid = jdbcTemplate.queryForList(INDEX_VALID, Boolean.class, name);
+        if (!valid.isEmpty() && !Boolean.TRUE.equals(valid.get(0))) {
+            log.warn("Index {} is invalid after an interrupted build, rebuilding it", name);
+            jdbcTemplate.execute("drop index concurrently if exists " + name);
+        }
+        jdbcTemplate.execute(ddl);
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+}
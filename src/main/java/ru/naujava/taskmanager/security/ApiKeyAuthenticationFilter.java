@@ -0,0 +1,95 @@
+package ru.naujava.taskmanager.security;
+
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.naujava.taskmanager.admission.RequestClass;
+import ru.naujava.taskmanager.entity.ApiKeyScope;
+import ru.naujava.taskmanager.logging.LogMarkers;
+import ru.naujava.taskmanager.service.ApiKeyService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Фильтр аутентификации по API-ключу из заголовка {@value #HEADER} для запросов к {@code /api/}.
+ * Ключ проверяется {@link ApiKeyService} без BCrypt и, при попадании в кэш, без обращения к базе.
+ * Ключ действует только для API задач: чтение требует права {@link ApiKeyScope#TASKS_READ}, изменение —
+ * {@link ApiKeyScope#TASKS_WRITE}; остальные запросы с ключом получают 403. Неизвестный, отозванный
+ * или истекший ключ оставляет запрос неаутентифицированным.
+ */
+@Component
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyAuthenticationFilter.class);
+
+    public static final String HEADER = "X-API-Key";
+
+    private static final byte[] FORBIDDEN_BODY = ("{\"type\":\"about:blank\",\"title\":\"Forbidden\",\"status\":403,"
+            + "\"detail\":\"API-ключ не дает права на этот запрос\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final ApiKeyService apiKeyService;
+
+    public ApiKeyAuthenticationFilter(ApiKeyService apiKeyService) {
+        this.apiKeyService = apiKeyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@Nonnull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return request.getHeader(HEADER) == null || !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain chain) throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<ApiKeyService.AuthenticatedKey> authenticated = apiKeyService.authenticate(request.getHeader(HEADER));
+        if (authenticated.isEmpty()) {
+            log.warn(LogMarkers.REPETITIVE, "Unknown, revoked or expired API key");
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ApiKeyService.AuthenticatedKey key = authenticated.get();
+        RequestClass requestClass = RequestClass.of(request);
+        ApiKeyScope required = requestClass == RequestClass.READ ? ApiKeyScope.TASKS_READ
+                : requestClass == RequestClass.WRITE ? ApiKeyScope.TASKS_WRITE : null;
+        if (required == null || !key.scopes().contains(required)) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+            response.setContentLength(FORBIDDEN_BODY.length);
+            response.getOutputStream().write(FORBIDDEN_BODY);
+            return;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + key.role().name()));
+        key.scopes().forEach(scope -> authorities.add(new SimpleGrantedAuthority("SCOPE_" + scope.name())));
+        User principal = new User(key.username(), "", authorities);
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.naujava.taskmanager.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.repository.ApiKeyRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время последнего использования API-ключей. Запрос только запоминает время в памяти,
+ * а {@link #flush()} записывает накопленные значения в базу одной транзакцией — по одному
+ * обновлению на ключ за интервал, сколько бы запросов ни было.
+ */
+public class ApiKeyUsageRecorder implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyUsageRecorder.class);
+
+    private final ApiKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public ApiKeyUsageRecorder(ApiKeyRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(Long keyId) {
+        pending.put(keyId, LocalDateTime.now());
+    }
+
+    /**
+     * Записывает накопленные времена использования.
+     *
+     * @return число записанных ключей
+     */
+    public int flush() {
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>();
+        for (Long keyId : pending.keySet()) {
+            LocalDateTime usedAt = pending.remove(keyId);
+            if (usedAt != null) {
+                batch.add(Map.entry(keyId, usedAt));
+            }
+        }
+        if (!batch.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    batch.forEach(entry -> repository.updateLastUsed(entry.getKey(), entry.getValue())));
+        }
+        return batch.size();
+    }
+
+    /**
+     * Запускает периодический {@link #flush()} в отдельном потоке.
+     */
+    public synchronized void scheduleFlush(Duration interval) {
+        if (scheduler != null || !interval.isPositive()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "api-key-usage-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает периодическую запись и записывает оставшееся.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Unable to record API key usage", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.naujava.taskmanager.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Подбор стоимости BCrypt под целевое время хеширования на текущем оборудовании.
+ * <p>
+ * Время хеширования удваивается с каждой единицей стоимости, поэтому достаточно измерить
+ * минимальную стоимость и выбрать наибольшую, при которой оценка не превышает цель.
+ */
+public final class BCryptCostCalibrator {
+    private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+    private static final int MAX_COST = 31;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * @param target  целевое время одного хеширования
+     * @param minCost наименьшая допустимая стоимость
+     * @return стоимость в интервале [{@code minCost}, 31]
+     */
+    public static int calibrate(Duration target, int minCost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minCost);
+        encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        return chooseCost(elapsed, target.toNanos(), minCost);
+    }
+
+    static int chooseCost(long minCostNanos, long targetNanos, int minCost) {
+        int cost = minCost;
+        long estimate = minCostNanos;
+        while (cost < MAX_COST && estimate * 2 <= targetNanos) {
+            cost++;
+            estimate *= 2;
+        }
+        log.atInfo().setMessage("Стоимость BCrypt подобрана")
+                .addKeyValue("cost", cost)
+                .addKeyValue("estimatedMillis", estimate / 1_000_000)
+                .log();
+        return cost;
+    }
+}
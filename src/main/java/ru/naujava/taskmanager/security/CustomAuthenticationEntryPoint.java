@@ -11,7 +11,7 @@ import java.io.IOException;
 
 /**
  * Кастомный AuthenticationEntryPoint.
- * Для API запросов возвращает 401, для веб - перенаправляет на login.
+ * Для API и actuator запросов возвращает 401, для веб - перенаправляет на login.
  */
 @Component
 public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint {
@@ -20,7 +20,7 @@ public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException {
         String requestURI = request.getRequestURI();
-        if (requestURI.startsWith("/api/")) {
+        if (requestURI.startsWith("/api/") || requestURI.startsWith("/actuator/")) {
             response.setStatus(HttpStatus.UNAUTHORIZED.value());
         } else {
             response.sendRedirect("/login");
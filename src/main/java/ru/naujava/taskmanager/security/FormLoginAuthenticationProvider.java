@@ -0,0 +1,45 @@
+package ru.naujava.taskmanager.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import ru.naujava.taskmanager.exception.LoginThrottledException;
+import ru.naujava.taskmanager.exception.PasswordHashingRejectedException;
+
+import java.time.Duration;
+
+/**
+ * Проверка пароля при входе через форму.
+ * <p>
+ * Как и вход через API, попытка после серии неудач с того же имени или адреса отклоняется
+ * {@link LoginAttemptTracker} до проверки пароля; сами неудачи и успехи учитывает {@link LoginAttemptListener}.
+ * Отказ пула хеширования ({@link PasswordHashingRejectedException}) Spring Security не считает ошибкой
+ * аутентификации и вернул бы 500. Поэтому оба отказа оборачиваются в {@link AuthenticationServiceException},
+ * а {@link FormLoginFailureHandler} отвечает 429 и 503, как {@code GlobalExceptionHandler} для API.
+ */
+public class FormLoginAuthenticationProvider extends DaoAuthenticationProvider {
+    private final LoginAttemptTracker loginAttemptTracker;
+
+    public FormLoginAuthenticationProvider(UserDetailsService userDetailsService,
+                                           LoginAttemptTracker loginAttemptTracker) {
+        super(userDetailsService);
+        this.loginAttemptTracker = loginAttemptTracker;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        Duration retryAfter = loginAttemptTracker.retryAfter(authentication.getName(),
+                LoginAttemptListener.clientAddress(authentication));
+        if (retryAfter.isPositive()) {
+            LoginThrottledException throttled = new LoginThrottledException(retryAfter);
+            throw new AuthenticationServiceException(throttled.getMessage(), throttled);
+        }
+        try {
+            return super.authenticate(authentication);
+        } catch (PasswordHashingRejectedException e) {
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+    }
+}
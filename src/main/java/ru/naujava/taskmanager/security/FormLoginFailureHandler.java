@@ -0,0 +1,56 @@
+package ru.naujava.taskmanager.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.stereotype.Component;
+import ru.naujava.taskmanager.exception.LoginThrottledException;
+import ru.naujava.taskmanager.exception.PasswordHashingRejectedException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Обработчик неудачного входа через форму.
+ * Неверные учетные данные перенаправляют на {@code /login?error}; если попытки ограничены
+ * {@link LoginAttemptTracker}, возвращается 429, а если пул хеширования паролей отклонил проверку — 503,
+ * оба с {@code Retry-After}.
+ */
+@Component
+public class FormLoginFailureHandler implements AuthenticationFailureHandler {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AuthenticationFailureHandler invalidCredentials =
+            new SimpleUrlAuthenticationFailureHandler("/login?error");
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception.getCause() instanceof LoginThrottledException throttled) {
+            long seconds = Math.max(1, throttled.getRetryAfter().plusMillis(999).toSeconds());
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, String.valueOf(seconds), throttled.getMessage());
+            return;
+        }
+        if (exception.getCause() instanceof PasswordHashingRejectedException rejected) {
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, RETRY_AFTER_SECONDS, rejected.getMessage());
+            return;
+        }
+        invalidCredentials.onAuthenticationFailure(request, response, exception);
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String retryAfter,
+                                   String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -1,10 +1,16 @@
 package ru.naujava.taskmanager.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,21 +18,39 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import ru.naujava.taskmanager.logging.LogMarkers;
 
 import java.io.IOException;
 
 /**
  * Фильтр для аутентификации JWT токенов.
  * Извлекает JWT токен из заголовка Authorization и устанавливает аутентификацию в SecurityContext.
+ * Время разбора токена и загрузки пользователя измеряется метрикой {@code taskmanager.jwt.filter}.
+ * Токен разбирается один раз; отозванные токены ({@link TokenRevocationStore}) отклоняются
+ * до загрузки пользователя. Если токен подписан прежним ключом, тот же токен, подписанный текущим ключом,
+ * возвращается в заголовке ответа {@value #RENEWED_TOKEN_HEADER}, и клиенту не нужно входить заново.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    /**
+     * Заголовок ответа с перевыпущенным токеном.
+     */
+    public static final String RENEWED_TOKEN_HEADER = "X-Renewed-Token";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final ObservationRegistry observationRegistry;
+    private final TokenRevocationStore tokenRevocationStore;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                   ObservationRegistry observationRegistry,
+                                   TokenRevocationStore tokenRevocationStore) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.observationRegistry = observationRegistry;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     @Override
@@ -36,29 +60,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                logger.warn("Unable to get JWT Token or JWT Token has expired");
-            }
+            Observation.createNotStarted("taskmanager.jwt.filter", observationRegistry)
+                    .observe(() -> authenticate(request, response, requestTokenHeader.substring(7)));
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Проверяет токен, устанавливает аутентификацию в SecurityContext и при необходимости перевыпускает токен.
+     */
+    private void authenticate(HttpServletRequest request, HttpServletResponse response, String jwtToken) {
+        Jws<Claims> jws = null;
+        try {
+            jws = jwtUtil.parseToken(jwtToken);
+        } catch (Exception e) {
+            log.warn(LogMarkers.REPETITIVE, "Unable to get JWT Token or JWT Token has expired");
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (jws != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = jws.getBody();
+            String username = claims.getSubject();
+            if (tokenRevocationStore.isRevoked(claims.getId(), username, jwtUtil.getIssuedAt(claims))) {
+                log.debug("Rejected revoked JWT token of user {}", username);
+                return;
+            }
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (jwtUtil.validateClaims(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails,
                                 null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                if (jwtUtil.shouldRenew(jws)) {
+                    response.setHeader(RENEWED_TOKEN_HEADER, jwtUtil.renewToken(jws));
+                }
             }
         }
-        chain.doFilter(request, response);
     }
 }
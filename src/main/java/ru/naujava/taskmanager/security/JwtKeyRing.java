@@ -0,0 +1,180 @@
+package ru.naujava.taskmanager.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Набор ключей подписи JWT, выбираемых по заголовку {@code kid}.
+ * <p>
+ * Новые токены подписываются текущим ключом, а проверяются любым ключом набора, поэтому после смены
+ * ключа ранее выданные токены действуют до истечения. Ключ из {@code jwt.secret} всегда входит в набор
+ * под идентификатором по умолчанию; им же проверяются токены без {@code kid}. Дополнительные ключи
+ * и текущий ключ задаются файлом свойств:
+ * <pre>
+ * current=2026-10
+ * key.2026-10=...
+ * key.2026-04=...
+ * </pre>
+ * Изменение файла подхватывается без перезапуска: время изменения проверяется в отдельном потоке
+ * ({@link #scheduleReload}), а запрос только читает текущую версию набора. Ключи и парсер строятся один раз
+ * на версию набора; файл с ошибкой не применяется, набор остается прежним.
+ */
+public class JwtKeyRing implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    static final String CURRENT_PROPERTY = "current";
+    static final String KEY_PREFIX = "key.";
+
+    private final String defaultKeyId;
+    private final SecretKey defaultKey;
+    private final Path keyFile;
+    private volatile Ring ring;
+    private FileTime loadedModified;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param defaultKeyId идентификатор ключа из {@code jwt.secret}
+     * @param keyFile      файл с дополнительными ключами или {@code null}
+     */
+    public JwtKeyRing(String defaultKeyId, String defaultSecret, Path keyFile) {
+        this.defaultKeyId = defaultKeyId;
+        this.defaultKey = Keys.hmacShaKeyFor(defaultSecret.getBytes(StandardCharsets.UTF_8));
+        this.keyFile = keyFile;
+        this.ring = new Ring(Map.of(defaultKeyId, defaultKey), defaultKeyId);
+        if (keyFile != null && !reload()) {
+            throw new IllegalStateException("Не удалось загрузить ключи JWT из " + keyFile);
+        }
+    }
+
+    /**
+     * Идентификатор ключа, которым подписываются новые токены.
+     */
+    public String currentKeyId() {
+        return ring.currentKeyId;
+    }
+
+    public Key currentKey() {
+        Ring current = ring;
+        return current.keys.get(current.currentKeyId);
+    }
+
+    /**
+     * Парсер, проверяющий подпись ключом из заголовка {@code kid} токена.
+     */
+    public JwtParser parser() {
+        return ring.parser;
+    }
+
+    /**
+     * Перечитывает файл ключей, если он изменился.
+     *
+     * @return false, если файл не удалось прочитать или он содержит ошибку
+     */
+    public synchronized boolean reload() {
+        if (keyFile == null) {
+            return true;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(keyFile);
+            if (modified.equals(loadedModified)) {
+                return true;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(keyFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            Map<String, SecretKey> keys = new HashMap<>();
+            keys.put(defaultKeyId, defaultKey);
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(KEY_PREFIX)) {
+                    keys.put(name.substring(KEY_PREFIX.length()), Keys.hmacShaKeyFor(
+                            properties.getProperty(name).trim().getBytes(StandardCharsets.UTF_8)));
+                }
+            }
+            String current = properties.getProperty(CURRENT_PROPERTY, defaultKeyId).trim();
+            if (!keys.containsKey(current)) {
+                throw new IllegalArgumentException("Текущий ключ " + current + " отсутствует в наборе");
+            }
+            ring = new Ring(Map.copyOf(keys), current);
+            loadedModified = modified;
+            log.info("Loaded {} JWT signing keys from {}, current key {}", keys.size(), keyFile, current);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to load JWT signing keys from {}", keyFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Запускает периодический {@link #reload()} в отдельном потоке, если задан файл ключей.
+     */
+    public synchronized void scheduleReload(Duration interval) {
+        if (scheduler != null || keyFile == null || !interval.isPositive()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-key-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reload, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Неизменяемая версия набора: ключи по {@code kid}, текущий ключ и парсер, выбирающий ключ по заголовку.
+     */
+    private final class Ring {
+        private final Map<String, SecretKey> keys;
+        private final String currentKeyId;
+        private final JwtParser parser;
+
+        Ring(Map<String, SecretKey> keys, String currentKeyId) {
+            this.keys = keys;
+            this.currentKeyId = currentKeyId;
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                        @Override
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            String keyId = header.getKeyId() != null ? header.getKeyId() : defaultKeyId;
+                            SecretKey key = keys.get(keyId);
+                            if (key == null) {
+                                throw new SignatureException("Неизвестный ключ подписи " + keyId);
+                            }
+                            return key;
+                        }
+                    })
+                    .build();
+        }
+    }
+}
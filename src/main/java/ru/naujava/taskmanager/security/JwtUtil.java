@@ -1,36 +1,52 @@
 package ru.naujava.taskmanager.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Утилитный класс для работы с JWT токенами.
  * Предоставляет методы для генерации, валидации и извлечения информации из JWT токенов.
+ * Каждый токен получает уникальный идентификатор ({@code jti}), по которому его можно отозвать.
+ * Токены подписываются текущим ключом {@link JwtKeyRing} (заголовок {@code kid}) и проверяются любым
+ * ключом набора. Токен, подписанный прежним ключом, следует перевыпустить ({@link #shouldRenew}):
+ * перевыпуск ({@link #renewToken}) только переподписывает те же claims текущим ключом, поэтому сохраняет
+ * {@code jti} и срок действия — отзыв при выходе действует и на перевыпущенный токен, а продлевается
+ * сессия только обменом refresh-токена.
+ * <p>
+ * Стандартный claim {@code iat} хранит время выдачи с точностью до секунды, поэтому токен дополнительно
+ * получает {@value #ISSUED_AT_MILLIS_CLAIM} с точностью до миллисекунды ({@link #getIssuedAt}) — по нему
+ * {@link TokenRevocationStore} отличает токены, выданные до и после отзыва всех токенов пользователя.
  */
 @Component
 public class JwtUtil {
-    @Value("${jwt.secret:defaultSecret123023404560789012345678901234567890}")
-    private String secret;
+    /**
+     * Время выдачи токена в миллисекундах.
+     */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    private final JwtKeyRing keyRing;
 
-    @Value("${jwt.expiration:86400000}")
+    @Value("${jwt.expiration:900000}")
     private Long expiration;
 
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
     /**
-     * Получает ключ для подписи токенов.
-     *
-     * @return ключ для подписи
+     * Время жизни выдаваемых токенов ({@code jwt.expiration}).
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public Duration getExpiration() {
+        return Duration.ofMillis(expiration);
     }
 
     /**
@@ -52,12 +68,16 @@ public class JwtUtil {
      * @return сгенерированный токен
      */
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.currentKeyId())
                 .setClaims(claims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(keyRing.currentKey())
                 .compact();
     }
 
@@ -73,6 +93,19 @@ public class JwtUtil {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
+    /**
+     * Проверяет уже разобранные claims для пользователя, не разбирая токен повторно.
+     *
+     * @param claims claims токена
+     * @param userDetails детали пользователя
+     * @return true если токен выдан этому пользователю и не истек
+     */
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject())
+                && userDetails.isAccountNonLocked()
+                && !claims.getExpiration().before(new Date());
+    }
+
     /**
      * Извлекает имя пользователя из JWT токена.
      *
@@ -83,6 +116,18 @@ public class JwtUtil {
         return getClaimFromToken(token, Claims::getSubject);
     }
 
+    /**
+     * Время выдачи токена с точностью до миллисекунды; для токенов без {@value #ISSUED_AT_MILLIS_CLAIM}
+     * — стандартный {@code iat} с точностью до секунды.
+     *
+     * @param claims claims токена
+     * @return время выдачи или {@code null}, если оно не указано
+     */
+    public Date getIssuedAt(Claims claims) {
+        Number millis = claims.get(ISSUED_AT_MILLIS_CLAIM, Number.class);
+        return millis != null ? new Date(millis.longValue()) : claims.getIssuedAt();
+    }
+
     /**
      * Извлекает дату истечения из JWT токена.
      *
@@ -111,13 +156,45 @@ public class JwtUtil {
      *
      * @param token JWT токен
      * @return claims
+     * @throws JwtException если подпись неверна или токен истек
      */
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims getAllClaimsFromToken(String token) {
+        return parseToken(token).getBody();
+    }
+
+    /**
+     * Проверяет подпись токена ключом из его заголовка {@code kid} и разбирает токен.
+     *
+     * @param token JWT токен
+     * @return заголовок и claims
+     * @throws JwtException если подпись неверна, ключ неизвестен или токен истек
+     */
+    public Jws<Claims> parseToken(String token) {
+        return keyRing.parser().parseClaimsJws(token);
+    }
+
+    /**
+     * Проверяет, нужно ли выдать вместо токена новый: токен подписан не текущим ключом.
+     *
+     * @param token разобранный токен
+     * @return true если токен следует перевыпустить
+     */
+    public boolean shouldRenew(Jws<Claims> token) {
+        return !keyRing.currentKeyId().equals(token.getHeader().getKeyId());
+    }
+
+    /**
+     * Переподписывает токен текущим ключом с теми же claims, включая {@code jti} и срок действия.
+     *
+     * @param token разобранный токен
+     * @return перевыпущенный токен
+     */
+    public String renewToken(Jws<Claims> token) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.currentKeyId())
+                .setClaims(token.getBody())
+                .signWith(keyRing.currentKey())
+                .compact();
     }
 
     /**
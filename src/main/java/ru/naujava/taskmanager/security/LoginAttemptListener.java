@@ -0,0 +1,47 @@
+package ru.naujava.taskmanager.security;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Учитывает в {@link LoginAttemptTracker} результаты входа через {@code AuthenticationManager}
+ * (вход через форму). Вход через API учитывает сам {@code AuthApiController}.
+ * Неудачей считается только неверный пароль или имя: отказ из-за блокировки, ограничения попыток
+ * или занятого пула хеширования пароль не проверял.
+ */
+@Component
+public class LoginAttemptListener {
+    private static final String UNKNOWN_ADDRESS = "unknown";
+
+    private final LoginAttemptTracker loginAttemptTracker;
+
+    public LoginAttemptListener(LoginAttemptTracker loginAttemptTracker) {
+        this.loginAttemptTracker = loginAttemptTracker;
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        loginAttemptTracker.onSuccess(event.getAuthentication().getName());
+    }
+
+    @EventListener
+    public void onFailure(AuthenticationFailureBadCredentialsEvent event) {
+        Authentication authentication = event.getAuthentication();
+        loginAttemptTracker.onFailure(authentication.getName(), clientAddress(authentication));
+    }
+
+    /**
+     * Адрес клиента из деталей аутентификации, заполненных фильтром входа;
+     * без них все такие попытки делят один счетчик.
+     */
+    static String clientAddress(Authentication authentication) {
+        return authentication.getDetails() instanceof WebAuthenticationDetails details
+                && details.getRemoteAddress() != null
+                ? details.getRemoteAddress()
+                : UNKNOWN_ADDRESS;
+    }
+}
@@ -0,0 +1,167 @@
+package ru.naujava.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Учет неудачных попыток входа и регистрации по имени пользователя и по IP-адресу.
+ * <p>
+ * Неудачи считаются в скользящем окне (два соседних интервала с линейной интерполяцией, по два счетчика
+ * на ключ). Первые {@code freeFailures} неудач в окне ничего не стоят, каждая следующая запрещает попытки
+ * на удвоенную задержку (от {@code baseDelay} до {@code maxDelay}), а при {@code lockoutFailures} неудачах
+ * ключ блокируется на {@code lockout}. Заблокированную попытку отклоняют до запроса к базе и хеширования.
+ * <p>
+ * Дополнительно хранится отрицательный кэш несуществующих имен пользователей, чтобы перебор имен
+ * не обращался к базе. Все структуры — кэши Caffeine с ограниченным числом записей.
+ */
+public class LoginAttemptTracker {
+    private final Cache<String, Attempts> users;
+    private final Cache<String, Attempts> addresses;
+    private final Cache<String, Boolean> unknownUsers;
+    private final Policy userPolicy;
+    private final Policy addressPolicy;
+    private final Ticker ticker;
+
+    /**
+     * Параметры ограничения для одного вида ключей.
+     *
+     * @param window          длина окна подсчета неудач
+     * @param freeFailures    число неудач в окне без задержки
+     * @param lockoutFailures число неудач в окне, после которого ключ блокируется
+     * @param baseDelay       задержка после первой неудачи сверх бесплатных
+     * @param maxDelay        наибольшая задержка до блокировки
+     * @param lockout         длительность блокировки
+     */
+    public record Policy(Duration window, int freeFailures, int lockoutFailures, Duration baseDelay,
+                         Duration maxDelay, Duration lockout) {
+    }
+
+    /**
+     * @param maxEntries    наибольшее число отслеживаемых ключей каждого вида
+     * @param unknownUserTtl время хранения несуществующего имени в отрицательном кэше
+     */
+    public LoginAttemptTracker(Policy userPolicy, Policy addressPolicy, int maxEntries, Duration unknownUserTtl) {
+        this(userPolicy, addressPolicy, maxEntries, unknownUserTtl, Ticker.systemTicker());
+    }
+
+    LoginAttemptTracker(Policy userPolicy, Policy addressPolicy, int maxEntries, Duration unknownUserTtl,
+                        Ticker ticker) {
+        this.userPolicy = userPolicy;
+        this.addressPolicy = addressPolicy;
+        this.ticker = ticker;
+        this.users = attemptsCache(userPolicy, maxEntries, ticker);
+        this.addresses = attemptsCache(addressPolicy, maxEntries, ticker);
+        this.unknownUsers = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(unknownUserTtl)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Время, через которое будет разрешена попытка для имени пользователя и адреса.
+     *
+     * @param username имя пользователя или {@code null}, если проверяется только адрес
+     * @return 0, если попытка разрешена
+     */
+    public Duration retryAfter(String username, String clientAddress) {
+        long now = ticker.read();
+        long wait = retryAfter(addresses, clientAddress, now);
+        if (username != null) {
+            wait = Math.max(wait, retryAfter(users, username, now));
+        }
+        return Duration.ofNanos(wait);
+    }
+
+    /**
+     * Учитывает неудачную попытку.
+     *
+     * @param username имя пользователя или {@code null}, если попытка не относится к пользователю
+     */
+    public void onFailure(String username, String clientAddress) {
+        long now = ticker.read();
+        addresses.get(clientAddress, key -> new Attempts()).failure(addressPolicy, now);
+        if (username != null) {
+            users.get(username, key -> new Attempts()).failure(userPolicy, now);
+        }
+    }
+
+    /**
+     * Успешный вход сбрасывает неудачи пользователя; неудачи адреса остаются.
+     */
+    public void onSuccess(String username) {
+        users.invalidate(username);
+    }
+
+    public boolean isUnknownUser(String username) {
+        return unknownUsers.getIfPresent(username) != null;
+    }
+
+    public void markUnknownUser(String username) {
+        unknownUsers.put(username, Boolean.TRUE);
+    }
+
+    /**
+     * Убирает имя из отрицательного кэша (пользователь зарегистрирован).
+     */
+    public void forgetUnknownUser(String username) {
+        unknownUsers.invalidate(username);
+    }
+
+    private static long retryAfter(Cache<String, Attempts> cache, String key, long now) {
+        Attempts attempts = cache.getIfPresent(key);
+        return attempts == null ? 0 : attempts.retryAfter(now);
+    }
+
+    private static Cache<String, Attempts> attemptsCache(Policy policy, int maxEntries, Ticker ticker) {
+        Duration idle = policy.window().multipliedBy(2);
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(idle.compareTo(policy.lockout()) > 0 ? idle : policy.lockout())
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Счетчики неудач ключа в текущем и предыдущем интервале окна и время, до которого попытки запрещены.
+     */
+    private static final class Attempts {
+        private long interval = Long.MIN_VALUE;
+        private int previous;
+        private int current;
+        private boolean blocked;
+        private long blockedUntil;
+
+        synchronized long retryAfter(long now) {
+            return blocked ? Math.max(0, blockedUntil - now) : 0;
+        }
+
+        synchronized void failure(Policy policy, long now) {
+            long window = policy.window().toNanos();
+            long index = Math.floorDiv(now, window);
+            if (index != interval) {
+                previous = index == interval + 1 ? current : 0;
+                current = 0;
+                interval = index;
+            }
+            current++;
+            double elapsed = (double) Math.floorMod(now, window) / window;
+            int failures = (int) Math.ceil(previous * (1 - elapsed)) + current;
+
+            if (failures >= policy.lockoutFailures()) {
+                block(now, policy.lockout().toNanos());
+            } else if (failures > policy.freeFailures()) {
+                int doublings = Math.min(20, failures - policy.freeFailures() - 1);
+                block(now, Math.min(policy.maxDelay().toNanos(), policy.baseDelay().toNanos() << doublings));
+            }
+        }
+
+        private void block(long now, long delay) {
+            blocked = true;
+            blockedUntil = now + delay;
+        }
+    }
+}
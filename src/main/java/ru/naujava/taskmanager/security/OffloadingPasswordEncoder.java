@@ -0,0 +1,102 @@
+package ru.naujava.taskmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.naujava.taskmanager.exception.PasswordHashingRejectedException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Кодировщик паролей, выполняющий хеширование и проверку в отдельном пуле потоков ограниченного размера.
+ * <p>
+ * Поток обработки запроса ждет результата, только если в пуле или его очереди есть место; иначе сразу
+ * получает {@link PasswordHashingRejectedException}. Поэтому наплыв попыток входа занимает не больше
+ * {@code threads + queueCapacity} потоков Tomcat, а остальные продолжают обслуживать задачи.
+ * Отказы считает метрика {@code taskmanager.password.hashing.rejected}, состояние пула — метрики
+ * {@code executor.*} с тегом {@code name=password-hashing}.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    /**
+     * @param threads       число потоков хеширования
+     * @param queueCapacity число операций, ожидающих свободного потока
+     */
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("taskmanager.password.hashing.rejected")
+                .description("Операции с паролями, отклоненные из-за заполненной очереди хеширования")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "password-hashing", List.of()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Кодировщик, выполняющий операции в вызывающем потоке. Нужен массовым операциям со своим
+     * пулом потоков, чтобы они не занимали очередь, которую ждут вход и регистрация.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Supplier<T> operation) {
+        Future<T> future;
+        try {
+            future = executor.submit(operation::get);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
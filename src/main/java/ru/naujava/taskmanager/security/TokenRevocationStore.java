@@ -0,0 +1,192 @@
+package ru.naujava.taskmanager.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.RevokedToken;
+import ru.naujava.taskmanager.repository.RevokedTokenRepository;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Список отозванных JWT токенов, который {@link JwtAuthenticationFilter} проверяет на каждом запросе.
+ * <p>
+ * Отзываются отдельные токены (по {@code jti}, при выходе) и все токены пользователя, выданные до момента
+ * отзыва (при смене пароля и действиях администратора). Записи живут в памяти до истечения отозванных
+ * токенов; проверка — два обращения к {@link ConcurrentHashMap} без блокировок, причем поиск {@code jti}
+ * сначала проходит через {@link BloomFilter}, отсекающий почти все неотозванные токены.
+ * <p>
+ * Записи сохраняются в таблицу {@code revoked_tokens}: {@link #refresh()} при запуске загружает все
+ * действующие записи, а затем периодически подгружает отозванные на других узлах и удаляет истекшие.
+ * Время выдачи сравнивается с моментом отзыва с точностью до миллисекунды ({@link JwtUtil#getIssuedAt}),
+ * поэтому токены, выданные сразу после отзыва всех токенов пользователя, действительны.
+ */
+public class TokenRevocationStore implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    static final double FALSE_POSITIVE_RATE = 0.01;
+    /**
+     * Перекрытие периодических загрузок: запись другого узла могла быть зафиксирована с опозданием
+     * или по отстающим часам.
+     */
+    static final long REFRESH_OVERLAP_MILLIS = 5_000;
+
+    private final RevokedTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxTokenLifetime;
+    private final int expectedEntries;
+    private final LongSupplier clock;
+    private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private long lastRefresh = Long.MIN_VALUE;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param maxTokenLifetime время жизни выдаваемых токенов: столько хранится отзыв всех токенов пользователя
+     * @param expectedEntries  число отозванных токенов, на которое рассчитан фильтр Блума
+     */
+    public TokenRevocationStore(RevokedTokenRepository repository, PlatformTransactionManager transactionManager,
+                                Duration maxTokenLifetime, int expectedEntries) {
+        this(repository, transactionManager, maxTokenLifetime, expectedEntries, System::currentTimeMillis);
+    }
+
+    TokenRevocationStore(RevokedTokenRepository repository, PlatformTransactionManager transactionManager,
+                         Duration maxTokenLifetime, int expectedEntries, LongSupplier clock) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxTokenLifetime = maxTokenLifetime.toMillis();
+        this.expectedEntries = expectedEntries;
+        this.clock = clock;
+        this.bloomFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Проверяет, отозван ли токен.
+     *
+     * @param tokenId  {@code jti} токена или {@code null} для токенов, выданных без него
+     * @param username субъект токена
+     * @param issuedAt время выдачи токена с точностью до миллисекунды
+     */
+    public boolean isRevoked(String tokenId, String username, Date issuedAt) {
+        Long cutoff = username != null ? userCutoffs.get(username) : null;
+        if (cutoff != null && (issuedAt == null || issuedAt.getTime() <= cutoff)) {
+            return true;
+        }
+        return tokenId != null && bloomFilter.mightContain(tokenId) && tokens.containsKey(tokenId);
+    }
+
+    /**
+     * Отзывает один токен до его истечения. Внутри транзакции отзыв действует после ее фиксации.
+     */
+    public void revoke(String tokenId, String username, Date expiresAt) {
+        long expires = expiresAt.getTime();
+        repository.save(new RevokedToken(tokenId, username, clock.getAsLong(), expires));
+        afterCommit(() -> {
+            synchronized (this) {
+                tokens.merge(tokenId, expires, Math::max);
+                bloomFilter.put(tokenId);
+            }
+        });
+    }
+
+    /**
+     * Отзывает все токены пользователя, выданные до текущего момента. Внутри транзакции отзыв действует
+     * после ее фиксации.
+     */
+    public void revokeAll(String username) {
+        long now = clock.getAsLong();
+        repository.save(new RevokedToken(RevokedToken.USER_KEY_PREFIX + username, username,
+                now, now + maxTokenLifetime));
+        afterCommit(() -> userCutoffs.merge(username, now, Math::max));
+    }
+
+    /**
+     * Подгружает записи, сохраненные после предыдущего вызова (при первом вызове — все действующие),
+     * удаляет истекшие записи из таблицы и из памяти и перестраивает фильтр Блума.
+     */
+    public synchronized void refresh() {
+        long now = clock.getAsLong();
+        long since = lastRefresh == Long.MIN_VALUE ? Long.MIN_VALUE : lastRefresh - REFRESH_OVERLAP_MILLIS;
+        List<RevokedToken> loaded = transactionTemplate.execute(status -> {
+            repository.deleteExpired(now);
+            return repository.findActiveRevokedSince(since, now);
+        });
+        if (loaded != null) {
+            for (RevokedToken revoked : loaded) {
+                if (revoked.isUserWide()) {
+                    userCutoffs.merge(revoked.getUsername(), revoked.getRevokedAt(), Math::max);
+                } else {
+                    tokens.merge(revoked.getKey(), revoked.getExpiresAt(), Math::max);
+                }
+            }
+        }
+        tokens.values().removeIf(expires -> expires <= now);
+        userCutoffs.values().removeIf(revokedAt -> revokedAt + maxTokenLifetime <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, tokens.size() * 2), FALSE_POSITIVE_RATE);
+        tokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        lastRefresh = now;
+    }
+
+    /**
+     * Запускает периодический {@link #refresh()} в отдельном потоке.
+     */
+    public synchronized void scheduleRefresh(Duration interval) {
+        if (scheduler != null || !interval.isPositive()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("Unable to refresh revoked tokens", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Применяет отзыв в памяти после фиксации транзакции, сохранившей его в таблицу, чтобы откат
+     * не оставил токены отозванными только на этом узле.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    int size() {
+        return tokens.size() + userCutoffs.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package ru.naujava.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.naujava.taskmanager.entity.ApiKey;
+import ru.naujava.taskmanager.entity.ApiKeyScope;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.repository.ApiKeyRepository;
+import ru.naujava.taskmanager.security.ApiKeyUsageRecorder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Сервис API-ключей для машинных клиентов.
+ * <p>
+ * Ключ имеет вид {@code tm_<префикс>.<секрет>} и показывается только при создании; в базе хранятся
+ * префикс (по нему ищется запись) и SHA-256 всего ключа, который сверяется за постоянное время.
+ * Проверенные ключи кэшируются по SHA-256 на {@code taskmanager.api-keys.cache-ttl}, поэтому запрос
+ * с ключом не обращается к базе и не вычисляет BCrypt. Отзыв сразу убирает ключ из кэша этого узла,
+ * на остальных узлах ключ действует не дольше времени жизни записи кэша.
+ */
+@Service
+public class ApiKeyService {
+    static final String KEY_PREFIX = "tm_";
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final UserService userService;
+    private final ApiKeyUsageRecorder usageRecorder;
+    private final Cache<String, AuthenticatedKey> cache;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Проверенный ключ: владелец и права.
+     *
+     * @param expiresAt время истечения или {@code null}, если ключ бессрочный
+     */
+    public record AuthenticatedKey(Long id, String username, Role role, Set<ApiKeyScope> scopes,
+                                   LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Созданный ключ вместе с его значением, которое больше нигде не хранится.
+     */
+    public record CreatedKey(ApiKey apiKey, String key) {
+    }
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository, UserService userService,
+                         ApiKeyUsageRecorder usageRecorder,
+                         @Value("${taskmanager.api-keys.cache-size:10000}") int cacheSize,
+                         @Value("${taskmanager.api-keys.cache-ttl:1m}") Duration cacheTtl) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.userService = userService;
+        this.usageRecorder = usageRecorder;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Создает ключ пользователя.
+     *
+     * @param validity срок действия или {@code null} для бессрочного ключа
+     * @throws IllegalArgumentException если права не указаны или пользователь не найден
+     */
+    @Transactional
+    public CreatedKey create(String username, String name, Set<ApiKeyScope> scopes, Duration validity) {
+        Objects.requireNonNull(name, "name не должен быть null");
+        if (scopes == null || scopes.isEmpty()) {
+            throw new IllegalArgumentException("Нужно указать хотя бы одно право ключа");
+        }
+        User user = userService.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден"));
+        String prefix = KEY_PREFIX + randomToken(9);
+        String key = prefix + '.' + randomToken(32);
+        LocalDateTime expiresAt = validity == null ? null : LocalDateTime.now().plus(validity);
+        ApiKey apiKey = new ApiKey(user, name, prefix, HexFormat.of().formatHex(digest(key)), scopes, expiresAt);
+        return new CreatedKey(apiKeyRepository.save(apiKey), key);
+    }
+
+    /**
+     * Ключи пользователя, новые первыми.
+     */
+    @Transactional(readOnly = true)
+    public List<ApiKey> findByUsername(String username) {
+        return userService.findByUsername(username)
+                .map(apiKeyRepository::findByUserOrderByCreatedAtDesc)
+                .orElse(List.of());
+    }
+
+    /**
+     * Отзывает ключ пользователя.
+     *
+     * @return false, если у пользователя нет такого ключа
+     */
+    @Transactional
+    public boolean revoke(String username, Long id) {
+        Optional<ApiKey> apiKey = userService.findByUsername(username)
+                .flatMap(user -> apiKeyRepository.findByIdAndUser(id, user));
+        apiKey.ifPresent(key -> {
+            if (key.getRevokedAt() == null) {
+                key.setRevokedAt(LocalDateTime.now());
+            }
+            evictAfterCommit(key.getDigest());
+        });
+        return apiKey.isPresent();
+    }
+
+    /**
+     * Убирает из кэша этого узла все ключи пользователя (при блокировке или удалении пользователя).
+     */
+    public void evictUser(String username) {
+        cache.asMap().values().removeIf(key -> key.username().equals(username));
+    }
+
+    /**
+     * Проверяет ключ из запроса. Выполняется без транзакции: при попадании в кэш база не нужна.
+     *
+     * @return владелец и права ключа или пустой Optional, если ключ неизвестен, отозван или истек
+     */
+    public Optional<AuthenticatedKey> authenticate(String key) {
+        int separator = key.indexOf('.');
+        if (!key.startsWith(KEY_PREFIX) || separator < 0) {
+            return Optional.empty();
+        }
+        byte[] digest = digest(key);
+        String cacheKey = HexFormat.of().formatHex(digest);
+        AuthenticatedKey authenticated = cache.getIfPresent(cacheKey);
+        if (authenticated == null) {
+            authenticated = load(key.substring(0, separator), digest);
+            if (authenticated == null) {
+                return Optional.empty();
+            }
+            cache.put(cacheKey, authenticated);
+        }
+        if (authenticated.expiresAt() != null && !LocalDateTime.now().isBefore(authenticated.expiresAt())) {
+            return Optional.empty();
+        }
+        usageRecorder.record(authenticated.id());
+        return Optional.of(authenticated);
+    }
+
+    private AuthenticatedKey load(String prefix, byte[] digest) {
+        ApiKey apiKey = apiKeyRepository.findByPrefixWithUser(prefix).orElse(null);
+        if (apiKey == null || apiKey.getRevokedAt() != null || apiKey.getUser().isLocked()
+                || !MessageDigest.isEqual(digest, HexFormat.of().parseHex(apiKey.getDigest()))) {
+            return null;
+        }
+        User user = apiKey.getUser();
+        return new AuthenticatedKey(apiKey.getId(), user.getUsername(), user.getRole(), apiKey.getScopes(),
+                apiKey.getExpiresAt());
+    }
+
+    /**
+     * Убирает ключ из кэша сразу и еще раз после фиксации транзакции: запрос, прочитавший ключ
+     * до фиксации отзыва, мог снова положить его в кэш.
+     */
+    private void evictAfterCommit(String digest) {
+        cache.invalidate(digest);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(digest);
+                }
+            });
+        }
+    }
+
+    private String randomToken(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+
+    private static byte[] digest(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
@@ -1,32 +1,62 @@
 package ru.naujava.taskmanager.service;
 
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import ru.naujava.taskmanager.entity.User;
 import ru.naujava.taskmanager.repository.UserRepository;
 
+import java.util.Optional;
+
 /**
  * Сервис для загрузки пользователей для Spring Security.
+ * Загрузка пользователя измеряется метрикой и span'ом {@code taskmanager.user.details}.
+ * {@link #loadUserByUsername} на каждом запросе с JWT берет пользователя из кэша второго уровня,
+ * а вход через форму проверяет пароль по {@link #loadUserForAuthentication}, который читает базу.
+ * При входе через форму Spring Security сохраняет через него хеш пароля, пересчитанный
+ * с текущими параметрами кодировщика.
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+@Observed(name = "taskmanager.user.details")
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final UserService userService;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
+        this.userService = userService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + username));
+        return toUserDetails(userRepository.findByUsername(username), username);
+    }
+
+    /**
+     * Загружает пользователя с текущими паролем и признаком блокировки из базы, минуя кэш второго уровня.
+     */
+    public UserDetails loadUserForAuthentication(String username) throws UsernameNotFoundException {
+        return toUserDetails(userRepository.findByUsernameBypassingCache(username), username);
+    }
 
+    private static UserDetails toUserDetails(Optional<User> found, String username) {
+        User user = found.orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + username));
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
                 .password(user.getPassword())
                 .roles(user.getRole().name())
+                .accountLocked(user.isLocked())
+                .build();
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updateEncodedPassword(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
 }
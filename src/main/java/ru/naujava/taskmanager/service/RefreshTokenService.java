@@ -0,0 +1,146 @@
+package ru.naujava.taskmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.RefreshToken;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.repository.RefreshTokenRepository;
+import ru.naujava.taskmanager.security.TokenRevocationStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Сервис одноразовых refresh-токенов.
+ * <p>
+ * Вход выдает токен нового семейства; обмен токена на новый — поиск по уникальному индексу SHA-256
+ * без проверки пароля. Каждый токен принимается один раз: повторное предъявление использованного
+ * токена означает, что он украден, поэтому отзывается все семейство и все JWT пользователя.
+ * Истекшие токены удаляются периодической задачей ({@code taskmanager.refresh-token.cleanup-interval}),
+ * а не при выдаче, чтобы массовое удаление не задерживало вход.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final Duration lifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Результат обмена: владелец и новый refresh-токен того же семейства.
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               TokenRevocationStore tokenRevocationStore,
+                               @Value("${taskmanager.refresh-token.lifetime:14d}") Duration lifetime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.lifetime = lifetime;
+    }
+
+    /**
+     * Выдает refresh-токен нового семейства.
+     *
+     * @return значение токена, которое больше нигде не хранится
+     */
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Обменивает refresh-токен на новый.
+     *
+     * @return пустой Optional, если токен неизвестен, истек, отозван или уже использован
+     * либо пользователь заблокирован
+     */
+    public Optional<Rotation> rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hash(refreshToken)).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        if (current == null || current.getRevokedAt() != null || !now.isBefore(current.getExpiresAt())) {
+            return Optional.empty();
+        }
+        User user = current.getUser();
+        if (user.isLocked()) {
+            return Optional.empty();
+        }
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            tokenRevocationStore.revokeAll(user.getUsername());
+            log.atWarn()
+                    .setMessage("Refresh token reuse detected, token family revoked")
+                    .addKeyValue("user", user.getUsername())
+                    .addKeyValue("revoked", revoked)
+                    .log();
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(user, issue(user, current.getFamilyId())));
+    }
+
+    /**
+     * Отзывает семейство, к которому относится токен (выход из системы).
+     */
+    public void revokeFamily(String refreshToken) {
+        refreshTokenRepository.findByTokenHashWithUser(hash(refreshToken)).ifPresent(token ->
+                refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Отзывает все refresh-токены пользователя.
+     */
+    public void revokeAll(User user) {
+        refreshTokenRepository.revokeByUser(user, LocalDateTime.now());
+    }
+
+    /**
+     * Удаляет истекшие refresh-токены.
+     *
+     * @return число удаленных токенов
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.refresh-token.cleanup-interval:1h}",
+            initialDelayString = "${taskmanager.refresh-token.cleanup-interval:1h}")
+    public int deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.atInfo()
+                    .setMessage("Expired refresh tokens deleted")
+                    .addKeyValue("tokens", deleted)
+                    .log();
+        }
+        return deleted;
+    }
+
+    private String issue(User user, String familyId) {
+        LocalDateTime now = LocalDateTime.now();
+        byte[] value = new byte[32];
+        random.nextBytes(value);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+        refreshTokenRepository.save(new RefreshToken(user, hash(token), familyId, now.plus(lifetime)));
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package ru.naujava.taskmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.CompletionLatencyBucket;
+import ru.naujava.taskmanager.repository.TaskCompletionLatencyRepository;
+import ru.naujava.taskmanager.repository.TaskDailyActiveUserRepository;
+import ru.naujava.taskmanager.repository.TaskDailyStatsRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Приращения аналитики задач из {@link TaskService}. Изменение задачи после фиксации транзакции
+ * только накапливается в памяти по дням, а {@link #flush()} прибавляет накопленное к таблицам
+ * {@code task_daily_stats}, {@code task_daily_active_users} и {@code task_completion_latency}
+ * одной транзакцией — по несколько запросов на день за интервал, сколько бы задач ни менялось.
+ * Если запись не удалась, приращения возвращаются в память и записываются следующим вызовом.
+ */
+public class TaskAnalyticsRecorder implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TaskAnalyticsRecorder.class);
+
+    private final TaskDailyStatsRepository dailyStatsRepository;
+    private final TaskDailyActiveUserRepository activeUserRepository;
+    private final TaskCompletionLatencyRepository latencyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<LocalDate, DayDelta> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Накопленные за день изменения; меняются только внутри {@code pending.compute}.
+     */
+    private static final class DayDelta {
+        long created;
+        long completed;
+        final Map<CompletionLatencyBucket, Long> latency = new EnumMap<>(CompletionLatencyBucket.class);
+        final Set<Long> users = new HashSet<>();
+
+        DayDelta merge(DayDelta other) {
+            created += other.created;
+            completed += other.completed;
+            other.latency.forEach((bucket, count) -> latency.merge(bucket, count, Long::sum));
+            users.addAll(other.users);
+            return this;
+        }
+    }
+
+    public TaskAnalyticsRecorder(TaskDailyStatsRepository dailyStatsRepository,
+                                 TaskDailyActiveUserRepository activeUserRepository,
+                                 TaskCompletionLatencyRepository latencyRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.activeUserRepository = activeUserRepository;
+        this.latencyRepository = latencyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void taskCreated(Long userId, LocalDateTime createdAt) {
+        afterCommit(() -> record(createdAt.toLocalDate(), delta -> {
+            delta.created++;
+            delta.users.add(userId);
+        }));
+    }
+
+    public void taskCompleted(Long userId, LocalDateTime createdAt, LocalDateTime completedAt) {
+        CompletionLatencyBucket bucket = CompletionLatencyBucket.of(Duration.between(createdAt, completedAt));
+        afterCommit(() -> record(completedAt.toLocalDate(), delta -> {
+            delta.completed++;
+            delta.latency.merge(bucket, 1L, Long::sum);
+            delta.users.add(userId);
+        }));
+    }
+
+    /**
+     * Возврат выполненной задачи в активные вычитает ее выполнение из дня {@code completedAt}.
+     *
+     * @param completedAt время выполнения или {@code null}, если оно не сохранено
+     */
+    public void taskReopened(Long userId, LocalDateTime createdAt, LocalDateTime completedAt) {
+        if (completedAt == null) {
+            userActive(userId);
+            return;
+        }
+        CompletionLatencyBucket bucket = CompletionLatencyBucket.of(Duration.between(createdAt, completedAt));
+        afterCommit(() -> {
+            record(completedAt.toLocalDate(), delta -> {
+                delta.completed--;
+                delta.latency.merge(bucket, -1L, Long::sum);
+            });
+            record(LocalDate.now(), delta -> delta.users.add(userId));
+        });
+    }
+
+    public void userActive(Long userId) {
+        afterCommit(() -> record(LocalDate.now(), delta -> delta.users.add(userId)));
+    }
+
+    /**
+     * Записывает накопленные приращения.
+     *
+     * @return число записанных дней
+     */
+    public int flush() {
+        Map<LocalDate, DayDelta> batch = new TreeMap<>();
+        for (LocalDate date : pending.keySet()) {
+            DayDelta delta = pending.remove(date);
+            if (delta != null) {
+                batch.put(date, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            // Дни по возрастанию: экземпляры приложения блокируют строки в одном порядке
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::write));
+        } catch (RuntimeException e) {
+            batch.forEach((date, delta) -> pending.merge(date, delta, DayDelta::merge));
+            throw e;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Запускает периодический {@link #flush()} в отдельном потоке.
+     */
+    public synchronized void scheduleFlush(Duration interval) {
+        if (scheduler != null || !interval.isPositive()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-analytics-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает периодическую запись и записывает оставшееся.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flushQuietly();
+    }
+
+    private void write(LocalDate date, DayDelta delta) {
+        dailyStatsRepository.insertIfAbsent(date);
+        if (delta.created != 0 || delta.completed != 0) {
+            dailyStatsRepository.increment(date, delta.created, delta.completed);
+        }
+        delta.latency.forEach((bucket, count) -> {
+            if (count != 0) {
+                latencyRepository.insertIfAbsent(date, bucket);
+                latencyRepository.increment(date, bucket, count);
+            }
+        });
+        int newUsers = 0;
+        for (Long userId : delta.users) {
+            newUsers += activeUserRepository.insertIfAbsent(date, userId);
+        }
+        if (newUsers > 0) {
+            dailyStatsRepository.refreshActiveUsers(date);
+        }
+    }
+
+    private void record(LocalDate date, Consumer<DayDelta> update) {
+        pending.compute(date, (key, delta) -> {
+            DayDelta target = delta == null ? new DayDelta() : delta;
+            update.accept(target);
+            return target;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Unable to record task analytics", e);
+        }
+    }
+}
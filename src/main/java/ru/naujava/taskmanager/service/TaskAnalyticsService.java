@@ -0,0 +1,108 @@
+package ru.naujava.taskmanager.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.CompletionLatencyBucket;
+import ru.naujava.taskmanager.entity.TaskDailyStats;
+import ru.naujava.taskmanager.repository.TaskCompletionLatencyRepository;
+import ru.naujava.taskmanager.repository.TaskDailyStatsRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Аналитика задач для администратора. Читаются только дневные итоги из {@link TaskAnalyticsRecorder},
+ * поэтому время запроса зависит от длины периода, а не от числа задач и пользователей.
+ */
+@Service
+public class TaskAnalyticsService {
+    static final int MAX_DAYS = 366;
+
+    private final TaskDailyStatsRepository dailyStatsRepository;
+    private final TaskCompletionLatencyRepository latencyRepository;
+
+    /**
+     * Итоги одного дня.
+     */
+    public record DayStats(LocalDate date, long tasksCreated, long tasksCompleted, long activeUsers) {
+    }
+
+    /**
+     * Аналитика за период.
+     *
+     * @param days    итоги по дням от старых к новым, включая дни без изменений
+     * @param latency число выполненных за период задач по времени выполнения
+     */
+    public record Dashboard(List<DayStats> days, Map<CompletionLatencyBucket, Long> latency,
+                            long tasksCreated, long tasksCompleted) {
+        /**
+         * Наибольшее дневное значение графика задач (не меньше 1) для масштаба столбцов.
+         */
+        public long maxDailyTasks() {
+            return Math.max(1, days.stream()
+                    .mapToLong(day -> Math.max(day.tasksCreated(), day.tasksCompleted()))
+                    .max().orElse(0));
+        }
+
+        /**
+         * Наибольшее дневное число активных пользователей (не меньше 1) для масштаба столбцов.
+         */
+        public long maxActiveUsers() {
+            return Math.max(1, days.stream().mapToLong(DayStats::activeUsers).max().orElse(0));
+        }
+
+        /**
+         * Наибольшее значение распределения времени выполнения (не меньше 1) для масштаба столбцов.
+         */
+        public long maxLatency() {
+            return Math.max(1, latency.values().stream().mapToLong(Long::longValue).max().orElse(0));
+        }
+    }
+
+    public TaskAnalyticsService(TaskDailyStatsRepository dailyStatsRepository,
+                                TaskCompletionLatencyRepository latencyRepository) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.latencyRepository = latencyRepository;
+    }
+
+    /**
+     * Аналитика за последние дни, включая сегодняшний.
+     *
+     * @param days число дней, не больше {@value #MAX_DAYS}
+     */
+    @Transactional(readOnly = true)
+    public Dashboard dashboard(int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(Math.min(Math.max(days, 1), MAX_DAYS) - 1L);
+
+        Map<LocalDate, TaskDailyStats> stored = dailyStatsRepository.findByDateBetweenOrderByDateAsc(from, to)
+                .stream()
+                .collect(Collectors.toMap(TaskDailyStats::getDate, Function.identity()));
+        List<DayStats> series = new ArrayList<>();
+        long created = 0;
+        long completed = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            TaskDailyStats stats = stored.get(date);
+            DayStats day = stats == null
+                    ? new DayStats(date, 0, 0, 0)
+                    : new DayStats(date, stats.getTasksCreated(), stats.getTasksCompleted(), stats.getActiveUsers());
+            created += day.tasksCreated();
+            completed += day.tasksCompleted();
+            series.add(day);
+        }
+
+        Map<CompletionLatencyBucket, Long> latency = new EnumMap<>(CompletionLatencyBucket.class);
+        for (CompletionLatencyBucket bucket : CompletionLatencyBucket.values()) {
+            latency.put(bucket, 0L);
+        }
+        for (Object[] row : latencyRepository.sumByBucket(from, to)) {
+            latency.put((CompletionLatencyBucket) row[0], (Long) row[1]);
+        }
+        return new Dashboard(series, latency, created, completed);
+    }
+}
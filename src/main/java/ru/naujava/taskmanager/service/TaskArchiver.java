@@ -0,0 +1,168 @@
+package ru.naujava.taskmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.repository.ArchivedTaskRepository;
+import ru.naujava.taskmanager.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перенос выполненных задач, не менявшихся дольше {@code minAge}, из {@code tasks} в {@code tasks_archive},
+ * чтобы таблица и индексы активных задач не росли вместе с историей. Задачи переносятся пачками по
+ * {@code batchSize}, каждая в своей транзакции, с паузой {@code batchPause} между пачками.
+ * На PostgreSQL пачку переносит только экземпляр, получивший транзакционную advisory-блокировку;
+ * переносимые строки блокируются. {@link TaskService} тоже блокирует изменяемую задачу, поэтому
+ * одновременное изменение ждет конца пачки и возвращает задачу из архива, а пачка, начатая во время
+ * изменения, ждет его конца и повторно проверяет, что задача выполнена.
+ */
+public class TaskArchiver implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    /**
+     * Ключ advisory-блокировки PostgreSQL, общий для всех экземпляров приложения.
+     */
+    static final long ADVISORY_LOCK_KEY = 0x7461736b61726368L;
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration batchPause;
+    private volatile Boolean postgres;
+    private ScheduledExecutorService scheduler;
+
+    public TaskArchiver(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+                        JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        Duration minAge, int batchSize, Duration batchPause) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+    }
+
+    /**
+     * Переносит в архив выполненные задачи старше {@code minAge}.
+     *
+     * @return число перенесенных задач
+     */
+    public int archive() {
+        return archive(LocalDateTime.now().minus(minAge));
+    }
+
+    /**
+     * Переносит в архив выполненные задачи, не менявшиеся с {@code cutoff}.
+     *
+     * @return число перенесенных задач
+     */
+    public int archive(LocalDateTime cutoff) {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> moveBatch(cutoff));
+            if (moved == null) {
+                log.debug("Task archiving is running on another instance");
+                break;
+            }
+            total += moved;
+            if (moved < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.atInfo()
+                    .setMessage("Completed tasks archived")
+                    .addKeyValue("tasks", total)
+                    .addKeyValue("cutoff", cutoff)
+                    .log();
+        }
+        return total;
+    }
+
+    /**
+     * Запускает периодический {@link #archive()} в отдельном потоке.
+     */
+    public synchronized void scheduleArchiving(Duration interval) {
+        if (scheduler != null || !interval.isPositive()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает периодический перенос; начатая пачка завершается или откатывается вместе с транзакцией.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private Integer moveBatch(LocalDateTime cutoff) {
+        if (!tryAdvisoryLock()) {
+            return null;
+        }
+        List<Long> ids = taskRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+        int deleted = taskRepository.deleteDoneByIds(ids);
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived " + copied + " tasks but removed " + deleted);
+        }
+        return deleted;
+    }
+
+    private boolean tryAdvisoryLock() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(product);
+        }
+        return !postgres || Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY));
+    }
+
+    private boolean pause() {
+        if (!batchPause.isPositive()) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            Thread.sleep(batchPause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Unable to archive completed tasks", e);
+        }
+    }
+}
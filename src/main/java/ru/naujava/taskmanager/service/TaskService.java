@@ -1,39 +1,84 @@
 package ru.naujava.taskmanager.service;
 
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.ArchivedTask;
 import ru.naujava.taskmanager.entity.Task;
 import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.exception.DuplicateTaskException;
+import ru.naujava.taskmanager.exception.InvalidTaskException;
+import ru.naujava.taskmanager.exception.TaskNotFoundException;
+import ru.naujava.taskmanager.logging.LogMarkers;
+import ru.naujava.taskmanager.repository.ArchivedTaskRepository;
 import ru.naujava.taskmanager.repository.TaskRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * Сервис для управления задачами.
+ * Время выполнения каждого метода публикуется метрикой {@code taskmanager.task.service}
+ * с тегами класса и метода. Изменения логируются с идентификаторами пользователя и задачи
+ * в виде пар ключ-значение, без текста описаний.
+ * Методы чтения выполняются в транзакциях только для чтения и при настроенных репликах
+ * обслуживаются ими (см. {@code ReadWriteRoutingDataSource}).
+ * Изменения после фиксации транзакции учитываются в аналитике ({@link TaskAnalyticsRecorder}).
+ * Старые выполненные задачи переносятся в архив ({@link TaskArchiver}); выполненные задачи читаются
+ * из обеих таблиц, а изменение архивной задачи сначала возвращает ее в {@code tasks}.
  */
 @Service
 @Transactional
+@Observed(name = "taskmanager.task.service")
 public class TaskService {
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+    private static final String USER_ID = "userId";
+    private static final String TASK_ID = "taskId";
+
+    static final int MAX_PAGE_SIZE = 200;
 
     private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskAnalyticsRecorder analyticsRecorder;
+
+    /**
+     * Страница выполненных задач.
+     *
+     * @param next значение {@code afterId} для следующей страницы или {@code null}, если это последняя
+     */
+    public record CompletedTasksPage(List<Task> tasks, Long next) {
+    }
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+                       TaskAnalyticsRecorder analyticsRecorder) {
         this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.analyticsRecorder = analyticsRecorder;
     }
 
     /**
-     * Находит все задачи пользователя.
+     * Находит все задачи пользователя, включая архивные.
      *
      * @param user пользователь
-     * @return список задач
+     * @return список задач по возрастанию ID
      */
+    @Transactional(readOnly = true)
     public List<Task> findAllTasksByUser(User user) {
         Objects.requireNonNull(user, "user не должен быть null");
-        return taskRepository.findByUser_IdOrderByIdAsc(user.getId());
+        Map<Long, Task> tasks = new TreeMap<>();
+        taskRepository.findByUser_IdOrderByIdAsc(user.getId())
+                .forEach(task -> tasks.put(task.getId(), task));
+        archivedTaskRepository.findByUser_IdOrderByIdAsc(user.getId())
+                .forEach(task -> tasks.putIfAbsent(task.getId(), task.toTask()));
+        return new ArrayList<>(tasks.values());
     }
 
     /**
@@ -42,20 +87,54 @@ public class TaskService {
      * @param user пользователь
      * @return список невыполненных задач
      */
+    @Transactional(readOnly = true)
     public List<Task> findActiveTasksByUser(User user) {
         Objects.requireNonNull(user, "user не должен быть null");
         return taskRepository.findByUser_IdAndIsDoneFalseOrderByIdAsc(user.getId());
     }
 
     /**
-     * Находит все выполненные задачи пользователя.
+     * Находит все выполненные задачи пользователя, включая архивные.
      *
      * @param user пользователь
      * @return список выполненных задач
      */
+    @Transactional(readOnly = true)
     public List<Task> findCompletedTasksByUser(User user) {
         Objects.requireNonNull(user, "user не должен быть null");
-        return taskRepository.findByUser_IdAndIsDoneTrueOrderByIdAsc(user.getId());
+        Map<Long, Task> tasks = new TreeMap<>();
+        taskRepository.findByUser_IdAndIsDoneTrueOrderByIdAsc(user.getId())
+                .forEach(task -> tasks.put(task.getId(), task));
+        archivedTaskRepository.findByUser_IdOrderByIdAsc(user.getId())
+                .forEach(task -> tasks.putIfAbsent(task.getId(), task.toTask()));
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * Страница выполненных задач пользователя, включая архивные, по возрастанию ID после {@code afterId}.
+     *
+     * @param user пользователь
+     * @param afterId ID последней задачи предыдущей страницы или {@code null} для первой страницы
+     * @param size число задач на странице, не больше {@value #MAX_PAGE_SIZE}
+     * @return страница выполненных задач
+     */
+    @Transactional(readOnly = true)
+    public CompletedTasksPage findCompletedTasksByUser(User user, Long afterId, int size) {
+        Objects.requireNonNull(user, "user не должен быть null");
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long cursor = afterId == null ? 0 : afterId;
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+
+        // Задача, перенесенная в архив между запросами, попадет в оба результата и учитывается один раз
+        Map<Long, Task> tasks = new TreeMap<>();
+        taskRepository.findByUser_IdAndIsDoneTrueAndIdGreaterThanOrderByIdAsc(user.getId(), cursor, pageRequest)
+                .forEach(task -> tasks.put(task.getId(), task));
+        archivedTaskRepository.findByUser_IdAndIdGreaterThanOrderByIdAsc(user.getId(), cursor, pageRequest)
+                .forEach(task -> tasks.putIfAbsent(task.getId(), task.toTask()));
+
+        List<Task> page = tasks.values().stream().limit(limit).toList();
+        Long next = tasks.size() > limit ? page.get(limit - 1).getId() : null;
+        return new CompletedTasksPage(page, next);
     }
 
     /**
@@ -64,26 +143,35 @@ public class TaskService {
      * @param description описание задачи
      * @param user пользователь
      * @return созданная задача
-     * @throws IllegalArgumentException если задача с таким описанием уже существует
+     * @throws InvalidTaskException если описание пустое
+     * @throws DuplicateTaskException если задача с таким описанием уже существует
      */
     public Task createTask(String description, User user) {
         Objects.requireNonNull(description, "description не должен быть null");
         Objects.requireNonNull(user, "user не должен быть null");
         if (description.trim().isEmpty()) {
-            logger.warn("Попытка создать задачу с пустым описанием для пользователя {}", user.getUsername());
-            throw new IllegalArgumentException("Описание задачи не может быть пустым");
+            logger.atWarn().addMarker(LogMarkers.REPETITIVE)
+                    .setMessage("Попытка создать задачу с пустым описанием")
+                    .addKeyValue(USER_ID, user.getId())
+                    .log();
+            throw new InvalidTaskException("Описание задачи не может быть пустым");
         }
 
-        boolean exists = taskRepository.existsByUser_IdAndDescription(user.getId(), description);
-        if (exists) {
-            logger.warn("Попытка создать задачу с дублирующимся описанием '{}' для пользователя {}",
-                    description, user.getUsername());
-            throw new IllegalArgumentException("Задача с описанием '" + description + "' уже существует");
+        if (descriptionExists(user, description)) {
+            logger.atWarn().addMarker(LogMarkers.REPETITIVE)
+                    .setMessage("Попытка создать задачу с дублирующимся описанием")
+                    .addKeyValue(USER_ID, user.getId())
+                    .log();
+            throw new DuplicateTaskException(description);
         }
 
         Task task = new Task(description, user);
         Task savedTask = taskRepository.save(task);
-        logger.info("Создана новая задача '{}' для пользователя {}", description, user.getUsername());
+        analyticsRecorder.taskCreated(user.getId(), savedTask.getCreatedAt());
+        logger.atInfo().setMessage("Создана новая задача")
+                .addKeyValue(USER_ID, user.getId())
+                .addKeyValue(TASK_ID, savedTask.getId())
+                .log();
         return savedTask;
     }
 
@@ -93,16 +181,28 @@ public class TaskService {
      * @param taskId ID задачи
      * @param user пользователь
      * @return удаленная задача
-     * @throws IllegalArgumentException если задача не найдена
+     * @throws TaskNotFoundException если задача не найдена
      */
     public Task deleteTaskByIdAndUser(Long taskId, User user) {
         Objects.requireNonNull(taskId, "taskId не должен быть null");
         Objects.requireNonNull(user, "user не должен быть null");
 
-        Task task = taskRepository.findByIdAndUser_Id(taskId, user.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Задача не найдена"));
-        taskRepository.delete(task);
-        logger.info("Удалена задача '{}' для пользователя {}", task.getDescription(), user.getUsername());
+        Optional<Task> hotTask = taskRepository.findForUpdate(taskId, user.getId());
+        Task task;
+        if (hotTask.isPresent()) {
+            task = hotTask.get();
+            taskRepository.delete(task);
+        } else {
+            task = archivedTaskRepository.findByIdAndUser_Id(taskId, user.getId())
+                    .map(ArchivedTask::toTask)
+                    .orElseThrow(() -> new TaskNotFoundException(taskId));
+            archivedTaskRepository.deleteByIdAndUserId(taskId, user.getId());
+        }
+        analyticsRecorder.userActive(user.getId());
+        logger.atInfo().setMessage("Удалена задача")
+                .addKeyValue(USER_ID, user.getId())
+                .addKeyValue(TASK_ID, taskId)
+                .log();
         return task;
     }
 
@@ -112,18 +212,26 @@ public class TaskService {
      * @param taskId ID задачи
      * @param user пользователь
      * @return обновленная задача
-     * @throws IllegalArgumentException если задача не найдена
+     * @throws TaskNotFoundException если задача не найдена
      */
     public Task markTaskAsDone(Long taskId, User user) {
         Objects.requireNonNull(taskId, "taskId не должен быть null");
         Objects.requireNonNull(user, "user не должен быть null");
 
-        Task task = taskRepository.findByIdAndUser_Id(taskId, user.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Задача не найдена"));
+        Task task = findForUpdate(taskId, user);
+        boolean completing = !task.isDone();
         task.setDone(true);
+        if (completing) {
+            task.setCompletedAt(LocalDateTime.now());
+        }
         Task savedTask = taskRepository.save(task);
-        logger.info("Задача '{}' отмечена как выполненная для пользователя {}",
-                task.getDescription(), user.getUsername());
+        if (completing) {
+            analyticsRecorder.taskCompleted(user.getId(), task.getCreatedAt(), task.getCompletedAt());
+        }
+        logger.atInfo().setMessage("Задача отмечена как выполненная")
+                .addKeyValue(USER_ID, user.getId())
+                .addKeyValue(TASK_ID, taskId)
+                .log();
         return savedTask;
     }
 
@@ -133,18 +241,25 @@ public class TaskService {
      * @param taskId ID задачи
      * @param user пользователь
      * @return обновленная задача
-     * @throws IllegalArgumentException если задача не найдена
+     * @throws TaskNotFoundException если задача не найдена
      */
     public Task markTaskAsNotDone(Long taskId, User user) {
         Objects.requireNonNull(taskId, "taskId не должен быть null");
         Objects.requireNonNull(user, "user не должен быть null");
 
-        Task task = taskRepository.findByIdAndUser_Id(taskId, user.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Задача не найдена"));
+        Task task = findForUpdate(taskId, user);
+        boolean reopening = task.isDone();
+        LocalDateTime completedAt = task.getCompletedAt();
         task.setDone(false);
+        task.setCompletedAt(null);
         Task savedTask = taskRepository.save(task);
-        logger.info("Задача '{}' возвращена в активные для пользователя {}",
-                task.getDescription(), user.getUsername());
+        if (reopening) {
+            analyticsRecorder.taskReopened(user.getId(), task.getCreatedAt(), completedAt);
+        }
+        logger.atInfo().setMessage("Задача возвращена в активные")
+                .addKeyValue(USER_ID, user.getId())
+                .addKeyValue(TASK_ID, taskId)
+                .log();
         return savedTask;
     }
 
@@ -154,14 +269,16 @@ public class TaskService {
      * @param taskId ID задачи
      * @param user пользователь
      * @return найденная задача
-     * @throws IllegalArgumentException если задача не найдена
+     * @throws TaskNotFoundException если задача не найдена
      */
+    @Transactional(readOnly = true)
     public Task findTaskByIdAndUser(Long taskId, User user) {
         Objects.requireNonNull(taskId, "taskId не должен быть null");
         Objects.requireNonNull(user, "user не должен быть null");
 
         return taskRepository.findByIdAndUser_Id(taskId, user.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Задача не найдена"));
+                .or(() -> archivedTaskRepository.findByIdAndUser_Id(taskId, user.getId()).map(ArchivedTask::toTask))
+                .orElseThrow(() -> new TaskNotFoundException(taskId));
     }
 
     /**
@@ -171,32 +288,73 @@ public class TaskService {
      * @param newDescription новое описание
      * @param user пользователь
      * @return обновленная задача
-     * @throws IllegalArgumentException если задача не найдена
+     * @throws TaskNotFoundException если задача не найдена
+     * @throws InvalidTaskException если описание пустое
+     * @throws DuplicateTaskException если задача с таким описанием уже существует
      */
     public Task updateTaskDescription(Long taskId, String newDescription, User user) {
         Objects.requireNonNull(taskId, "taskId не должен быть null");
         Objects.requireNonNull(newDescription, "newDescription не должен быть null");
         Objects.requireNonNull(user, "user не должен быть null");
         if (newDescription.trim().isEmpty()) {
-            logger.warn("Попытка обновить задачу с пустым описанием для пользователя {}", user.getUsername());
-            throw new IllegalArgumentException("Описание задачи не может быть пустым");
+            logger.atWarn().addMarker(LogMarkers.REPETITIVE)
+                    .setMessage("Попытка обновить задачу с пустым описанием")
+                    .addKeyValue(USER_ID, user.getId())
+                    .addKeyValue(TASK_ID, taskId)
+                    .log();
+            throw new InvalidTaskException("Описание задачи не может быть пустым");
         }
 
-        Task task = taskRepository.findByIdAndUser_Id(taskId, user.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Задача не найдена"));
+        Task task = findForUpdate(taskId, user);
 
         if (!newDescription.equals(task.getDescription()) &&
-                taskRepository.existsByUser_IdAndDescription(user.getId(), newDescription)) {
-            logger.warn("Попытка обновить задачу с дублирующимся описанием '{}' для пользователя {}",
-                    newDescription, user.getUsername());
-            throw new IllegalArgumentException("Задача с описанием '" + newDescription + "' уже существует");
+                descriptionExists(user, newDescription)) {
+            logger.atWarn().addMarker(LogMarkers.REPETITIVE)
+                    .setMessage("Попытка обновить задачу с дублирующимся описанием")
+                    .addKeyValue(USER_ID, user.getId())
+                    .addKeyValue(TASK_ID, taskId)
+                    .log();
+            throw new DuplicateTaskException(newDescription);
         }
 
-        String oldDescription = task.getDescription();
         task.setDescription(newDescription);
         Task savedTask = taskRepository.save(task);
-        logger.info("Обновлено описание задачи '{}' на '{}' для пользователя {}",
-                oldDescription, newDescription, user.getUsername());
+        analyticsRecorder.userActive(user.getId());
+        logger.atInfo().setMessage("Обновлено описание задачи")
+                .addKeyValue(USER_ID, user.getId())
+                .addKeyValue(TASK_ID, taskId)
+                .log();
         return savedTask;
     }
+
+    /**
+     * Проверяет, есть ли у пользователя задача с таким описанием, включая архивные.
+     */
+    private boolean descriptionExists(User user, String description) {
+        return taskRepository.existsByUser_IdAndDescription(user.getId(), description)
+                || archivedTaskRepository.existsByUser_IdAndDescription(user.getId(), description);
+    }
+
+    /**
+     * Находит и блокирует задачу для изменения; архивная задача сначала возвращается в {@code tasks}
+     * под тем же ID. Блокировка не дает переносу в архив забрать задачу до конца транзакции, а задача,
+     * которую перенос уже забрал, находится после его завершения в архиве.
+     */
+    private Task findForUpdate(Long taskId, User user) {
+        return taskRepository.findForUpdate(taskId, user.getId())
+                .or(() -> restoreArchived(taskId, user))
+                .orElseThrow(() -> new TaskNotFoundException(taskId));
+    }
+
+    private Optional<Task> restoreArchived(Long taskId, User user) {
+        if (archivedTaskRepository.copyToTasks(taskId, user.getId()) == 0) {
+            return Optional.empty();
+        }
+        archivedTaskRepository.deleteByIdAndUserId(taskId, user.getId());
+        logger.atInfo().setMessage("Задача возвращена из архива")
+                .addKeyValue(USER_ID, user.getId())
+                .addKeyValue(TASK_ID, taskId)
+                .log();
+        return taskRepository.findByIdAndUser_Id(taskId, user.getId());
+    }
 }
@@ -0,0 +1,235 @@
+package ru.naujava.taskmanager.service;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.repository.ApiKeyRepository;
+import ru.naujava.taskmanager.repository.ArchivedTaskRepository;
+import ru.naujava.taskmanager.repository.RefreshTokenRepository;
+import ru.naujava.taskmanager.repository.TaskRepository;
+import ru.naujava.taskmanager.repository.UserRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Управление пользователями администратором: список с поиском, блокировка и удаление.
+ * <p>
+ * Блокировка запрещает вход и отзывает все токены пользователя; его API-ключи перестают действовать.
+ * Удаление не загружает {@link User#getTasks()}: пользователь сначала блокируется, затем его задачи
+ * удаляются запросами {@code DELETE} частями по {@code taskmanager.admin.user-delete.chunk-size} строк,
+ * каждая в своей транзакции, затем так же удаляются его архивные задачи, и последней транзакцией
+ * удаляются остаток задач, ключи, refresh-токены и сам пользователь.
+ */
+@Service
+public class UserAdminService {
+    private static final Logger log = LoggerFactory.getLogger(UserAdminService.class);
+
+    static final int MAX_PAGE_SIZE = 200;
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ApiKeyRepository apiKeyRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserService userService;
+    private final ApiKeyService apiKeyService;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache entityCache;
+    private final int deleteChunkSize;
+
+    /**
+     * Пользователь в списке администратора.
+     */
+    public record UserSummary(Long id, String username, Role role, boolean locked, long taskCount) {
+    }
+
+    /**
+     * Страница списка пользователей.
+     *
+     * @param next значение {@code after} для следующей страницы или {@code null}, если это последняя
+     */
+    public record UserDirectoryPage(List<UserSummary> users, String next) {
+    }
+
+    /**
+     * Поиск по имени пользователя без учета регистра.
+     */
+    public enum SearchMode {
+        /**
+         * Имя начинается с запроса (индекс {@code lower(username) text_pattern_ops} в PostgreSQL).
+         */
+        PREFIX,
+        /**
+         * Имя содержит запрос (индекс pg_trgm в PostgreSQL, если расширение доступно).
+         */
+        CONTAINS;
+
+        /**
+         * Шаблон LIKE для {@code lower(username)}; символы {@code %}, {@code _} и {@code \} экранируются.
+         */
+        String pattern(String query) {
+            String escaped = query.toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_");
+            return this == PREFIX ? escaped + "%" : "%" + escaped + "%";
+        }
+    }
+
+    public UserAdminService(UserRepository userRepository, TaskRepository taskRepository,
+                            ArchivedTaskRepository archivedTaskRepository, ApiKeyRepository apiKeyRepository,
+                            RefreshTokenRepository refreshTokenRepository,
+                            UserService userService, ApiKeyService apiKeyService,
+                            PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                            @Value("${taskmanager.admin.user-delete.chunk-size:10000}") int deleteChunkSize) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.apiKeyRepository = apiKeyRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userService = userService;
+        this.apiKeyService = apiKeyService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityCache = entityManagerFactory.getCache();
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    /**
+     * Страница пользователей по возрастанию имени, начиная после {@code after} (keyset-пагинация:
+     * стоимость не зависит от номера страницы). Число задач считается одним запросом на страницу.
+     *
+     * @param query  начало или часть имени без учета регистра; {@code null} или пустая строка — все пользователи
+     * @param after  имя последнего пользователя предыдущей страницы или {@code null} для первой страницы
+     * @param size   число пользователей на странице, не больше {@value #MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public UserDirectoryPage findUsers(String query, SearchMode mode, String after, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        String cursor = after == null ? "" : after;
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<User> users = query == null || query.isBlank()
+                ? userRepository.findByUsernameGreaterThanOrderByUsername(cursor, pageRequest)
+                : userRepository.findPageByUsernamePattern(mode.pattern(query.trim()), cursor, pageRequest);
+        boolean hasMore = users.size() > limit;
+        if (hasMore) {
+            users = users.subList(0, limit);
+        }
+
+        Map<Long, Long> taskCounts = new HashMap<>();
+        if (!users.isEmpty()) {
+            List<Long> userIds = users.stream().map(User::getId).toList();
+            for (Object[] row : taskRepository.countByUserIds(userIds)) {
+                taskCounts.merge((Long) row[0], (Long) row[1], Long::sum);
+            }
+            for (Object[] row : archivedTaskRepository.countByUserIds(userIds)) {
+                taskCounts.merge((Long) row[0], (Long) row[1], Long::sum);
+            }
+        }
+        List<UserSummary> summaries = users.stream()
+                .map(user -> new UserSummary(user.getId(), user.getUsername(), user.getRole(), user.isLocked(),
+                        taskCounts.getOrDefault(user.getId(), 0L)))
+                .toList();
+        return new UserDirectoryPage(summaries, hasMore ? summaries.get(limit - 1).username() : null);
+    }
+
+    /**
+     * Блокирует или разблокирует пользователя. Блокировка отзывает все его токены.
+     *
+     * @param actingUsername администратор, выполняющий действие
+     * @throws IllegalArgumentException если пользователь не найден или это сам администратор
+     */
+    @Transactional
+    public void setLocked(Long id, boolean locked, String actingUsername) {
+        User user = findTarget(id, actingUsername);
+        user.setLocked(locked);
+        userService.save(user);
+        if (locked) {
+            userService.revokeTokens(user.getUsername());
+            apiKeyService.evictUser(user.getUsername());
+        }
+    }
+
+    /**
+     * Удаляет пользователя вместе с задачами, API-ключами и refresh-токенами.
+     *
+     * @param actingUsername администратор, выполняющий действие
+     * @return число удаленных задач
+     * @throws IllegalArgumentException если пользователь не найден или это сам администратор
+     */
+    public long delete(Long id, String actingUsername) {
+        // Блокировка до удаления задач: новые токены и ключи пользователя не принимаются
+        String username = transactionTemplate.execute(status -> {
+            User user = findTarget(id, actingUsername);
+            user.setLocked(true);
+            userService.save(user);
+            userService.revokeTokens(user.getUsername());
+            return user.getUsername();
+        });
+        apiKeyService.evictUser(username);
+
+        long deletedTasks = deleteInChunks(id, taskRepository::findIdsByUserId, taskRepository::deleteByUserIdUpTo);
+        deletedTasks += deleteInChunks(id, archivedTaskRepository::findIdsByUserId,
+                archivedTaskRepository::deleteByUserIdUpTo);
+        deletedTasks += transactionTemplate.execute(status -> {
+            // Задачи, созданные в открытой до блокировки сессии или перенесенные в архив во время удаления,
+            // удаляются вместе с пользователем
+            int remaining = taskRepository.deleteByUserId(id) + archivedTaskRepository.deleteByUserId(id);
+            apiKeyRepository.deleteByUserId(id);
+            refreshTokenRepository.deleteByUserId(id);
+            userRepository.deleteRowById(id);
+            return remaining;
+        });
+        entityCache.evict(User.class, id);
+        log.atInfo()
+                .setMessage("User deleted")
+                .addKeyValue("user", username)
+                .addKeyValue("tasks", deletedTasks)
+                .log();
+        return deletedTasks;
+    }
+
+    /**
+     * Удаляет строки пользователя частями по {@code deleteChunkSize}, каждую в своей транзакции.
+     *
+     * @param findIds     идентификаторы строк пользователя по возрастанию
+     * @param deleteUpTo  удаление строк пользователя с идентификатором не больше заданного
+     * @return число удаленных строк
+     */
+    private long deleteInChunks(Long userId, BiFunction<Long, Pageable, List<Long>> findIds,
+                                BiFunction<Long, Long, Integer> deleteUpTo) {
+        long deletedRows = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> boundary = findIds.apply(userId, PageRequest.of(deleteChunkSize - 1, 1));
+                return boundary.isEmpty() ? null : deleteUpTo.apply(userId, boundary.get(0));
+            });
+            if (deleted == null) {
+                return deletedRows;
+            }
+            deletedRows += deleted;
+        }
+    }
+
+    private User findTarget(Long id, String actingUsername) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден"));
+        if (user.getUsername().equals(actingUsername)) {
+            throw new IllegalArgumentException("Нельзя заблокировать или удалить свою учетную запись");
+        }
+        return user;
+    }
+}
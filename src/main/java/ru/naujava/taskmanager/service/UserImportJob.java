@@ -0,0 +1,141 @@
+package ru.naujava.taskmanager.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновый импорт пользователей и его ход. Строки, не попавшие в {@link #getErrors()}, созданы;
+ * подробно сохраняются первые {@value #MAX_REPORTED_ERRORS} отклоненных строк, счетчики учитывают все.
+ * Наружу отдается согласованный {@link #snapshot()}, а не сам изменяющийся объект.
+ */
+public class UserImportJob {
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * Состояние импорта.
+     */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * Отклоненная строка файла.
+     *
+     * @param line номер строки, начиная с 1
+     */
+    public record RowError(long line, String username, String reason) {
+    }
+
+    /**
+     * Неизменяемое состояние импорта на момент вызова {@link #snapshot()}.
+     */
+    public record Snapshot(String id, Status status, LocalDateTime createdAt, LocalDateTime finishedAt,
+                           long processed, long created, long failed, String failure, List<RowError> errors) {
+    }
+
+    private final String id;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failure;
+
+    UserImportJob(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Число обработанных строк.
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Причина, по которой импорт прерван, или {@code null}.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Отклоненные строки по порядку в файле.
+     */
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return errors.stream().sorted(Comparator.comparingLong(RowError::line)).toList();
+        }
+    }
+
+    /**
+     * Снимок состояния. Состояние читается раньше счетчиков: завершение записывается после
+     * последнего изменения счетчиков, поэтому у снимка в состоянии COMPLETED или FAILED счетчики окончательные.
+     */
+    public Snapshot snapshot() {
+        Status currentStatus = status;
+        LocalDateTime currentFinishedAt = finishedAt;
+        String currentFailure = failure;
+        return new Snapshot(id, currentStatus, createdAt, currentFinishedAt, processed.get(), created.get(),
+                failed.get(), currentFailure, getErrors());
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void rowsCreated(int count) {
+        created.addAndGet(count);
+        processed.addAndGet(count);
+    }
+
+    void rowFailed(long line, String username, String reason) {
+        failed.incrementAndGet();
+        processed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, username, reason));
+            }
+        }
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String reason) {
+        failure = reason;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,375 @@
+package ru.naujava.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.repository.UserRepository;
+import ru.naujava.taskmanager.security.LoginAttemptTracker;
+import ru.naujava.taskmanager.security.OffloadingPasswordEncoder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовый импорт пользователей из CSV ({@code username,password[,role]}) или NDJSON
+ * ({@code {"username": ..., "password": ..., "role": ...}}).
+ * <p>
+ * Тело запроса сохраняется во временный файл, и импорт идет в фоне по одному за раз: файл читается
+ * пачками по {@code taskmanager.user-import.batch-size} строк, занятые имена пачки проверяются одним
+ * запросом, пароли хешируются параллельно в отдельном {@link ForkJoinPool}
+ * ({@code taskmanager.user-import.hashing-parallelism} потоков, мимо очереди, которую ждут вход и регистрация),
+ * а пользователи вставляются пакетом JDBC. Соединение с базой на время хеширования не удерживается.
+ * В памяти хранятся последние {@value #RETAINED_JOBS} импортов.
+ */
+@Service
+public class UserImportService implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    static final int RETAINED_JOBS = 20;
+
+    private static final String INSERT_SQL = "insert into users (username, password, role) values (?, ?, ?)";
+
+    /**
+     * Формат файла импорта.
+     */
+    public enum Format {
+        CSV(new MediaType("text", "csv")),
+        NDJSON(MediaType.APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Формат по типу содержимого запроса.
+         */
+        public static Optional<Format> of(MediaType contentType) {
+            for (Format format : values()) {
+                if (format.mediaType.isCompatibleWith(contentType)) {
+                    return Optional.of(format);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private record Row(long line, String username, String password, Role role) {
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+    private final ForkJoinPool hashingPool;
+    private final Map<String, UserImportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserImportJob> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    };
+
+    /**
+     * @param hashingParallelism число потоков хеширования; 0 — половина процессоров
+     * @param maxQueuedJobs      число импортов, ожидающих завершения текущего
+     */
+    public UserImportService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                             LoginAttemptTracker loginAttemptTracker, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             @Value("${taskmanager.user-import.batch-size:500}") int batchSize,
+                             @Value("${taskmanager.user-import.hashing-parallelism:0}") int hashingParallelism,
+                             @Value("${taskmanager.user-import.max-queued-jobs:4}") int maxQueuedJobs) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder instanceof OffloadingPasswordEncoder offloading
+                ? offloading.getDelegate() : passwordEncoder;
+        this.loginAttemptTracker = loginAttemptTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs), runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        int parallelism = hashingParallelism > 0 ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashingPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("user-import-hashing-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Сохраняет файл импорта и ставит импорт в очередь.
+     *
+     * @return снимок состояния поставленного в очередь импорта
+     * @throws RejectedExecutionException если очередь импортов заполнена
+     */
+    public UserImportJob.Snapshot start(InputStream content, Format format) throws IOException {
+        Path file = Files.createTempFile("user-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+            UserImportJob job = new UserImportJob(UUID.randomUUID().toString());
+            executor.execute(() -> run(job, file, format));
+            synchronized (jobs) {
+                jobs.put(job.getId(), job);
+            }
+            return job.snapshot();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Снимок состояния импорта среди последних.
+     */
+    public Optional<UserImportJob.Snapshot> findJob(String id) {
+        UserImportJob job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        return Optional.ofNullable(job).map(UserImportJob::snapshot);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    private void run(UserImportJob job, Path file, Format format) {
+        job.start();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Set<String> seen = new HashSet<>();
+            List<Row> batch = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isCsvHeader(line))) {
+                    continue;
+                }
+                Row row = parse(job, lineNumber, line, format);
+                if (row == null) {
+                    continue;
+                }
+                if (!seen.add(row.username())) {
+                    job.rowFailed(row.line(), row.username(), "Имя пользователя повторяется в файле");
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    importBatch(job, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(job, batch);
+            }
+            job.complete();
+            log.atInfo()
+                    .setMessage("User import completed")
+                    .addKeyValue("job", job.getId())
+                    .addKeyValue("created", job.getCreated())
+                    .addKeyValue("failed", job.getFailed())
+                    .log();
+        } catch (IOException | RuntimeException e) {
+            job.fail(e.getMessage());
+            log.error("User import {} failed", job.getId(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Unable to delete user import file {}", file, e);
+            }
+        }
+    }
+
+    private void importBatch(UserImportJob job, List<Row> batch) {
+        Set<String> existing = transactionTemplate.execute(status ->
+                userRepository.findExistingUsernames(batch.stream().map(Row::username).toList()));
+        List<Row> fresh = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (existing.contains(row.username())) {
+                job.rowFailed(row.line(), row.username(), "Пользователь с таким именем уже существует");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        List<Object[]> values = hashingPool.submit(() -> fresh.parallelStream()
+                .map(row -> new Object[]{row.username(), passwordEncoder.encode(row.password()), row.role().name()})
+                .toList()).join();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, values));
+            fresh.forEach(row -> loginAttemptTracker.forgetUnknownUser(row.username()));
+            job.rowsCreated(fresh.size());
+        } catch (DataIntegrityViolationException e) {
+            // Кто-то зарегистрировал одно из имен после проверки: вставляем по одному, чтобы найти его
+            for (int i = 0; i < fresh.size(); i++) {
+                Row row = fresh.get(i);
+                Object[] rowValues = values.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, rowValues));
+                    loginAttemptTracker.forgetUnknownUser(row.username());
+                    job.rowsCreated(1);
+                } catch (DataIntegrityViolationException duplicate) {
+                    job.rowFailed(row.line(), row.username(), "Пользователь с таким именем уже существует");
+                }
+            }
+        }
+    }
+
+    private Row parse(UserImportJob job, long lineNumber, String line, Format format) {
+        String username;
+        String password;
+        String role;
+        if (format == Format.CSV) {
+            List<String> fields = parseCsvLine(line);
+            if (fields == null || fields.size() < 2 || fields.size() > 3) {
+                job.rowFailed(lineNumber, null, "Ожидается username,password[,role]");
+                return null;
+            }
+            username = fields.get(0);
+            password = fields.get(1);
+            role = fields.size() > 2 ? fields.get(2) : null;
+        } else {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                job.rowFailed(lineNumber, null, "Неверный JSON");
+                return null;
+            }
+            username = node.path("username").textValue();
+            password = node.path("password").textValue();
+            role = node.path("role").textValue();
+        }
+
+        String error = validate(username, password);
+        if (error == null && role != null && !role.isBlank() && !isRole(role.trim())) {
+            error = "Неизвестная роль";
+        }
+        if (error != null) {
+            job.rowFailed(lineNumber, username, error);
+            return null;
+        }
+        Role parsedRole = role == null || role.isBlank() ? Role.USER : Role.valueOf(role.trim());
+        return new Row(lineNumber, username, password, parsedRole);
+    }
+
+    /**
+     * Те же ограничения, что у {@link UserService#register} и сущности пользователя.
+     */
+    private static String validate(String username, String password) {
+        if (username == null || username.trim().isEmpty()) {
+            return "Имя пользователя не может быть пустым";
+        }
+        if (username.length() < 3 || username.length() > 50) {
+            return "Имя пользователя должно быть от 3 до 50 символов";
+        }
+        if (password == null || password.length() < 8) {
+            return "Пароль должен содержать не менее 8 символов";
+        }
+        return null;
+    }
+
+    private static boolean isRole(String role) {
+        for (Role value : Role.values()) {
+            if (value.name().equals(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCsvHeader(String line) {
+        List<String> fields = parseCsvLine(line);
+        return fields != null && !fields.isEmpty() && "username".equalsIgnoreCase(fields.get(0).trim());
+    }
+
+    /**
+     * Разбирает строку CSV: поля в кавычках могут содержать запятые, кавычка внутри них удваивается.
+     *
+     * @return поля строки или {@code null}, если кавычки не закрыты
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -1,27 +1,54 @@
 package ru.naujava.taskmanager.service;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.naujava.taskmanager.entity.Role;
 import ru.naujava.taskmanager.entity.User;
 import ru.naujava.taskmanager.repository.UserRepository;
+import ru.naujava.taskmanager.security.LoginAttemptTracker;
+import ru.naujava.taskmanager.security.TokenRevocationStore;
 
 import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Сервис для управления пользователями.
+ * Пользователи кэшируются во втором уровне Hibernate; при сохранении запись пользователя
+ * вытесняется из кэша после фиксации транзакции. Зарегистрированное имя убирается из отрицательного
+ * кэша {@link LoginAttemptTracker}. Смена пароля отзывает все ранее выданные JWT и refresh-токены пользователя.
+ * Регистрация и смена пароля вычисляют хеш до начала транзакции и записывают его короткой транзакцией,
+ * чтобы соединение с базой не удерживалось на время хеширования.
  */
 @Service
 @Transactional
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Cache entityCache;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       EntityManagerFactory entityManagerFactory, LoginAttemptTracker loginAttemptTracker,
+                       TokenRevocationStore tokenRevocationStore, RefreshTokenService refreshTokenService,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.entityCache = entityManagerFactory.getCache();
+        this.loginAttemptTracker = loginAttemptTracker;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -33,6 +60,7 @@ public class UserService {
      * @return зарегистрированный пользователь
      * @throws IllegalArgumentException если пользователь с таким именем уже существует или пароль слишком короткий
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User register(String username, String password, Role role) {
         Objects.requireNonNull(username, "username не должен быть null");
         Objects.requireNonNull(password, "password не должен быть null");
@@ -50,8 +78,10 @@ public class UserService {
         }
 
         String encodedPassword = passwordEncoder.encode(password);
-        User user = new User(username, encodedPassword, role);
-        return userRepository.save(user);
+        User saved = transactionTemplate.execute(status ->
+                userRepository.save(new User(username, encodedPassword, role)));
+        loginAttemptTracker.forgetUnknownUser(username);
+        return saved;
     }
 
     /**
@@ -60,16 +90,76 @@ public class UserService {
      * @param username имя пользователя
      * @return Optional с пользователем или пустой Optional
      */
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * Находит пользователя по имени для проверки пароля: пароль и признак блокировки читаются из базы,
+     * а не из кэша второго уровня, который на других узлах может быть устаревшим.
+     *
+     * @param username имя пользователя
+     * @return Optional с пользователем или пустой Optional
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findForAuthentication(String username) {
+        return userRepository.findByUsernameBypassingCache(username);
+    }
+
+    /**
+     * Проверяет пароль пользователя. Хеш, созданный с устаревшими параметрами (без префикса алгоритма
+     * или с меньшей стоимостью BCrypt), после успешной проверки заменяется новым.
+     * <p>
+     * Собственную транзакцию не открывает, чтобы соединение с базой не удерживалось на время хеширования.
+     *
+     * @param username имя пользователя
+     * @param password пароль
+     * @return пользователь или пустой Optional, если пользователь не найден, заблокирован или пароль неверный
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> authenticate(String username, String password) {
+        return findForAuthentication(username).filter(user -> verifyPassword(user, password) && !user.isLocked());
+    }
+
+    /**
+     * Проверяет пароль найденного пользователя и при необходимости заменяет устаревший хеш,
+     * как {@link #authenticate(String, String)}.
+     *
+     * @return true, если пароль верный
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean verifyPassword(User user, String password) {
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            return false;
+        }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(password));
+            save(user);
+        }
+        return true;
+    }
+
+    /**
+     * Заменяет хеш пароля пользователя уже вычисленным.
+     *
+     * @throws IllegalArgumentException если пользователь не найден
+     */
+    public void updateEncodedPassword(String username, String encodedPassword) {
+        User user = findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден"));
+        user.setPassword(encodedPassword);
+        save(user);
+    }
+
     /**
      * Сохраняет или обновляет пользователя.
      */
     public User save(User user) {
         Objects.requireNonNull(user, "Пользователь не может быть null");
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        evictAfterCommit(savedUser.getId());
+        return savedUser;
     }
 
     /**
@@ -80,6 +170,7 @@ public class UserService {
      * @param newPassword новый пароль
      * @throws IllegalArgumentException если старый пароль неверный
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void changePassword(String username, String oldPassword, String newPassword) {
         User user = findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден"));
@@ -89,7 +180,43 @@ public class UserService {
         if (newPassword.length() < 8) {
             throw new IllegalArgumentException("Пароль должен содержать не менее 8 символов");
         }
-        user.setPassword(passwordEncoder.encode(newPassword));
-        save(user);
+        String encodedPassword = passwordEncoder.encode(newPassword);
+        transactionTemplate.executeWithoutResult(status -> {
+            updateEncodedPassword(username, encodedPassword);
+            tokenRevocationStore.revokeAll(username);
+            refreshTokenService.revokeAll(user);
+        });
+    }
+
+    /**
+     * Отзывает все JWT токены пользователя, выданные до текущего момента, и все его refresh-токены
+     * (например, при блокировке пользователя администратором).
+     *
+     * @param username имя пользователя
+     */
+    public void revokeTokens(String username) {
+        tokenRevocationStore.revokeAll(username);
+        findByUsername(username).ifPresent(refreshTokenService::revokeAll);
+    }
+
+    /**
+     * Вытесняет пользователя из кэша второго уровня после фиксации транзакции,
+     * чтобы следующее чтение взяло запись из базы. Имя пользователя неизменно,
+     * поэтому кэш естественного идентификатора не сбрасывается.
+     */
+    private void evictAfterCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entityCache.evict(User.class, userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityCache.evict(User.class, userId);
+            }
+        });
     }
 }
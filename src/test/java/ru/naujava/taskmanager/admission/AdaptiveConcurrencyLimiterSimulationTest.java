@@ -0,0 +1,97 @@
+package ru.naujava.taskmanager.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Моделирование перегрузки в виртуальном времени.
+ * <p>
+ * Сервер обрабатывает {@value #WORKERS} запроса одновременно без потерь скорости, при большем числе
+ * время делится поровну между всеми запросами. Каждый запрос требует {@value #WORK_MS} мс работы,
+ * клиенты присылают {@value #ARRIVALS_PER_MS} запроса в миллисекунду (вдвое больше пропускной способности)
+ * и ждут ответ не дольше {@value #CLIENT_TIMEOUT_MS} мс. Полезная пропускная способность — доля
+ * ответов, полученных клиентами вовремя, относительно возможностей сервера.
+ */
+public class AdaptiveConcurrencyLimiterSimulationTest {
+    private static final int WORKERS = 10;
+    private static final double WORK_MS = 10;
+    private static final int ARRIVALS_PER_MS = 2;
+    private static final long CLIENT_TIMEOUT_MS = 200;
+    private static final int DURATION_MS = 10_000;
+    private static final int WARMUP_MS = 2_000;
+
+    /**
+     * Без ограничения очередь растет, и почти все ответы приходят после таймаута клиента.
+     */
+    @Test
+    public void withoutLimitGoodputCollapses() {
+        Assertions.assertTrue(simulate(null) < 0.2);
+    }
+
+    @Test
+    public void gradientLimitKeepsGoodput() {
+        assertGoodputHolds(new GradientLimit(20, 1, 1000, 1000));
+    }
+
+    @Test
+    public void vegasLimitKeepsGoodput() {
+        assertGoodputHolds(new VegasLimit(20, 1, 1000, 1000));
+    }
+
+    @Test
+    public void aimdLimitKeepsGoodput() {
+        assertGoodputHolds(new AimdLimit(20, 1, 1000, 0.9, Duration.ofMillis(100)));
+    }
+
+    private static void assertGoodputHolds(LimitAlgorithm algorithm) {
+        double goodput = simulate(algorithm);
+        Assertions.assertTrue(goodput > 0.8, () -> algorithm.getClass().getSimpleName()
+                + ": полезная пропускная способность " + goodput + ", лимит " + algorithm.getLimit());
+    }
+
+    /**
+     * @return доля вовремя обслуженных запросов после разогрева относительно пропускной способности сервера
+     */
+    private static double simulate(LimitAlgorithm algorithm) {
+        long[] now = {0};
+        AdaptiveConcurrencyLimiter limiter = algorithm == null ? null
+                : new AdaptiveConcurrencyLimiter(algorithm, 0, () -> now[0]);
+        Deque<Request> inFlight = new ArrayDeque<>();
+        double attainedService = 0;
+        long goodResponses = 0;
+
+        for (int ms = 0; ms < DURATION_MS; ms++) {
+            now[0] = TimeUnit.MILLISECONDS.toNanos(ms);
+            for (int i = 0; i < ARRIVALS_PER_MS; i++) {
+                AdaptiveConcurrencyLimiter.Permit permit = limiter == null ? null : limiter.tryAcquire();
+                if (limiter == null || permit != null) {
+                    inFlight.addLast(new Request(ms, attainedService, permit));
+                }
+            }
+            if (!inFlight.isEmpty()) {
+                attainedService += Math.min(1.0, (double) WORKERS / inFlight.size());
+            }
+            now[0] = TimeUnit.MILLISECONDS.toNanos(ms + 1);
+            // Объем работы одинаков, поэтому при разделении времени запросы завершаются в порядке поступления
+            while (!inFlight.isEmpty() && attainedService - inFlight.peekFirst().startService() >= WORK_MS) {
+                Request request = inFlight.removeFirst();
+                if (request.permit() != null) {
+                    request.permit().onSuccess();
+                }
+                if (ms >= WARMUP_MS && ms + 1 - request.arrivedMs() <= CLIENT_TIMEOUT_MS) {
+                    goodResponses++;
+                }
+            }
+        }
+        double capacity = (DURATION_MS - WARMUP_MS) * WORKERS / WORK_MS;
+        return goodResponses / capacity;
+    }
+
+    private record Request(long arrivedMs, double startService, AdaptiveConcurrencyLimiter.Permit permit) {
+    }
+}
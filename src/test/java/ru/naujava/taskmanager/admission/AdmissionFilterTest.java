@@ -0,0 +1,121 @@
+package ru.naujava.taskmanager.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Тесты для {@link AdmissionFilter} на метриках пула, заданных вручную.
+ */
+public class AdmissionFilterTest {
+    private MeterRegistry meterRegistry;
+    private AtomicInteger pending;
+    private Timer acquire;
+    private AdmissionFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pending = new AtomicInteger();
+        Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get)
+                .tag("pool", "test").register(meterRegistry);
+        acquire = Timer.builder("hikaricp.connections.acquire").tag("pool", "test").register(meterRegistry);
+        filter = new AdmissionFilter(Map.of(
+                RequestClass.READ, new AdmissionBudget(1, Duration.ofMillis(100)),
+                RequestClass.WRITE, new AdmissionBudget(1, Duration.ofMillis(500)),
+                RequestClass.LOGIN, new AdmissionBudget(1, Duration.ofMillis(100))),
+                new ConnectionPoolMonitor(meterRegistry, Duration.ZERO), 5, Duration.ofSeconds(2), meterRegistry);
+    }
+
+    /**
+     * Запрос сверх лимита одновременных запросов класса.
+     * <br>
+     * Ожидаемое поведение: 503 с Retry-After, запросы другого класса проходят.
+     */
+    @Test
+    public void shedsRequestsOverConcurrencyLimit() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        MockHttpServletResponse otherClass = new MockHttpServletResponse();
+        MockHttpServletResponse outer = perform("GET", "/api/tasks", (request, response) -> {
+            filter.doFilter(request("GET", "/tasks"), nested, new MockFilterChain());
+            filter.doFilter(request("PUT", "/api/tasks/1"), otherClass, new MockFilterChain());
+        });
+
+        Assertions.assertEquals(200, outer.getStatus());
+        Assertions.assertEquals(503, nested.getStatus());
+        Assertions.assertEquals("2", nested.getHeader("Retry-After"));
+        Assertions.assertEquals("application/problem+json", nested.getContentType());
+        Assertions.assertEquals(200, otherClass.getStatus());
+        Assertions.assertEquals(1.0, shed("read", AdmissionFilter.REASON_CONCURRENCY));
+
+        Assertions.assertEquals(200, perform("GET", "/tasks", null).getStatus(), "место освобождается");
+    }
+
+    /**
+     * Запросы при долгом ожидании соединения в пуле.
+     * <br>
+     * Ожидаемое поведение: отклоняются классы с меньшим допустимым ожиданием, после разгрузки пула
+     * запросы снова принимаются.
+     */
+    @Test
+    public void shedsByPoolWaitAndRecovers() throws Exception {
+        acquire.record(300, TimeUnit.MILLISECONDS);
+
+        Assertions.assertEquals(503, perform("GET", "/api/tasks", null).getStatus());
+        acquire.record(300, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(200, perform("POST", "/api/tasks", null).getStatus());
+        acquire.record(300, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(503, perform("POST", "/api/auth/login", null).getStatus());
+        Assertions.assertEquals(1.0, shed("read", AdmissionFilter.REASON_POOL_WAIT));
+        Assertions.assertEquals(1.0, shed("login", AdmissionFilter.REASON_POOL_WAIT));
+
+        acquire.record(1, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(200, perform("GET", "/api/tasks", null).getStatus());
+    }
+
+    /**
+     * Запросы при большой очереди за соединениями.
+     * <br>
+     * Ожидаемое поведение: отклоняются все контролируемые классы, остальные пути не ограничиваются.
+     */
+    @Test
+    public void shedsWhenTooManyThreadsWaitForConnection() throws Exception {
+        pending.set(10);
+
+        Assertions.assertEquals(503, perform("POST", "/tasks", null).getStatus());
+        Assertions.assertEquals(200, perform("GET", "/profile", null).getStatus());
+        Assertions.assertEquals(1.0, shed("write", AdmissionFilter.REASON_POOL_PENDING));
+
+        pending.set(0);
+        Assertions.assertEquals(200, perform("POST", "/tasks", null).getStatus());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri), response, chain != null ? chain : new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private double shed(String requestClass, String reason) {
+        return meterRegistry.get("taskmanager.admission.shed")
+                .tags("class", requestClass, "reason", reason)
+                .counter().count();
+    }
+}
@@ -0,0 +1,116 @@
+package ru.naujava.taskmanager.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+/**
+ * Тесты для {@link ConcurrencyLimitFilter} с неизменным лимитом в один запрос.
+ */
+public class ConcurrencyLimitFilterTest {
+    private MeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(new AimdLimit(1, 1, 1, 0.5, Duration.ofSeconds(1)), 1);
+        filter = new ConcurrencyLimitFilter(limiter, Duration.ofMillis(10), Duration.ofSeconds(2), meterRegistry);
+    }
+
+    /**
+     * Запрос к API сверх лимита.
+     * <br>
+     * Ожидаемое поведение: после ожидания в очереди 503 с Retry-After, запросы вне {@code /api/**}
+     * не ограничиваются, после завершения запроса место освобождается.
+     */
+    @Test
+    public void rejectsRequestsOverLimit() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        MockHttpServletResponse page = new MockHttpServletResponse();
+        MockHttpServletResponse outer = perform("/api/tasks", (request, response) -> {
+            Assertions.assertEquals(1, limiter.getInFlight());
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/1"), nested, new MockFilterChain());
+            filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), page, new MockFilterChain());
+        });
+
+        Assertions.assertEquals(200, outer.getStatus());
+        Assertions.assertEquals(503, nested.getStatus());
+        Assertions.assertEquals("2", nested.getHeader("Retry-After"));
+        Assertions.assertEquals("application/problem+json", nested.getContentType());
+        Assertions.assertEquals(200, page.getStatus());
+        Assertions.assertEquals(1.0, meterRegistry.get("taskmanager.concurrency.rejected").counter().count());
+
+        Assertions.assertEquals(0, limiter.getInFlight());
+        Assertions.assertEquals(200, perform("/api/tasks", null).getStatus(), "место освобождается");
+    }
+
+    /**
+     * Запрос, ожидающий в очереди, пока другой поток не завершит свой запрос.
+     * <br>
+     * Ожидаемое поведение: запрос из очереди получает место и выполняется.
+     */
+    @Test
+    public void queuedRequestGetsReleasedPermit() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit held = limiter.tryAcquire();
+        Assertions.assertNotNull(held);
+        Thread releaser = new Thread(() -> {
+            while (limiter.getQueued() == 0) {
+                Thread.onSpinWait();
+            }
+            held.onSuccess();
+        });
+        releaser.start();
+
+        AdaptiveConcurrencyLimiter.Permit queued = limiter.acquire(Duration.ofSeconds(5));
+        releaser.join();
+
+        Assertions.assertNotNull(queued);
+        Assertions.assertEquals(1, limiter.getInFlight());
+        queued.onIgnore();
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Запросы, завершившиеся ответом 503 или исключением, и запрос с ошибкой клиента.
+     * <br>
+     * Ожидаемое поведение: ошибка сервера и исключение считаются потерянными запросами и вдвое уменьшают
+     * лимит, место освобождается и после исключения; ответ 404 увеличивает лимит.
+     */
+    @Test
+    public void serverErrorsAndExceptionsDecreaseLimit() throws Exception {
+        limiter = new AdaptiveConcurrencyLimiter(new AimdLimit(4, 1, 8, 0.5, Duration.ofSeconds(1)), 1);
+        filter = new ConcurrencyLimitFilter(limiter, Duration.ofMillis(10), Duration.ofSeconds(2),
+                new SimpleMeterRegistry());
+
+        perform("/api/tasks", (request, response) ->
+                ((MockHttpServletResponse) response).setStatus(503));
+        Assertions.assertEquals(2, limiter.getLimit());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> perform("/api/tasks", (request, response) -> {
+            throw new IllegalStateException("Ошибка обработки");
+        }));
+        Assertions.assertEquals(1, limiter.getLimit());
+        Assertions.assertEquals(0, limiter.getInFlight());
+
+        perform("/api/tasks", (request, response) ->
+                ((MockHttpServletResponse) response).setStatus(404));
+        Assertions.assertEquals(2, limiter.getLimit());
+    }
+
+    private MockHttpServletResponse perform(String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response,
+                chain != null ? chain : new MockFilterChain());
+        return response;
+    }
+}
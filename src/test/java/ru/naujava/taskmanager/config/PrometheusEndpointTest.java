@@ -0,0 +1,80 @@
+package ru.naujava.taskmanager.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.service.TaskService;
+import ru.naujava.taskmanager.service.UserService;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Тесты доступа к эндпоинту Prometheus и публикации метрик.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@Transactional
+public class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Проверяет доступ к метрикам без аутентификации.
+     * <br>
+     * Ожидаемое поведение: возвращает статус 401.
+     */
+    @Test
+    public void prometheusUnauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Проверяет доступ к метрикам обычного пользователя.
+     * <br>
+     * Ожидаемое поведение: перенаправляет на страницу отказа в доступе.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    public void prometheusForbiddenForUser() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/access-denied"));
+    }
+
+    /**
+     * Проверяет публикацию гистограмм сервиса задач и кодировщика паролей для администратора.
+     * <br>
+     * Ожидаемое поведение: возвращает статус 200 и бакеты гистограмм.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void prometheusExposesHistograms() throws Exception {
+        User user = userService.register("metricsuser", "password", Role.USER);
+        taskService.createTask("Задача для метрик", user);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "taskmanager_task_service_seconds_bucket{class=\"ru.naujava.taskmanager.service.TaskService\"")))
+                .andExpect(content().string(containsString("taskmanager_password_hashing_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections")));
+    }
+}
@@ -0,0 +1,153 @@
+package ru.naujava.taskmanager.controller;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.service.TaskAnalyticsService;
+import ru.naujava.taskmanager.service.UserService;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Тесты для административных страниц AdminController: пользователи и аналитика.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Проверяет страницу пользователей с поиском.
+     * <br>
+     * Ожидаемое поведение: возвращает страницу с найденным пользователем.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void usersPage() throws Exception {
+        userService.register("page-listed-user", "password123", Role.USER);
+
+        mockMvc.perform(get("/admin/users").param("q", "page-listed"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin/users"))
+                .andExpect(content().string(containsString("page-listed-user")));
+    }
+
+    /**
+     * Проверяет список пользователей в JSON с постраничным выводом.
+     * <br>
+     * Ожидаемое поведение: возвращает первую страницу и имя для запроса следующей.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void usersJson() throws Exception {
+        userService.register("json-listed-a", "password123", Role.USER);
+        userService.register("json-listed-b", "password123", Role.USER);
+
+        mockMvc.perform(get("/admin/users")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("q", "JSON-LISTED")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].username").value("json-listed-a"))
+                .andExpect(jsonPath("$.users[0].taskCount").value(0))
+                .andExpect(jsonPath("$.next").value("json-listed-a"));
+    }
+
+    /**
+     * Проверяет блокировку пользователя со страницы.
+     * <br>
+     * Ожидаемое поведение: перенаправляет на список пользователей с сообщением, пользователь заблокирован.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void lockUser() throws Exception {
+        User user = userService.register("page-locked-user", "password123", Role.USER);
+
+        mockMvc.perform(post("/admin/users/" + user.getId() + "/lock").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/users"))
+                .andExpect(flash().attribute("success", "Пользователь заблокирован"));
+
+        Assertions.assertTrue(userService.findByUsername("page-locked-user").orElseThrow().isLocked());
+    }
+
+    /**
+     * Проверяет блокировку администратором самого себя.
+     * <br>
+     * Ожидаемое поведение: перенаправляет на список пользователей с сообщением об ошибке.
+     */
+    @Test
+    @WithMockUser(username = "page-self-admin", roles = "ADMIN")
+    public void lockSelfRejected() throws Exception {
+        User user = userService.register("page-self-admin", "password123", Role.ADMIN);
+
+        mockMvc.perform(post("/admin/users/" + user.getId() + "/lock").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("error", "Нельзя заблокировать или удалить свою учетную запись"));
+    }
+
+    /**
+     * Проверяет страницу аналитики задач.
+     * <br>
+     * Ожидаемое поведение: возвращает страницу с рядом за выбранное число дней.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void analyticsPage() throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin/analytics").param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin/analytics"))
+                .andExpect(content().string(containsString("Время выполнения задач")))
+                .andReturn();
+
+        TaskAnalyticsService.Dashboard dashboard =
+                (TaskAnalyticsService.Dashboard) result.getModelAndView().getModel().get("analytics");
+        Assertions.assertEquals(7, dashboard.days().size());
+    }
+
+    /**
+     * Проверяет перенаправление со страницы метрик.
+     * <br>
+     * Ожидаемое поведение: перенаправляет на страницу аналитики.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void metricsRedirectsToAnalytics() throws Exception {
+        mockMvc.perform(get("/admin/metrics"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/analytics"));
+    }
+
+    /**
+     * Проверяет доступ к странице пользователей без роли администратора.
+     * <br>
+     * Ожидаемое поведение: перенаправляет на страницу отказа в доступе.
+     */
+    @Test
+    @WithMockUser
+    public void usersPageForbiddenForUser() throws Exception {
+        mockMvc.perform(get("/admin/users"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/access-denied"));
+    }
+}
@@ -0,0 +1,134 @@
+package ru.naujava.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.ApiKeyScope;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.security.ApiKeyAuthenticationFilter;
+import ru.naujava.taskmanager.security.ApiKeyUsageRecorder;
+import ru.naujava.taskmanager.service.UserService;
+
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Тесты для ApiKeyApiController и аутентификации по API-ключу.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class ApiKeyApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApiKeyUsageRecorder usageRecorder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Создание ключа на чтение и запросы с ним.
+     * <br>
+     * Ожидаемое поведение: ключ возвращается один раз, читает задачи владельца, не может изменять задачи
+     * и обращаться к другим API, время использования записывается при сбросе.
+     */
+    @Test
+    public void readKeyAuthenticatesTaskReads() throws Exception {
+        userService.register("machine", "password", Role.USER);
+        String token = getToken("machine");
+        JsonNode created = createKey(token, Set.of(ApiKeyScope.TASKS_READ));
+        String key = created.get("key").asText();
+        Assertions.assertTrue(key.startsWith("tm_"));
+
+        mockMvc.perform(get("/api/tasks").header(ApiKeyAuthenticationFilter.HEADER, key))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/tasks")
+                        .header(ApiKeyAuthenticationFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskApiController.TaskRequest("Task"))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/auth/me").header(ApiKeyAuthenticationFilter.HEADER, key))
+                .andExpect(status().isForbidden());
+
+        Assertions.assertEquals(1, usageRecorder.flush());
+        entityManager.clear();
+        mockMvc.perform(get("/api/keys").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].prefix").value(key.substring(0, key.indexOf('.'))))
+                .andExpect(jsonPath("$[0].key").doesNotExist())
+                .andExpect(jsonPath("$[0].lastUsedAt").exists());
+    }
+
+    /**
+     * Отзыв ключа и неизвестный ключ.
+     * <br>
+     * Ожидаемое поведение: после отзыва и с неизвестным ключом запрос не аутентифицирован (401),
+     * отзыв чужого или несуществующего ключа возвращает 404.
+     */
+    @Test
+    public void revokedKeyIsRejected() throws Exception {
+        userService.register("revoker", "password", Role.USER);
+        String token = getToken("revoker");
+        JsonNode created = createKey(token, Set.of(ApiKeyScope.TASKS_READ, ApiKeyScope.TASKS_WRITE));
+        String key = created.get("key").asText();
+        mockMvc.perform(get("/api/tasks").header(ApiKeyAuthenticationFilter.HEADER, key))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/keys/" + created.get("id").asLong())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/tasks").header(ApiKeyAuthenticationFilter.HEADER, key))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/tasks").header(ApiKeyAuthenticationFilter.HEADER, key + "x"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/keys/" + Long.MAX_VALUE)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode createKey(String token, Set<ApiKeyScope> scopes) throws Exception {
+        ApiKeyApiController.ApiKeyRequest request = new ApiKeyApiController.ApiKeyRequest();
+        request.setName("integration job");
+        request.setScopes(scopes);
+        request.setValidityDays(30);
+        String response = mockMvc.perform(post("/api/keys")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private String getToken(String username) throws Exception {
+        AuthApiController.LoginRequest loginRequest = new AuthApiController.LoginRequest();
+        loginRequest.setUsername(username);
+        loginRequest.setPassword("password");
+
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, AuthApiController.LoginResponse.class).getToken();
+    }
+}
@@ -1,12 +1,15 @@
 package ru.naujava.taskmanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.naujava.taskmanager.entity.Role;
 import ru.naujava.taskmanager.service.UserService;
@@ -32,6 +35,10 @@ public class AuthApiControllerTest {
     private ObjectMapper objectMapper;
 
     private String getToken(String username, String password) throws Exception {
+        return login(username, password).getToken();
+    }
+
+    private AuthApiController.LoginResponse login(String username, String password) throws Exception {
         AuthApiController.LoginRequest loginRequest = new AuthApiController.LoginRequest();
         loginRequest.setUsername(username);
         loginRequest.setPassword(password);
@@ -42,9 +49,15 @@ public class AuthApiControllerTest {
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
 
-        AuthApiController.LoginResponse loginResponse =
-                objectMapper.readValue(response, AuthApiController.LoginResponse.class);
-        return loginResponse.getToken();
+        return objectMapper.readValue(response, AuthApiController.LoginResponse.class);
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        AuthApiController.RefreshRequest request = new AuthApiController.RefreshRequest();
+        request.setRefreshToken(refreshToken);
+        return mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
     }
 
     /**
@@ -105,12 +118,15 @@ public class AuthApiControllerTest {
     /**
      * Проверяет изменение пароля пользователя.
      * <br>
-     * Ожидаемое поведение: возвращает статус 200 и сообщение об успехе.
+     * Ожидаемое поведение: возвращает статус 200 и сообщение об успехе, ранее выданный токен отозван,
+     * токен, полученный сразу после смены пароля, действителен.
+     * Отзыв действует после фиксации транзакции, поэтому тест выполняется вне транзакции теста.
      */
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePasswordSuccess() throws Exception {
-        userService.register("testuser2", "oldpassword", Role.USER);
-        String token = getToken("testuser2", "oldpassword");
+        userService.register("passwordchanger", "oldpassword", Role.USER);
+        String token = getToken("passwordchanger", "oldpassword");
 
         AuthApiController.ChangePasswordRequest request = new AuthApiController.ChangePasswordRequest();
         request.setOldPassword("oldpassword");
@@ -122,6 +138,17 @@ public class AuthApiControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Пароль успешно изменен"));
+
+        // Все токены, выданные до смены пароля, отозваны
+        mockMvc.perform(get("/api/auth/me")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        // Токен, выданный сразу после отзыва (обычно в ту же секунду), принимается
+        String newToken = getToken("passwordchanger", "newpassword");
+        mockMvc.perform(get("/api/auth/me")
+                        .header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
     }
 
     /**
@@ -149,17 +176,23 @@ public class AuthApiControllerTest {
     /**
      * Проверяет выход из системы.
      * <br>
-     * Ожидаемое поведение: возвращает статус 200 и сообщение об успехе.
+     * Ожидаемое поведение: возвращает статус 200 и сообщение об успехе, токен после выхода не принимается.
+     * Отзыв действует после фиксации транзакции, поэтому тест выполняется вне транзакции теста.
      */
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void logout() throws Exception {
-        userService.register("testuser4", "password", Role.USER);
-        String token = getToken("testuser4", "password");
+        userService.register("logoutuser", "password", Role.USER);
+        String token = getToken("logoutuser", "password");
 
         mockMvc.perform(post("/api/auth/logout")
                         .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Выход выполнен успешно"));
+
+        mockMvc.perform(get("/api/auth/me")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
     }
 
     /**
@@ -179,7 +212,82 @@ public class AuthApiControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").exists());
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andExpect(jsonPath("$.expiresIn").value(900));
+    }
+
+    /**
+     * Проверяет обмен refresh-токена.
+     * <br>
+     * Ожидаемое поведение: возвращает новый JWT и новый refresh-токен, новый JWT принимается.
+     */
+    @Test
+    public void refreshIssuesNewTokens() throws Exception {
+        userService.register("refresher", "password123", Role.USER);
+        AuthApiController.LoginResponse loginResponse = login("refresher", "password123");
+
+        String response = refresh(loginResponse.getRefreshToken())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        AuthApiController.LoginResponse refreshed =
+                objectMapper.readValue(response, AuthApiController.LoginResponse.class);
+        Assertions.assertNotEquals(loginResponse.getRefreshToken(), refreshed.getRefreshToken());
+
+        mockMvc.perform(get("/api/auth/me")
+                        .header("Authorization", "Bearer " + refreshed.getToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("refresher"));
+    }
+
+    /**
+     * Проверяет повторное предъявление использованного refresh-токена.
+     * <br>
+     * Ожидаемое поведение: возвращает статус 401 и отзывает все семейство, в том числе токен,
+     * выданный при первом обмене.
+     */
+    @Test
+    public void refreshReuseRevokesFamily() throws Exception {
+        userService.register("reuser", "password123", Role.USER);
+        String first = login("reuser", "password123").getRefreshToken();
+        String response = refresh(first)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = objectMapper.readValue(response, AuthApiController.LoginResponse.class).getRefreshToken();
+
+        refresh(first).andExpect(status().isUnauthorized());
+        refresh(second).andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Проверяет обмен неизвестного refresh-токена.
+     * <br>
+     * Ожидаемое поведение: возвращает статус 401.
+     */
+    @Test
+    public void refreshUnknownToken() throws Exception {
+        refresh("unknown").andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Проверяет, что выход отзывает переданный refresh-токен.
+     * <br>
+     * Ожидаемое поведение: обмен refresh-токена после выхода возвращает статус 401.
+     */
+    @Test
+    public void logoutRevokesRefreshToken() throws Exception {
+        userService.register("logoutrefresher", "password123", Role.USER);
+        AuthApiController.LoginResponse loginResponse = login("logoutrefresher", "password123");
+        AuthApiController.RefreshRequest request = new AuthApiController.RefreshRequest();
+        request.setRefreshToken(loginResponse.getRefreshToken());
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + loginResponse.getToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        refresh(loginResponse.getRefreshToken()).andExpect(status().isUnauthorized());
     }
 
     /**
@@ -202,6 +310,53 @@ public class AuthApiControllerTest {
                 .andExpect(content().string("Неверные учетные данные"));
     }
 
+    /**
+     * Проверяет вход после серии неудачных попыток.
+     * <br>
+     * Ожидаемое поведение: после бесплатных неудач следующая попытка, даже с верным паролем,
+     * получает 429 с Retry-After без проверки пароля.
+     */
+    @Test
+    public void loginThrottledAfterFailures() throws Exception {
+        userService.register("bruteforced", "password123", Role.USER);
+
+        for (int i = 0; i < 4; i++) {
+            performLogin("bruteforced", "wrongpassword" + i, "10.20.30.40")
+                    .andExpect(status().isUnauthorized());
+        }
+        performLogin("bruteforced", "password123", "10.20.30.41")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
+    /**
+     * Проверяет вход под несуществующим именем и последующую регистрацию этого имени.
+     * <br>
+     * Ожидаемое поведение: сначала 401, после регистрации вход успешен несмотря на отрицательный кэш.
+     */
+    @Test
+    public void loginAfterRegisteringUnknownUsername() throws Exception {
+        performLogin("latecomer", "password123", "10.20.30.50").andExpect(status().isUnauthorized());
+
+        userService.register("latecomer", "password123", Role.USER);
+
+        performLogin("latecomer", "password123", "10.20.30.50").andExpect(status().isOk());
+    }
+
+    private ResultActions performLogin(String username, String password, String address) throws Exception {
+        AuthApiController.LoginRequest request = new AuthApiController.LoginRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        return mockMvc.perform(post("/api/auth/login")
+                .with(req -> {
+                    req.setRemoteAddr(address);
+                    return req;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
     /**
      * Проверяет регистрацию с паролем короче 8 символов.
      * <br>
@@ -0,0 +1,82 @@
+package ru.naujava.taskmanager.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.service.UserService;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Тесты входа через форму.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Проверяет подбор пароля через форму входа.
+     * <br>
+     * Ожидаемое поведение: после серии неверных паролей даже верный пароль получает 429 с Retry-After.
+     */
+    @Test
+    public void formLoginThrottledAfterFailures() throws Exception {
+        userService.register("formbruteforced", "password123", Role.USER);
+
+        for (int i = 0; i < 4; i++) {
+            performFormLogin("formbruteforced", "wrongpassword" + i, "10.20.31.40")
+                    .andExpect(redirectedUrl("/login?error"))
+                    .andExpect(unauthenticated());
+        }
+        performFormLogin("formbruteforced", "password123", "10.20.31.41")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(unauthenticated());
+    }
+
+    /**
+     * Проверяет, что успешный вход через форму сбрасывает неудачи пользователя.
+     * <br>
+     * Ожидаемое поведение: после неудач, успешного входа и новых неудач вход все еще разрешен.
+     */
+    @Test
+    public void formLoginSuccessResetsFailures() throws Exception {
+        userService.register("formforgetful", "password123", Role.USER);
+
+        for (int i = 0; i < 3; i++) {
+            performFormLogin("formforgetful", "wrongpassword" + i, "10.20.31.50").andExpect(unauthenticated());
+        }
+        performFormLogin("formforgetful", "password123", "10.20.31.50").andExpect(authenticated());
+        for (int i = 0; i < 3; i++) {
+            performFormLogin("formforgetful", "wrongpassword" + i, "10.20.31.50").andExpect(unauthenticated());
+        }
+        performFormLogin("formforgetful", "password123", "10.20.31.50").andExpect(authenticated());
+    }
+
+    private ResultActions performFormLogin(String username, String password, String address) throws Exception {
+        return mockMvc.perform(post("/login")
+                .param("username", username)
+                .param("password", password)
+                .with(csrf())
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                }));
+    }
+}
@@ -1,7 +1,11 @@
 package ru.naujava.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
@@ -12,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.naujava.taskmanager.entity.Role;
 import ru.naujava.taskmanager.entity.Task;
 import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.monitoring.QueryBudget;
+import ru.naujava.taskmanager.monitoring.QueryBudgetExtension;
 import ru.naujava.taskmanager.service.TaskService;
 import ru.naujava.taskmanager.service.UserService;
 
@@ -25,6 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureWebMvc
 @AutoConfigureMockMvc
 @Transactional
+@ExtendWith(QueryBudgetExtension.class)
 public class TaskApiControllerTest {
 
     @Autowired
@@ -58,7 +65,7 @@ public class TaskApiControllerTest {
     /**
      * Проверяет получение активных задач пользователя.
      * <br>
-     * Ожидаемое поведение: возвращает статус 200 и список задач.
+     * Ожидаемое поведение: возвращает статус 200, список задач и заголовки ограничения частоты.
      */
     @Test
     public void getActiveTasks() throws Exception {
@@ -69,6 +76,8 @@ public class TaskApiControllerTest {
         mockMvc.perform(get("/api/tasks")
                         .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Limit", "100"))
+                .andExpect(header().exists("RateLimit-Remaining"))
                 .andExpect(jsonPath("$[0].description").value("Test task"));
     }
 
@@ -110,6 +119,40 @@ public class TaskApiControllerTest {
                 .andExpect(jsonPath("$.description").value("New task"));
     }
 
+    /**
+     * Проверяет создание задачи и получение списка задач в формате CBOR.
+     * <br>
+     * Ожидаемое поведение: запрос в CBOR принимается, ответы возвращаются в CBOR.
+     */
+    @Test
+    public void createAndListTasksCbor() throws Exception {
+        userService.register("testuser13", "password", Role.USER);
+        String token = getToken("testuser13");
+        CBORMapper cborMapper = new CBORMapper();
+        MediaType cbor = MediaType.valueOf("application/cbor");
+
+        byte[] created = mockMvc.perform(post("/api/tasks")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(cbor)
+                        .accept(cbor)
+                        .content(cborMapper.writeValueAsBytes(new TaskApiController.TaskRequest("CBOR task"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertEquals("CBOR task", cborMapper.readTree(created).get("description").asText());
+
+        byte[] listed = mockMvc.perform(get("/api/tasks")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(cbor))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode tasks = cborMapper.readTree(listed);
+        Assertions.assertEquals(1, tasks.size());
+        Assertions.assertEquals("CBOR task", tasks.get(0).get("description").asText());
+        Assertions.assertFalse(tasks.get(0).get("createdAt").asText().isEmpty());
+    }
+
     /**
      * Проверяет отметку задачи как выполненной.
      * <br>
@@ -199,7 +242,9 @@ public class TaskApiControllerTest {
                         .header("Authorization", "Bearer " + token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("Задача с описанием 'Unique task' уже существует"));
     }
 
     /**
@@ -267,7 +312,11 @@ public class TaskApiControllerTest {
                         .header("Authorization", "Bearer " + token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Задача не найдена"))
+                .andExpect(jsonPath("$.instance").value("/api/tasks/99999"));
     }
 
     /**
@@ -338,4 +387,41 @@ public class TaskApiControllerTest {
                         .header("Authorization", "Bearer " + tokenUser2))
                 .andExpect(status().isNotFound());
     }
+
+    /**
+     * Проверяет бюджет SQL-запросов при получении активных задач.
+     * <br>
+     * Ожидаемое поведение: не более 3 запросов (пользователь в фильтре, пользователь в контроллере, задачи).
+     */
+    @Test
+    public void getActiveTasksQueryBudget(QueryBudget budget) throws Exception {
+        User user = userService.register("budgetuser1", "password", Role.USER);
+        for (int i = 0; i < 10; i++) {
+            taskService.createTask("Task " + i, user);
+        }
+        String token = getToken("budgetuser1");
+
+        budget.expectAtMost(3, () -> mockMvc.perform(get("/api/tasks")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10)));
+    }
+
+    /**
+     * Проверяет бюджет SQL-запросов при обновлении задачи.
+     * <br>
+     * Ожидаемое поведение: не более 5 запросов.
+     */
+    @Test
+    public void updateTaskQueryBudget(QueryBudget budget) throws Exception {
+        User user = userService.register("budgetuser2", "password", Role.USER);
+        Task task = taskService.createTask("Original task", user);
+        String token = getToken("budgetuser2");
+
+        budget.expectAtMost(5, () -> mockMvc.perform(put("/api/tasks/" + task.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskApiController.TaskRequest("Updated"))))
+                .andExpect(status().isOk()));
+    }
 }
@@ -0,0 +1,78 @@
+package ru.naujava.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.naujava.taskmanager.controller.TaskApiController.TaskDto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Тесты для {@link TaskDtoSerializer}.
+ */
+public class TaskDtoSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Проверяет сериализацию всех полей задачи.
+     * <br>
+     * Ожидаемое поведение: поля совпадают с исходными значениями, даты записаны в ISO-8601.
+     */
+    @Test
+    public void serializeAllFields() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 5, 7, 9, 1, 120_000_000);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+        TaskDto dto = new TaskDto(42L, "Задача \"в кавычках\"", true, createdAt, updatedAt);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(dto));
+
+        Assertions.assertEquals(42L, json.get("id").asLong());
+        Assertions.assertEquals("Задача \"в кавычках\"", json.get("description").asText());
+        Assertions.assertTrue(json.get("done").asBoolean());
+        Assertions.assertEquals("2024-03-05T07:09:01.12", json.get("createdAt").asText());
+        Assertions.assertEquals("2024-12-31T23:59:59", json.get("updatedAt").asText());
+    }
+
+    /**
+     * Проверяет, что формат дат совпадает с ISO_LOCAL_DATE_TIME для разной точности.
+     * <br>
+     * Ожидаемое поведение: строки совпадают со стандартным форматтером.
+     */
+    @Test
+    public void timestampsMatchIsoFormatter() throws Exception {
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(1, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 6, 15, 12, 30, 45, 1),
+                LocalDateTime.of(2025, 6, 15, 12, 30, 45, 123_456_000),
+                LocalDateTime.of(2025, 6, 15, 12, 30, 45, 999_999_999),
+                LocalDateTime.of(12345, 1, 1, 0, 0));
+
+        for (LocalDateTime value : values) {
+            TaskDto dto = new TaskDto(1L, "task", false, value, value);
+            JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(dto));
+            Assertions.assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value),
+                    json.get("createdAt").asText());
+        }
+    }
+
+    /**
+     * Проверяет сериализацию пустых значений.
+     * <br>
+     * Ожидаемое поведение: отсутствующие поля записываются как null.
+     */
+    @Test
+    public void serializeNulls() throws Exception {
+        TaskDto dto = new TaskDto(null, null, false, null, null);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(dto));
+
+        Assertions.assertTrue(json.get("id").isNull());
+        Assertions.assertTrue(json.get("description").isNull());
+        Assertions.assertTrue(json.get("createdAt").isNull());
+        Assertions.assertTrue(json.get("updatedAt").isNull());
+    }
+}
@@ -0,0 +1,151 @@
+package ru.naujava.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.service.UserService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тесты для UserImportController. Импорт фиксирует данные в своем потоке, поэтому тесты
+ * не транзакционные и используют собственные имена пользователей.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JsonNode importAndWait(String content, MediaType contentType) throws Exception {
+        String response = mockMvc.perform(post("/admin/users/import")
+                        .contentType(contentType)
+                        .content(content))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(response).get("id").asText();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get("/admin/users/import/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            String jobStatus = job.get("status").asText();
+            if (jobStatus.equals("COMPLETED") || jobStatus.equals("FAILED")) {
+                return job;
+            }
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Импорт не завершился: " + job);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Проверяет импорт CSV.
+     * <br>
+     * Ожидаемое поведение: корректные строки создают пользователей, которые могут войти с переданным
+     * паролем; занятое имя, повтор в файле, короткий пароль и неизвестная роль попадают в отчет со своими
+     * номерами строк.
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void importCsv() throws Exception {
+        userService.register("import-existing", "password123", Role.USER);
+        String csv = """
+                username,password,role
+                import-csv-1,password123
+                "import-csv-2","pass,word""1",ADMIN
+                import-existing,password123
+                import-csv-1,password456
+                import-csv-3,short
+                import-csv-4,password123,OWNER
+                """;
+
+        JsonNode job = importAndWait(csv, new MediaType("text", "csv"));
+
+        Assertions.assertEquals("COMPLETED", job.get("status").asText());
+        Assertions.assertEquals(6, job.get("processed").asLong());
+        Assertions.assertEquals(2, job.get("created").asLong());
+        Assertions.assertEquals(4, job.get("failed").asLong());
+        JsonNode errors = job.get("errors");
+        Assertions.assertEquals(4, errors.size());
+        Assertions.assertEquals(4, errors.get(0).get("line").asLong());
+        Assertions.assertEquals("import-existing", errors.get(0).get("username").asText());
+        Assertions.assertEquals(5, errors.get(1).get("line").asLong());
+
+        Assertions.assertTrue(userService.authenticate("import-csv-1", "password123").isPresent());
+        Assertions.assertEquals(Role.ADMIN, userService.authenticate("import-csv-2", "pass,word\"1")
+                .orElseThrow().getRole());
+        Assertions.assertTrue(userService.findByUsername("import-csv-3").isEmpty());
+        Assertions.assertTrue(userService.findByUsername("import-csv-4").isEmpty());
+    }
+
+    /**
+     * Проверяет импорт NDJSON, занимающий несколько пачек.
+     * <br>
+     * Ожидаемое поведение: создаются все пользователи, строка с неверным JSON попадает в отчет.
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void importNdjson() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            ndjson.append("{\"username\":\"import-json-").append(i).append("\",\"password\":\"password123\"}\n");
+        }
+        ndjson.append("{not json\n");
+
+        JsonNode job = importAndWait(ndjson.toString(), MediaType.APPLICATION_NDJSON);
+
+        Assertions.assertEquals("COMPLETED", job.get("status").asText());
+        Assertions.assertEquals(25, job.get("created").asLong());
+        Assertions.assertEquals(26, job.get("errors").get(0).get("line").asLong());
+        Assertions.assertTrue(userService.findByUsername("import-json-24").isPresent());
+    }
+
+    /**
+     * Проверяет импорт обычным пользователем.
+     * <br>
+     * Ожидаемое поведение: перенаправляет на страницу отказа в доступе, пользователь не создается.
+     */
+    @Test
+    @WithMockUser
+    public void importForbiddenForUser() throws Exception {
+        mockMvc.perform(post("/admin/users/import")
+                        .contentType(new MediaType("text", "csv"))
+                        .content("import-forbidden,password123"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/access-denied"));
+        Assertions.assertTrue(userService.findByUsername("import-forbidden").isEmpty());
+    }
+
+    /**
+     * Проверяет получение неизвестного импорта.
+     * <br>
+     * Ожидаемое поведение: возвращает статус 404.
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void unknownImport() throws Exception {
+        mockMvc.perform(get("/admin/users/import/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,59 @@
+package ru.naujava.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Тесты настройки пулов основной базы и реплик в {@link ReadReplicaConfig}.
+ */
+public class ReadReplicaConfigTest {
+    private final ReadReplicaConfig config = new ReadReplicaConfig();
+
+    @AfterEach
+    public void tearDown() {
+        config.destroy();
+    }
+
+    /**
+     * Создание источника данных с настройками {@code spring.datasource.hikari.*}.
+     * <br>
+     * Ожидаемое поведение: настройки применяются к пулам основной базы и реплики,
+     * у реплики короткие времена ожидания и проверки соединения.
+     */
+    @Test
+    public void poolsUseHikariProperties() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "7")
+                .withProperty("spring.datasource.hikari.leak-detection-threshold", "2000")
+                .withProperty("spring.datasource.hikari.connection-timeout", "20000");
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:h2:mem:replica-config-primary");
+        properties.setDriverClassName("org.h2.Driver");
+
+        config.dataSource(properties, environment,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                List.of("jdbc:h2:mem:replica-config-replica"), "sa", "",
+                Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofMillis(300), Duration.ofMillis(250));
+
+        HikariDataSource primary = config.getPools().get(0);
+        HikariDataSource replica = config.getPools().get(1);
+        Assertions.assertEquals("primary", primary.getPoolName());
+        Assertions.assertEquals(7, primary.getMaximumPoolSize());
+        Assertions.assertEquals(2000, primary.getLeakDetectionThreshold());
+        Assertions.assertEquals(20000, primary.getConnectionTimeout());
+        Assertions.assertEquals("replica-1", replica.getPoolName());
+        Assertions.assertEquals(7, replica.getMaximumPoolSize());
+        Assertions.assertEquals(300, replica.getConnectionTimeout());
+        Assertions.assertEquals(250, replica.getValidationTimeout());
+        Assertions.assertTrue(replica.isReadOnly());
+    }
+}
@@ -0,0 +1,161 @@
+package ru.naujava.taskmanager.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Тесты маршрутизации {@link ReadWriteRoutingDataSource} на двух базах H2:
+ * каждая база хранит свое имя в таблице {@code node}, по нему видно, куда ушел запрос.
+ */
+public class ReadWriteRoutingDataSourceTest {
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+
+    @BeforeEach
+    public void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    /**
+     * Транзакция только для чтения идет на реплику, изменяющая — на основную базу.
+     */
+    @Test
+    public void routesReadOnlyTransactionsToReplica() {
+        Routing routing = new Routing(List.of(replica), Duration.ZERO);
+
+        Assertions.assertEquals("replica", routing.read());
+        Assertions.assertEquals("primary", routing.write());
+        Assertions.assertEquals("primary", routing.jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    /**
+     * После изменения чтения того же пользователя идут на основную базу, чтения других — на реплику.
+     */
+    @Test
+    public void readsOwnWritesFromPrimary() {
+        Routing routing = new Routing(List.of(replica), Duration.ofMinutes(1));
+        authenticate("alice");
+        Assertions.assertEquals("replica", routing.read());
+
+        routing.write();
+
+        Assertions.assertEquals("primary", routing.read());
+        authenticate("bob");
+        Assertions.assertEquals("replica", routing.read());
+    }
+
+    /**
+     * Изменение в откаченной транзакции не закрепляет чтения за основной базой.
+     */
+    @Test
+    public void rolledBackWriteIsNotSticky() {
+        Routing routing = new Routing(List.of(replica), Duration.ofMinutes(1));
+        authenticate("alice");
+
+        routing.transactions.executeWithoutResult(status -> {
+            routing.jdbc.queryForObject("SELECT name FROM node", String.class);
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertEquals("replica", routing.read());
+    }
+
+    /**
+     * Недоступная реплика пропускается, а при отсутствии доступных чтение идет на основную базу.
+     */
+    @Test
+    public void fallsBackWhenReplicaIsDown() {
+        FailingDataSource down = new FailingDataSource();
+        Routing routing = new Routing(List.of(down, replica), Duration.ZERO);
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals("replica", routing.read());
+        }
+        Assertions.assertEquals(1, down.attempts.get(), "недоступная реплика не опрашивается до retryInterval");
+
+        Routing onlyDown = new Routing(List.of(new FailingDataSource()), Duration.ZERO);
+        Assertions.assertEquals("primary", onlyDown.read());
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private class Routing {
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate transactions;
+        private final TransactionTemplate readOnlyTransactions;
+
+        Routing(List<DataSource> replicas, Duration readYourWrites) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                    primary, replicas, readYourWrites, Duration.ofMinutes(1)));
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.transactions = new TransactionTemplate(transactionManager);
+            this.readOnlyTransactions = new TransactionTemplate(transactionManager);
+            this.readOnlyTransactions.setReadOnly(true);
+        }
+
+        String read() {
+            return readOnlyTransactions.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            return transactions.execute(status -> {
+                jdbc.update("UPDATE node SET name = name");
+                return jdbc.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+    }
+
+    private static class FailingDataSource extends AbstractDataSource {
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            attempts.incrementAndGet();
+            throw new SQLException("Connection refused");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
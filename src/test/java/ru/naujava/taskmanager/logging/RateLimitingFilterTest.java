@@ -0,0 +1,110 @@
+package ru.naujava.taskmanager.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+
+/**
+ * Тесты для {@link RateLimitingFilter}.
+ */
+public class RateLimitingFilterTest {
+
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        filter = new RateLimitingFilter();
+        filter.setMaxEvents(3);
+        filter.setIntervalMillis(60_000);
+        filter.setContext(context);
+        filter.start();
+
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.addFilter(filter);
+        appender.start();
+        logger = context.getLogger("test");
+        logger.addAppender(appender);
+    }
+
+    /**
+     * Проверяет ограничение сообщений с маркером.
+     * <br>
+     * Ожидаемое поведение: за интервал проходит не больше maxEvents сообщений одного шаблона.
+     */
+    @Test
+    public void repetitiveMessagesLimited() {
+        for (int i = 0; i < 10; i++) {
+            logger.warn(LogMarkers.REPETITIVE, "Задача {} не найдена", i);
+        }
+
+        Assertions.assertEquals(3, appender.list.size());
+    }
+
+    /**
+     * Проверяет ограничение сообщений, записанных через fluent API.
+     * <br>
+     * Ожидаемое поведение: пары ключ-значение сохраняются, лишние сообщения отбрасываются.
+     */
+    @Test
+    public void fluentMessagesLimited() {
+        for (int i = 0; i < 10; i++) {
+            logger.atWarn().addMarker(LogMarkers.REPETITIVE)
+                    .setMessage("Задача не найдена")
+                    .addKeyValue("taskId", i)
+                    .log();
+        }
+
+        Assertions.assertEquals(3, appender.list.size());
+        Assertions.assertEquals("taskId", appender.list.get(0).getKeyValuePairs().get(0).key);
+    }
+
+    /**
+     * Проверяет, что шаблоны и сообщения без маркера учитываются отдельно.
+     * <br>
+     * Ожидаемое поведение: сообщения без маркера не ограничиваются, разные шаблоны имеют свои лимиты.
+     */
+    @Test
+    public void unmarkedAndOtherFormatsNotLimited() {
+        for (int i = 0; i < 10; i++) {
+            logger.info("Создана задача {}", i);
+            logger.warn(LogMarkers.REPETITIVE, "Дубликат {}", i);
+            logger.warn(LogMarkers.REPETITIVE, "Не найдена {}", i);
+        }
+
+        List<String> messages = appender.list.stream().map(ILoggingEvent::getMessage).toList();
+        Assertions.assertEquals(10, messages.stream().filter("Создана задача {}"::equals).count());
+        Assertions.assertEquals(3, messages.stream().filter("Дубликат {}"::equals).count());
+        Assertions.assertEquals(3, messages.stream().filter("Не найдена {}"::equals).count());
+    }
+
+    /**
+     * Проверяет отметку о подавленных сообщениях в новом интервале.
+     * <br>
+     * Ожидаемое поведение: первое сообщение нового интервала содержит число отброшенных сообщений.
+     */
+    @Test
+    public void suppressedCountReported() throws Exception {
+        filter.setIntervalMillis(50);
+        for (int i = 0; i < 5; i++) {
+            logger.warn(LogMarkers.REPETITIVE, "Неверный токен");
+        }
+        Thread.sleep(60);
+        logger.warn(LogMarkers.REPETITIVE, "Неверный токен");
+
+        Assertions.assertEquals(4, appender.list.size());
+        List<KeyValuePair> pairs = appender.list.get(3).getKeyValuePairs();
+        Assertions.assertEquals("suppressed", pairs.get(0).key);
+        Assertions.assertEquals(2, pairs.get(0).value);
+    }
+}
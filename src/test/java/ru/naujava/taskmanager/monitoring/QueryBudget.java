@@ -0,0 +1,42 @@
+package ru.naujava.taskmanager.monitoring;
+
+import org.junit.jupiter.api.Assertions;
+
+import java.util.stream.Collectors;
+
+/**
+ * Проверка бюджета SQL-запросов в тестах.
+ * Экземпляр внедряется в тестовый метод расширением {@link QueryBudgetExtension}.
+ */
+public class QueryBudget {
+
+    /**
+     * Действие, выполняемое под контролем бюджета.
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Выполняет действие и проверяет, что оно выполнило не более {@code maxStatements} SQL-запросов.
+     *
+     * @param maxStatements допустимое количество запросов
+     * @param action проверяемое действие
+     * @return статистика выполненных запросов
+     */
+    public QueryStats expectAtMost(int maxStatements, Action action) throws Exception {
+        QueryStats stats = QueryStatsHolder.open();
+        try {
+            action.run();
+        } finally {
+            QueryStatsHolder.close(stats);
+        }
+        Assertions.assertTrue(stats.getStatements() <= maxStatements, () ->
+                "Превышен бюджет SQL-запросов: " + stats.getStatements() + " > " + maxStatements + "\n"
+                        + stats.getStatementCounts().entrySet().stream()
+                        .map(entry -> entry.getValue() + " x " + entry.getKey())
+                        .collect(Collectors.joining("\n")));
+        return stats;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.naujava.taskmanager.monitoring;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Расширение JUnit, внедряющее {@link QueryBudget} в параметры тестовых методов.
+ * <pre>
+ * &#64;ExtendWith(QueryBudgetExtension.class)
+ * class SomeTest {
+ *     &#64;Test
+ *     void endpoint(QueryBudget budget) throws Exception {
+ *         budget.expectAtMost(3, () -&gt; mockMvc.perform(get("/api/tasks")));
+ *     }
+ * }
+ * </pre>
+ */
+public class QueryBudgetExtension implements ParameterResolver {
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryBudget.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return new QueryBudget();
+    }
+}
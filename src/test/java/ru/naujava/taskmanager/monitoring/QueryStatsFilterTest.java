@@ -0,0 +1,76 @@
+package ru.naujava.taskmanager.monitoring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.service.TaskService;
+import ru.naujava.taskmanager.service.UserService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тесты для {@link QueryStatsFilter} и {@link QueryBudget}.
+ */
+@SpringBootTest(properties = "taskmanager.query-stats.header-enabled=true")
+@AutoConfigureMockMvc
+@Transactional
+@ExtendWith(QueryBudgetExtension.class)
+public class QueryStatsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Проверяет заголовки со статистикой SQL-запросов.
+     * <br>
+     * Ожидаемое поведение: ответ содержит количество запросов и время БД.
+     */
+    @Test
+    @WithMockUser(username = "statsuser")
+    public void responseContainsQueryHeaders() throws Exception {
+        User user = userService.register("statsuser", "password", Role.USER);
+        taskService.createTask("Task", user);
+
+        String count = mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(QueryStatsFilter.TIME_HEADER))
+                .andReturn().getResponse().getHeader(QueryStatsFilter.COUNT_HEADER);
+
+        Assertions.assertNotNull(count);
+        Assertions.assertTrue(Integer.parseInt(count) >= 1);
+    }
+
+    /**
+     * Проверяет, что запросы вложенной области учитываются во внешней.
+     * <br>
+     * Ожидаемое поведение: внешняя область содержит запросы HTTP-запроса.
+     */
+    @Test
+    @WithMockUser(username = "statsuser2")
+    public void nestedScopesPropagateToOuter(QueryBudget budget) throws Exception {
+        userService.register("statsuser2", "password", Role.USER);
+
+        QueryStats stats = budget.expectAtMost(10, () -> mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk()));
+
+        Assertions.assertTrue(stats.getStatements() >= 1);
+        Assertions.assertTrue(stats.getStatementCounts().keySet().stream()
+                .anyMatch(sql -> sql.toLowerCase().contains("from tasks")));
+    }
+}
@@ -0,0 +1,162 @@
+package ru.naujava.taskmanager.monitoring;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тесты для {@link TailSamplingSpanProcessor}, {@link SlowTraceStore} и {@link RotatingFileSpanExporter}.
+ */
+public class TailSamplingSpanProcessorTest {
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private SlowTraceStore store;
+    private TailSamplingSpanProcessor processor;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() {
+        file = tempDir.resolve("traces.jsonl");
+        store = new SlowTraceStore(2);
+        processor = new TailSamplingSpanProcessor(store, new RotatingFileSpanExporter(file, 1024 * 1024, 2),
+                Duration.ofMillis(500), 100, Duration.ofMinutes(1));
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tracerProvider.close();
+    }
+
+    /**
+     * Проверяет отбрасывание быстрой трассы без ошибок.
+     * <br>
+     * Ожидаемое поведение: трасса не сохраняется, буфер очищается.
+     */
+    @Test
+    public void fastTraceDropped() throws Exception {
+        trace(100, false);
+
+        Assertions.assertTrue(store.getSlowest().isEmpty());
+        Assertions.assertEquals(0, processor.getPendingTraces());
+        Assertions.assertFalse(Files.exists(file));
+    }
+
+    /**
+     * Проверяет сохранение медленной трассы со всеми span'ами.
+     * <br>
+     * Ожидаемое поведение: сводка содержит span'ы с глубиной вложенности, span'ы записаны в файл.
+     */
+    @Test
+    public void slowTraceKept() throws Exception {
+        trace(800, false);
+
+        List<TraceSummary> traces = store.getSlowest();
+        Assertions.assertEquals(1, traces.size());
+        TraceSummary trace = traces.get(0);
+        Assertions.assertEquals("root", trace.name());
+        Assertions.assertEquals(Duration.ofMillis(800), trace.duration());
+        Assertions.assertFalse(trace.error());
+        Assertions.assertEquals(List.of("root", "child", "query"),
+                trace.spans().stream().map(TraceSummary.SpanSummary::name).toList());
+        Assertions.assertEquals(List.of(0, 1, 2),
+                trace.spans().stream().map(TraceSummary.SpanSummary::depth).toList());
+        Assertions.assertEquals(3, Files.readAllLines(file).size());
+    }
+
+    /**
+     * Проверяет сохранение быстрой трассы с ошибкой в дочернем span'е.
+     * <br>
+     * Ожидаемое поведение: трасса сохраняется с признаком ошибки.
+     */
+    @Test
+    public void errorTraceKept() throws Exception {
+        trace(10, true);
+
+        List<TraceSummary> traces = store.getSlowest();
+        Assertions.assertEquals(1, traces.size());
+        Assertions.assertTrue(traces.get(0).error());
+    }
+
+    /**
+     * Проверяет ограничение емкости хранилища.
+     * <br>
+     * Ожидаемое поведение: сохраняются две самые медленные трассы в порядке убывания длительности.
+     */
+    @Test
+    public void storeKeepsSlowest() throws Exception {
+        trace(600, false);
+        trace(900, false);
+        trace(700, false);
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(900), Duration.ofMillis(700)),
+                store.getSlowest().stream().map(TraceSummary::duration).toList());
+    }
+
+    /**
+     * Проверяет ротацию файла span'ов.
+     * <br>
+     * Ожидаемое поведение: создаются архивные файлы, их число не превышает ограничения.
+     */
+    @Test
+    public void fileRotated() throws Exception {
+        processor = new TailSamplingSpanProcessor(store, new RotatingFileSpanExporter(file, 512, 2),
+                Duration.ZERO, 100, Duration.ofMinutes(1));
+        tracerProvider.close();
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+        tracer = tracerProvider.get("test");
+
+        for (int i = 0; i < 20; i++) {
+            trace(10, false);
+        }
+
+        Assertions.assertTrue(Files.exists(file));
+        Assertions.assertTrue(Files.exists(tempDir.resolve("traces.jsonl.1")));
+        Assertions.assertTrue(Files.exists(tempDir.resolve("traces.jsonl.2")));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("traces.jsonl.3")));
+        Assertions.assertTrue(Files.size(file) <= 512);
+    }
+
+    /**
+     * Создает трассу из корневого, дочернего и вложенного span'ов заданной длительности.
+     */
+    private void trace(long rootMillis, boolean error) {
+        Span root = tracer.spanBuilder("root")
+                .setNoParent()
+                .setStartTimestamp(START_MILLIS, TimeUnit.MILLISECONDS)
+                .startSpan();
+        Span child = tracer.spanBuilder("child")
+                .setParent(Context.root().with(root))
+                .setStartTimestamp(START_MILLIS + 1, TimeUnit.MILLISECONDS)
+                .startSpan();
+        Span query = tracer.spanBuilder("query")
+                .setParent(Context.root().with(child))
+                .setStartTimestamp(START_MILLIS + 2, TimeUnit.MILLISECONDS)
+                .startSpan();
+        if (error) {
+            query.setStatus(StatusCode.ERROR);
+        }
+        query.end(START_MILLIS + 3, TimeUnit.MILLISECONDS);
+        child.end(START_MILLIS + 4, TimeUnit.MILLISECONDS);
+        root.end(START_MILLIS + rootMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.naujava.taskmanager.monitoring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.repository.UserRepository;
+import ru.naujava.taskmanager.security.JwtUtil;
+import ru.naujava.taskmanager.service.TaskService;
+import ru.naujava.taskmanager.service.UserService;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тесты трассировки конвейера обработки запроса и страницы медленных трасс.
+ */
+@SpringBootTest(properties = {
+        "management.tracing.sampling.probability=1.0",
+        "taskmanager.tracing.tail.slow-threshold=0ms"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class TracingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SlowTraceStore slowTraceStore;
+
+    @BeforeEach
+    public void setUp() {
+        slowTraceStore.clear();
+    }
+
+    /**
+     * Проверяет span'ы этапов обработки запроса к API.
+     * <br>
+     * Ожидаемое поведение: трасса запроса содержит span'ы JWT-фильтра, загрузки пользователя,
+     * сервиса задач и SQL-запросов.
+     */
+    @Test
+    public void apiRequestTraced() throws Exception {
+        User user = userRepository.findByUsername("traceuser1")
+                .orElseGet(() -> userService.register("traceuser1", "password", Role.USER));
+        taskService.createTask("Traced task", user);
+        String token = jwtUtil.generateToken(userDetailsService.loadUserByUsername("traceuser1"));
+        slowTraceStore.clear();
+
+        mockMvc.perform(get("/api/tasks").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        TraceSummary trace = slowTraceStore.getSlowest().stream()
+                .filter(summary -> summary.name().contains("/api/tasks"))
+                .findFirst()
+                .orElseThrow();
+        List<String> spans = trace.spans().stream().map(TraceSummary.SpanSummary::name).toList();
+        Assertions.assertTrue(spans.contains("taskmanager.jwt.filter"), spans::toString);
+        Assertions.assertTrue(spans.stream().anyMatch(name -> name.contains("load-user-by-username")),
+                spans::toString);
+        Assertions.assertTrue(spans.stream().anyMatch(name -> name.startsWith("task-service#")), spans::toString);
+        Assertions.assertTrue(spans.contains("query"), spans::toString);
+    }
+
+    /**
+     * Проверяет span рендеринга шаблона и страницу медленных трасс.
+     * <br>
+     * Ожидаемое поведение: трасса страницы задач содержит span рендеринга, страница администратора ее отображает.
+     */
+    @Test
+    @WithMockUser(username = "traceuser2")
+    public void viewRenderingTraced() throws Exception {
+        if (userRepository.findByUsername("traceuser2").isEmpty()) {
+            userService.register("traceuser2", "password", Role.USER);
+        }
+        slowTraceStore.clear();
+
+        mockMvc.perform(get("/tasks")).andExpect(status().isOk());
+
+        TraceSummary trace = slowTraceStore.getSlowest().get(0);
+        Assertions.assertTrue(trace.spans().stream()
+                .anyMatch(span -> span.name().equals(ViewRenderingObservationInterceptor.OBSERVATION_NAME)));
+    }
+
+    /**
+     * Проверяет доступ администратора к странице трасс.
+     * <br>
+     * Ожидаемое поведение: возвращает статус 200 и список трасс.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void tracesPageForAdmin() throws Exception {
+        mockMvc.perform(get("/api/tasks")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/admin/traces"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/api/tasks")));
+    }
+
+    /**
+     * Проверяет доступ обычного пользователя к странице трасс.
+     * <br>
+     * Ожидаемое поведение: перенаправляет на страницу отказа в доступе.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    public void tracesPageForbiddenForUser() throws Exception {
+        mockMvc.perform(get("/admin/traces"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
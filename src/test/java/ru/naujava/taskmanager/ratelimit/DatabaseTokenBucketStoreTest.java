@@ -0,0 +1,59 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.naujava.taskmanager.repository.RateLimitBucketRepository;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тесты для {@link DatabaseTokenBucketStore}: два хранилища с общей таблицей изображают два узла.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class DatabaseTokenBucketStoreTest {
+
+    @Autowired
+    private RateLimitBucketRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long now = TimeUnit.DAYS.toNanos(20_000);
+
+    /**
+     * Запросы одного ключа через два узла.
+     * <br>
+     * Ожидаемое поведение: узлы расходуют общую корзину, после пополнения запросы снова разрешены,
+     * наполнившиеся корзины удаляются из таблицы.
+     */
+    @Test
+    public void nodesShareBuckets() {
+        BucketPolicy policy = new BucketPolicy(2, Duration.ofSeconds(2));
+        DatabaseTokenBucketStore first = new DatabaseTokenBucketStore("test", policy, repository,
+                transactionManager, () -> now);
+        DatabaseTokenBucketStore second = new DatabaseTokenBucketStore("test", policy, repository,
+                transactionManager, () -> now);
+
+        Assertions.assertEquals(1, first.tryConsume("alice"));
+        Assertions.assertEquals(0, second.tryConsume("alice"));
+        Assertions.assertEquals(-TimeUnit.SECONDS.toNanos(1), first.tryConsume("alice"));
+        Assertions.assertEquals(1, second.tryConsume("bob"));
+        Assertions.assertTrue(repository.existsById("test:alice"));
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        Assertions.assertEquals(0, second.tryConsume("alice"));
+
+        now += TimeUnit.MINUTES.toNanos(1);
+        for (int i = 0; i < DatabaseTokenBucketStore.CLEANUP_INTERVAL; i++) {
+            first.tryConsume("carol");
+        }
+        Assertions.assertFalse(repository.existsById("test:alice"));
+        Assertions.assertFalse(repository.existsById("test:bob"));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.naujava.taskmanager.admission.RequestClass;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Тесты для {@link RateLimitFilter} с корзинами в памяти.
+ */
+public class RateLimitFilterTest {
+    private MeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        BucketPolicy read = new BucketPolicy(2, Duration.ofMinutes(1));
+        BucketPolicy login = new BucketPolicy(1, Duration.ofMinutes(1));
+        filter = new RateLimitFilter(
+                Map.of(RequestClass.READ, new StripedTokenBucketStore(read, 1)),
+                Map.of(RequestClass.READ, new StripedTokenBucketStore(read, 1),
+                        RequestClass.LOGIN, new StripedTokenBucketStore(login, 1)),
+                meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Запросы пользователя сверх емкости корзины.
+     * <br>
+     * Ожидаемое поведение: ответы содержат заголовки RateLimit-*, лишний запрос получает 429
+     * с Retry-After, корзина другого пользователя не затронута.
+     */
+    @Test
+    public void throttlesUserOverCapacity() throws Exception {
+        authenticate("alice");
+        MockHttpServletResponse first = perform("GET", "/api/tasks", "10.0.0.1");
+        Assertions.assertEquals(200, first.getStatus());
+        Assertions.assertEquals("2;w=60", first.getHeader(RateLimitFilter.POLICY));
+        Assertions.assertEquals("2", first.getHeader(RateLimitFilter.LIMIT));
+        Assertions.assertEquals("1", first.getHeader(RateLimitFilter.REMAINING));
+        Assertions.assertEquals("30", first.getHeader(RateLimitFilter.RESET));
+        Assertions.assertEquals(200, perform("GET", "/api/tasks/completed", "10.0.0.2").getStatus());
+
+        MockHttpServletResponse throttled = perform("GET", "/api/tasks", "10.0.0.1");
+        Assertions.assertEquals(429, throttled.getStatus());
+        Assertions.assertEquals("0", throttled.getHeader(RateLimitFilter.REMAINING));
+        Assertions.assertEquals("30", throttled.getHeader("Retry-After"));
+        Assertions.assertEquals("application/problem+json", throttled.getContentType());
+        Assertions.assertEquals(1.0, meterRegistry.get("taskmanager.ratelimit.throttled")
+                .tags("class", "read", "key", "user").counter().count());
+
+        authenticate("bob");
+        Assertions.assertEquals(200, perform("GET", "/api/tasks", "10.0.0.1").getStatus());
+    }
+
+    /**
+     * Анонимные попытки входа.
+     * <br>
+     * Ожидаемое поведение: ограничиваются по IP-адресу; классы без корзины и пути вне {@code /api/**}
+     * не ограничиваются.
+     */
+    @Test
+    public void throttlesAnonymousClientsByAddress() throws Exception {
+        Assertions.assertEquals(200, perform("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        Assertions.assertEquals(429, perform("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        Assertions.assertEquals(200, perform("POST", "/api/auth/login", "10.0.0.2").getStatus());
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(200, perform("POST", "/api/tasks", "10.0.0.1").getStatus());
+            Assertions.assertEquals(200, perform("POST", "/login", "10.0.0.1").getStatus());
+        }
+        Assertions.assertNull(perform("POST", "/login", "10.0.0.1").getHeader(RateLimitFilter.LIMIT));
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+}
@@ -0,0 +1,77 @@
+package ru.naujava.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тесты для {@link StripedTokenBucketStore} с часами, управляемыми тестом.
+ */
+public class StripedTokenBucketStoreTest {
+    private long now;
+    private StripedTokenBucketStore store;
+
+    @BeforeEach
+    public void setUp() {
+        now = -TimeUnit.DAYS.toNanos(1);
+        store = new StripedTokenBucketStore(new BucketPolicy(3, Duration.ofSeconds(3)), 4, () -> now);
+    }
+
+    /**
+     * Запросы сверх емкости корзины.
+     * <br>
+     * Ожидаемое поведение: разрешаются {@code capacity} запросов подряд, затем отказ со временем
+     * до следующего токена; корзины разных ключей независимы.
+     */
+    @Test
+    public void consumesBurstThenRejects() {
+        Assertions.assertEquals(2, store.tryConsume("alice"));
+        Assertions.assertEquals(1, store.tryConsume("alice"));
+        Assertions.assertEquals(0, store.tryConsume("alice"));
+        Assertions.assertEquals(-TimeUnit.SECONDS.toNanos(1), store.tryConsume("alice"));
+        Assertions.assertEquals(2, store.tryConsume("bob"));
+
+        now += TimeUnit.MILLISECONDS.toNanos(400);
+        Assertions.assertEquals(-TimeUnit.MILLISECONDS.toNanos(600), store.tryConsume("alice"));
+    }
+
+    /**
+     * Пополнение корзины со временем.
+     * <br>
+     * Ожидаемое поведение: токен возвращается через {@code period / capacity}, корзина не переполняется.
+     */
+    @Test
+    public void refillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            store.tryConsume("alice");
+        }
+        now += TimeUnit.SECONDS.toNanos(1);
+        Assertions.assertEquals(0, store.tryConsume("alice"));
+
+        now += TimeUnit.MINUTES.toNanos(1);
+        Assertions.assertEquals(2, store.tryConsume("alice"));
+    }
+
+    /**
+     * Много клиентов, которые больше не присылают запросов.
+     * <br>
+     * Ожидаемое поведение: наполнившиеся корзины удаляются при добавлении новых, число корзин не растет.
+     */
+    @Test
+    public void evictsIdleBuckets() {
+        for (int i = 0; i < 1000; i++) {
+            store.tryConsume("client-" + i);
+        }
+        Assertions.assertEquals(1000, store.size());
+
+        now += TimeUnit.SECONDS.toNanos(2);
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(2, store.tryConsume("next-" + i));
+            now += TimeUnit.MILLISECONDS.toNanos(5);
+        }
+        Assertions.assertTrue(store.size() < 1000, "size " + store.size());
+    }
+}
@@ -0,0 +1,76 @@
+package ru.naujava.taskmanager.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.naujava.taskmanager.exception.PasswordHashingRejectedException;
+
+import java.time.Duration;
+
+/**
+ * Тесты входа через форму при заполненной очереди хеширования паролей:
+ * {@link FormLoginAuthenticationProvider} и {@link FormLoginFailureHandler}.
+ */
+public class FormLoginAuthenticationProviderTest {
+
+    /**
+     * Проверка пароля, отклоненная пулом хеширования.
+     * <br>
+     * Ожидаемое поведение: ошибка сервиса аутентификации, обработчик отвечает 503 с Retry-After.
+     */
+    @Test
+    public void hashingRejectionBecomesServiceUnavailable() throws Exception {
+        FormLoginAuthenticationProvider provider = new FormLoginAuthenticationProvider(username ->
+                User.withUsername(username).password("{bcrypt}hash").roles("USER").build(), tracker());
+        provider.setPasswordEncoder(new RejectingEncoder());
+
+        AuthenticationServiceException exception = Assertions.assertThrows(AuthenticationServiceException.class,
+                () -> provider.authenticate(new UsernamePasswordAuthenticationToken("user", "password")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new FormLoginFailureHandler().onAuthenticationFailure(new MockHttpServletRequest(), response, exception);
+
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    /**
+     * Неверные учетные данные.
+     * <br>
+     * Ожидаемое поведение: перенаправление на страницу входа с ошибкой.
+     */
+    @Test
+    public void badCredentialsRedirectToLogin() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new FormLoginFailureHandler().onAuthenticationFailure(new MockHttpServletRequest(), response,
+                new BadCredentialsException("Неверный пароль"));
+
+        Assertions.assertEquals("/login?error", response.getRedirectedUrl());
+    }
+
+    private static LoginAttemptTracker tracker() {
+        LoginAttemptTracker.Policy policy = new LoginAttemptTracker.Policy(Duration.ofMinutes(10), 3, 5,
+                Duration.ofSeconds(1), Duration.ofSeconds(4), Duration.ofMinutes(15));
+        return new LoginAttemptTracker(policy, policy, 100, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Кодировщик с заполненной очередью хеширования.
+     */
+    private static class RejectingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new PasswordHashingRejectedException();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            throw new PasswordHashingRejectedException();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.naujava.taskmanager.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Тесты для {@link JwtKeyRing} и перевыпуска токенов в {@link JwtUtil}.
+ */
+public class JwtKeyRingTest {
+    private static final String DEFAULT_SECRET = "default-secret-0123456789-0123456789-0123456789";
+    private static final String NEW_SECRET = "rotated-secret-0123456789-0123456789-0123456789";
+    private static final UserDetails USER = new User("alice", "password", List.of());
+
+    @TempDir
+    Path tempDir;
+
+    private long modified = 1_700_000_000_000L;
+
+    /**
+     * Смена текущего ключа в файле.
+     * <br>
+     * Ожидаемое поведение: изменение подхватывается при следующем перечитывании файла, токены прежнего ключа
+     * действуют и подлежат перевыпуску, файл с ошибкой не применяется, токены удаленного ключа отклоняются.
+     */
+    @Test
+    public void rotatesKeysWithoutRestart() throws IOException {
+        Path file = tempDir.resolve("jwt-keys.properties");
+        write(file, "");
+        JwtKeyRing keyRing = new JwtKeyRing("default", DEFAULT_SECRET, file);
+        JwtUtil jwtUtil = jwtUtil(keyRing, Duration.ofHours(24));
+        String oldToken = jwtUtil.generateToken(USER);
+
+        write(file, "current=2026-10\nkey.2026-10=" + NEW_SECRET);
+        Assertions.assertEquals("default", keyRing.currentKeyId());
+        keyRing.reload();
+        Assertions.assertEquals("2026-10", keyRing.currentKeyId());
+
+        String newToken = jwtUtil.generateToken(USER);
+        Assertions.assertEquals("2026-10", jwtUtil.parseToken(newToken).getHeader().getKeyId());
+        Assertions.assertEquals("alice", jwtUtil.getUsernameFromToken(oldToken));
+        Assertions.assertTrue(jwtUtil.shouldRenew(jwtUtil.parseToken(oldToken)));
+        Assertions.assertFalse(jwtUtil.shouldRenew(jwtUtil.parseToken(newToken)));
+
+        write(file, "current=missing\nkey.2026-10=" + NEW_SECRET);
+        keyRing.reload();
+        Assertions.assertEquals("2026-10", keyRing.currentKeyId());
+
+        write(file, "");
+        keyRing.reload();
+        Assertions.assertEquals("default", keyRing.currentKeyId());
+        Assertions.assertThrows(JwtException.class, () -> jwtUtil.parseToken(newToken));
+        Assertions.assertEquals("alice", jwtUtil.getUsernameFromToken(oldToken));
+    }
+
+    /**
+     * Перевыпуск токена прежнего ключа и токена, близкого к истечению.
+     * <br>
+     * Ожидаемое поведение: токен текущего ключа не перевыпускается, как бы мало ни осталось до истечения;
+     * перевыпущенный токен подписан текущим ключом и сохраняет {@code jti} и срок действия.
+     */
+    @Test
+    public void renewKeepsTokenIdAndExpiry() throws IOException {
+        Path file = tempDir.resolve("jwt-keys.properties");
+        write(file, "");
+        JwtKeyRing keyRing = new JwtKeyRing("default", DEFAULT_SECRET, file);
+        JwtUtil jwtUtil = jwtUtil(keyRing, Duration.ofSeconds(5));
+        Assertions.assertFalse(jwtUtil.shouldRenew(jwtUtil.parseToken(jwtUtil.generateToken(USER))));
+        Jws<Claims> oldToken = jwtUtil.parseToken(jwtUtil.generateToken(USER));
+
+        write(file, "current=2026-10\nkey.2026-10=" + NEW_SECRET);
+        keyRing.reload();
+        Jws<Claims> renewed = jwtUtil.parseToken(jwtUtil.renewToken(oldToken));
+
+        Assertions.assertEquals("2026-10", renewed.getHeader().getKeyId());
+        Assertions.assertEquals(oldToken.getBody().getId(), renewed.getBody().getId());
+        Assertions.assertEquals(oldToken.getBody().getExpiration(), renewed.getBody().getExpiration());
+        Assertions.assertEquals("alice", renewed.getBody().getSubject());
+        Assertions.assertFalse(jwtUtil.shouldRenew(renewed));
+    }
+
+    /**
+     * Периодическое перечитывание файла ключей.
+     * <br>
+     * Ожидаемое поведение: новый текущий ключ подхватывается фоновым потоком без обращения к набору.
+     */
+    @Test
+    public void scheduledReloadPicksUpNewKey() throws Exception {
+        Path file = tempDir.resolve("jwt-keys.properties");
+        write(file, "");
+        try (JwtKeyRing keyRing = new JwtKeyRing("default", DEFAULT_SECRET, file)) {
+            keyRing.scheduleReload(Duration.ofMillis(20));
+            write(file, "current=2026-10\nkey.2026-10=" + NEW_SECRET);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!"2026-10".equals(keyRing.currentKeyId()) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals("2026-10", keyRing.currentKeyId());
+        }
+    }
+
+    private static JwtUtil jwtUtil(JwtKeyRing keyRing, Duration expiration) {
+        JwtUtil jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration.toMillis());
+        return jwtUtil;
+    }
+
+    private void write(Path file, String content) throws IOException {
+        Files.writeString(file, content);
+        modified += 1000;
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+    }
+}
@@ -0,0 +1,87 @@
+package ru.naujava.taskmanager.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * Тесты для {@link LoginAttemptTracker} с часами, управляемыми тестом.
+ */
+public class LoginAttemptTrackerTest {
+    private long now;
+    private LoginAttemptTracker tracker;
+
+    @BeforeEach
+    public void setUp() {
+        now = Duration.ofDays(1).toNanos();
+        LoginAttemptTracker.Policy userPolicy = new LoginAttemptTracker.Policy(Duration.ofMinutes(10), 2, 5,
+                Duration.ofSeconds(1), Duration.ofSeconds(4), Duration.ofMinutes(15));
+        LoginAttemptTracker.Policy addressPolicy = new LoginAttemptTracker.Policy(Duration.ofMinutes(10), 5, 8,
+                Duration.ofSeconds(1), Duration.ofSeconds(4), Duration.ofMinutes(15));
+        tracker = new LoginAttemptTracker(userPolicy, addressPolicy, 100, Duration.ofMinutes(1), () -> now);
+    }
+
+    /**
+     * Серия неудачных попыток входа одного пользователя.
+     * <br>
+     * Ожидаемое поведение: после бесплатных неудач задержка удваивается до максимума, затем пользователь
+     * блокируется; другой пользователь с того же адреса не затронут, успешный вход сбрасывает неудачи.
+     */
+    @Test
+    public void delaysProgressivelyThenLocksOut() {
+        failAndExpect("alice", "10.0.0.1", Duration.ZERO);
+        failAndExpect("alice", "10.0.0.2", Duration.ZERO);
+        failAndExpect("alice", "10.0.0.3", Duration.ofSeconds(1));
+        failAndExpect("alice", "10.0.0.4", Duration.ofSeconds(2));
+        failAndExpect("alice", "10.0.0.5", Duration.ofMinutes(15));
+        Assertions.assertEquals(Duration.ZERO, tracker.retryAfter("bob", "10.0.0.5"));
+
+        now += Duration.ofMinutes(15).toNanos();
+        Assertions.assertEquals(Duration.ZERO, tracker.retryAfter("alice", "10.0.0.1"));
+        tracker.onSuccess("alice");
+        failAndExpect("alice", "10.0.0.1", Duration.ZERO);
+    }
+
+    /**
+     * Перебор имен пользователей с одного адреса.
+     * <br>
+     * Ожидаемое поведение: адрес получает задержку и блокировку по своим порогам, неудачи старше окна
+     * перестают учитываться.
+     */
+    @Test
+    public void throttlesAddressAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            failAndExpect("user" + i, "10.0.0.1", Duration.ZERO);
+        }
+        failAndExpect("user5", "10.0.0.1", Duration.ofSeconds(1));
+        Assertions.assertEquals(Duration.ofSeconds(1), tracker.retryAfter(null, "10.0.0.1"));
+
+        now += Duration.ofMinutes(20).toNanos();
+        failAndExpect("user6", "10.0.0.1", Duration.ZERO);
+    }
+
+    /**
+     * Отрицательный кэш несуществующих имен.
+     * <br>
+     * Ожидаемое поведение: имя хранится до истечения срока или до регистрации.
+     */
+    @Test
+    public void remembersUnknownUsers() {
+        tracker.markUnknownUser("ghost");
+        tracker.markUnknownUser("newcomer");
+        Assertions.assertTrue(tracker.isUnknownUser("ghost"));
+
+        tracker.forgetUnknownUser("newcomer");
+        Assertions.assertFalse(tracker.isUnknownUser("newcomer"));
+
+        now += Duration.ofMinutes(2).toNanos();
+        Assertions.assertFalse(tracker.isUnknownUser("ghost"));
+    }
+
+    private void failAndExpect(String username, String address, Duration retryAfter) {
+        tracker.onFailure(username, address);
+        Assertions.assertEquals(retryAfter, tracker.retryAfter(username, address));
+    }
+}
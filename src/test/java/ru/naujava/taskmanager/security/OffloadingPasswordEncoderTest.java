@@ -0,0 +1,98 @@
+package ru.naujava.taskmanager.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.naujava.taskmanager.exception.PasswordHashingRejectedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тесты для {@link OffloadingPasswordEncoder} и подбора стоимости {@link BCryptCostCalibrator}.
+ */
+public class OffloadingPasswordEncoderTest {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MeterRegistry meterRegistry;
+    private OffloadingPasswordEncoder encoder;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new OffloadingPasswordEncoder(new BlockingEncoder(), 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    /**
+     * Операция с паролем при занятом потоке и заполненной очереди.
+     * <br>
+     * Ожидаемое поведение: вызывающий поток сразу получает отказ, ожидающие операции завершаются
+     * в потоке хеширования после освобождения.
+     */
+    @Test
+    public void rejectsWhenQueueIsFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("second", "x"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        Assertions.assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("third"));
+        Assertions.assertEquals(1.0, meterRegistry.get("taskmanager.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        Assertions.assertEquals("password-hashing-1:first", running.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Подбор стоимости BCrypt.
+     * <br>
+     * Ожидаемое поведение: выбирается наибольшая стоимость, при которой удвоенное время не превышает цель,
+     * но не меньше минимальной.
+     */
+    @Test
+    public void choosesCostForTargetTime() {
+        Assertions.assertEquals(12, BCryptCostCalibrator.chooseCost(60, 250, 10));
+        Assertions.assertEquals(10, BCryptCostCalibrator.chooseCost(300, 250, 10));
+        Assertions.assertEquals(10, BCryptCostCalibrator.chooseCost(200, 250, 10));
+    }
+
+    /**
+     * Кодировщик, который ждет разрешения теста и возвращает имя потока, в котором выполнялся.
+     */
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            await();
+            return Thread.currentThread().getName() + ":" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return false;
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
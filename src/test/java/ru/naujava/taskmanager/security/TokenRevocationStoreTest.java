@@ -0,0 +1,157 @@
+package ru.naujava.taskmanager.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.RevokedToken;
+import ru.naujava.taskmanager.repository.RevokedTokenRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Тесты для {@link TokenRevocationStore}: два хранилища с общей таблицей изображают два узла.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class TokenRevocationStoreTest {
+    private static final Duration LIFETIME = Duration.ofHours(1);
+
+    @Autowired
+    private RevokedTokenRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long now = System.currentTimeMillis();
+
+    @AfterEach
+    public void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    /**
+     * Отзыв токена и всех токенов пользователя на одном узле.
+     * <br>
+     * Ожидаемое поведение: второй узел видит отзыв после подгрузки, токены пользователя, выданные
+     * после отзыва, действительны, истекшие записи удаляются из памяти и таблицы.
+     */
+    @Test
+    public void nodesShareRevocations() {
+        TokenRevocationStore first = store();
+        TokenRevocationStore second = store();
+        Date issued = new Date(now - 60_000);
+
+        first.revoke("token-1", "alice", new Date(now + 60_000));
+        Assertions.assertTrue(first.isRevoked("token-1", "alice", issued));
+        Assertions.assertFalse(first.isRevoked("token-2", "alice", issued));
+        Assertions.assertFalse(second.isRevoked("token-1", "alice", issued));
+
+        second.revokeAll("bob");
+        Assertions.assertTrue(second.isRevoked("token-3", "bob", issued));
+        now += 1_000;
+        first.refresh();
+        second.refresh();
+        Assertions.assertTrue(second.isRevoked("token-1", "alice", issued));
+        Assertions.assertTrue(first.isRevoked("token-3", "bob", issued));
+        Assertions.assertFalse(first.isRevoked("token-4", "bob", new Date(now)));
+
+        now += LIFETIME.toMillis();
+        first.refresh();
+        Assertions.assertFalse(first.isRevoked("token-1", "alice", issued));
+        Assertions.assertFalse(first.isRevoked("token-3", "bob", issued));
+        Assertions.assertEquals(0, first.size());
+        Assertions.assertEquals(0, repository.count());
+    }
+
+    /**
+     * Отзыв внутри транзакции.
+     * <br>
+     * Ожидаемое поведение: до фиксации токены не отозваны; после отката они не отозваны ни в памяти,
+     * ни в таблице, после фиксации — отозваны.
+     */
+    @Test
+    public void revocationAppliesAfterCommit() {
+        TokenRevocationStore store = store();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Date issued = new Date(now - 60_000);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.revokeAll("carol");
+            store.revoke("token-5", "dave", new Date(now + 60_000));
+            Assertions.assertFalse(store.isRevoked("token-6", "carol", issued));
+            status.setRollbackOnly();
+        });
+        Assertions.assertFalse(store.isRevoked("token-6", "carol", issued));
+        Assertions.assertFalse(store.isRevoked("token-5", "dave", issued));
+        Assertions.assertEquals(0, repository.count());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.revokeAll("carol");
+            store.revoke("token-5", "dave", new Date(now + 60_000));
+        });
+        Assertions.assertTrue(store.isRevoked("token-6", "carol", issued));
+        Assertions.assertTrue(store.isRevoked("token-5", "dave", issued));
+        Assertions.assertEquals(2, repository.count());
+    }
+
+    /**
+     * Нагрузочная проверка: отозванные токены загружены при запуске, фильтр проверяет
+     * в основном неотозванные токены.
+     * <br>
+     * Ожидаемое поведение: проверка занимает в среднем меньше микросекунды, доля ложных срабатываний
+     * фильтра Блума близка к расчетной.
+     */
+    @Test
+    public void lookupAddsNegligibleLatency() {
+        List<RevokedToken> revoked = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            revoked.add(new RevokedToken(UUID.randomUUID().toString(), "user" + i, now, now + 60_000));
+        }
+        repository.saveAll(revoked);
+        TokenRevocationStore store = new TokenRevocationStore(repository, transactionManager, LIFETIME,
+                2_000, () -> now);
+        store.refresh();
+        Assertions.assertEquals(2_000, store.size());
+
+        String[] tokens = new String[4096];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = i % 64 == 0 ? revoked.get(i / 64).getKey() : UUID.randomUUID().toString();
+        }
+        Date issued = new Date(now);
+        int lookups = 2_000_000;
+        int revokedCount = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (store.isRevoked(tokens[i & (tokens.length - 1)], "someone", issued)) {
+                revokedCount++;
+            }
+        }
+        double nanosPerLookup = (double) (System.nanoTime() - start) / lookups;
+
+        Assertions.assertEquals(lookups / 64, revokedCount);
+        Assertions.assertTrue(nanosPerLookup < 1_000, "lookup took " + nanosPerLookup + " ns");
+
+        BloomFilter bloomFilter = new BloomFilter(2_000, TokenRevocationStore.FALSE_POSITIVE_RATE);
+        revoked.forEach(token -> bloomFilter.put(token.getKey()));
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloomFilter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    private TokenRevocationStore store() {
+        return new TokenRevocationStore(repository, transactionManager, LIFETIME, 1_000, () -> now);
+    }
+}
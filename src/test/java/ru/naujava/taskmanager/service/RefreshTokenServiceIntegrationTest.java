@@ -0,0 +1,50 @@
+package ru.naujava.taskmanager.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Тесты для сервиса refresh-токенов {@link RefreshTokenService}.
+ * Токены «истекают» прямым изменением {@code expires_at}.
+ */
+@SpringBootTest
+public class RefreshTokenServiceIntegrationTest {
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Проверяет периодическое удаление истекших refresh-токенов.
+     * <br>
+     * Ожидаемое поведение: истекший токен удаляется и больше не обменивается, действующий остается.
+     */
+    @Test
+    public void deleteExpiredKeepsValidTokens() {
+        User user = userService.register("refresh-cleanup", "password123", Role.USER);
+        String expired = refreshTokenService.issue(user);
+        String valid = refreshTokenService.issue(user);
+        jdbcTemplate.update("update refresh_tokens set expires_at = ? where user_id = ? and id = "
+                        + "(select min(id) from refresh_tokens where user_id = ?)",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), user.getId(), user.getId());
+
+        Assertions.assertTrue(refreshTokenService.deleteExpired() >= 1);
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from refresh_tokens where user_id = ?", Integer.class, user.getId()));
+        Assertions.assertTrue(refreshTokenService.rotate(expired).isEmpty());
+        Assertions.assertTrue(refreshTokenService.rotate(valid).isPresent());
+    }
+}
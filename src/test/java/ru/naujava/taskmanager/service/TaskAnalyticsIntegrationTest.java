@@ -0,0 +1,124 @@
+package ru.naujava.taskmanager.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.CompletionLatencyBucket;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.Task;
+import ru.naujava.taskmanager.entity.User;
+
+import java.time.LocalDate;
+
+/**
+ * Тесты для аналитики задач {@link TaskAnalyticsRecorder} и {@link TaskAnalyticsService}.
+ * Приращения учитываются после фиксации транзакции, поэтому тесты не транзакционные,
+ * используют собственные имена и сравнивают итоги сегодняшнего дня до и после действий.
+ */
+@SpringBootTest
+public class TaskAnalyticsIntegrationTest {
+    @Autowired
+    private TaskAnalyticsRecorder recorder;
+
+    @Autowired
+    private TaskAnalyticsService analyticsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void flushPending() {
+        recorder.flush();
+    }
+
+    /**
+     * Проверяет учет создания и выполнения задач.
+     * <br>
+     * Ожидаемое поведение: итоги дня увеличиваются на число созданных и выполненных задач
+     * и новых активных пользователей, выполнение попадает в интервал «до часа».
+     */
+    @Test
+    public void createAndCompleteAreCounted() {
+        TaskAnalyticsService.Dashboard before = analyticsService.dashboard(1);
+        User first = userService.register("analytics-first", "password123", Role.USER);
+        User second = userService.register("analytics-second", "password123", Role.USER);
+
+        Task task = taskService.createTask("Аналитика 1", first);
+        taskService.createTask("Аналитика 2", first);
+        taskService.createTask("Аналитика 3", second);
+        taskService.markTaskAsDone(task.getId(), first);
+        taskService.markTaskAsDone(task.getId(), first);
+        recorder.flush();
+
+        TaskAnalyticsService.Dashboard after = analyticsService.dashboard(1);
+        Assertions.assertEquals(before.tasksCreated() + 3, after.tasksCreated());
+        Assertions.assertEquals(before.tasksCompleted() + 1, after.tasksCompleted());
+        Assertions.assertEquals(before.days().get(0).activeUsers() + 2, after.days().get(0).activeUsers());
+        Assertions.assertEquals(before.latency().get(CompletionLatencyBucket.UNDER_HOUR) + 1,
+                after.latency().get(CompletionLatencyBucket.UNDER_HOUR));
+    }
+
+    /**
+     * Проверяет возврат выполненной задачи в активные.
+     * <br>
+     * Ожидаемое поведение: выполнение вычитается из итогов дня и из распределения времени выполнения.
+     */
+    @Test
+    public void reopenSubtractsCompletion() {
+        User user = userService.register("analytics-reopen", "password123", Role.USER);
+        Task task = taskService.createTask("Аналитика возврат", user);
+        taskService.markTaskAsDone(task.getId(), user);
+        recorder.flush();
+        TaskAnalyticsService.Dashboard before = analyticsService.dashboard(1);
+
+        taskService.markTaskAsNotDone(task.getId(), user);
+        recorder.flush();
+
+        TaskAnalyticsService.Dashboard after = analyticsService.dashboard(1);
+        Assertions.assertEquals(before.tasksCompleted() - 1, after.tasksCompleted());
+        Assertions.assertEquals(before.latency().get(CompletionLatencyBucket.UNDER_HOUR) - 1,
+                after.latency().get(CompletionLatencyBucket.UNDER_HOUR));
+        Assertions.assertNull(taskService.findTaskByIdAndUser(task.getId(), user).getCompletedAt());
+    }
+
+    /**
+     * Проверяет, что изменения откатанной транзакции не учитываются.
+     * <br>
+     * Ожидаемое поведение: итоги дня не меняются.
+     */
+    @Test
+    public void rolledBackChangesAreIgnored() {
+        User user = userService.register("analytics-rollback", "password123", Role.USER);
+        TaskAnalyticsService.Dashboard before = analyticsService.dashboard(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.createTask("Аналитика откат", user);
+            status.setRollbackOnly();
+        });
+        recorder.flush();
+
+        Assertions.assertEquals(before.tasksCreated(), analyticsService.dashboard(1).tasksCreated());
+    }
+
+    /**
+     * Проверяет ряд дней за период.
+     * <br>
+     * Ожидаемое поведение: возвращается по строке на каждый день периода, последняя — сегодняшний день.
+     */
+    @Test
+    public void dashboardContainsEveryDay() {
+        TaskAnalyticsService.Dashboard dashboard = analyticsService.dashboard(30);
+
+        Assertions.assertEquals(30, dashboard.days().size());
+        Assertions.assertEquals(LocalDate.now(), dashboard.days().get(29).date());
+    }
+}
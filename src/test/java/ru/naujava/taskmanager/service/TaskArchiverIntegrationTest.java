@@ -0,0 +1,229 @@
+package ru.naujava.taskmanager.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.Task;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.exception.DuplicateTaskException;
+import ru.naujava.taskmanager.repository.ArchivedTaskRepository;
+import ru.naujava.taskmanager.repository.TaskRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Тесты для архива выполненных задач {@link TaskArchiver} и чтения архива через {@link TaskService}.
+ * Перенос выполняется несколькими транзакциями, поэтому тесты не транзакционные и используют собственные имена;
+ * задачи «стареют» прямым изменением {@code updated_at}.
+ */
+@SpringBootTest
+public class TaskArchiverIntegrationTest {
+    @Autowired
+    private TaskArchiver archiver;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Проверяет перенос старых выполненных задач в архив.
+     * <br>
+     * Ожидаемое поведение: переносятся только старые выполненные задачи пользователя, несколькими пачками;
+     * списки выполненных и всех задач по-прежнему содержат их по возрастанию ID.
+     */
+    @Test
+    public void archivesOldCompletedTasks() {
+        User user = userService.register("archive-move", "password123", Role.USER);
+        List<Task> done = createCompleted(user, "Архив", 3);
+        Task recent = taskService.createTask("Архив недавняя", user);
+        taskService.markTaskAsDone(recent.getId(), user);
+        Task active = taskService.createTask("Архив активная", user);
+        age(user);
+        taskService.markTaskAsDone(recent.getId(), user);
+        jdbcTemplate.update("update tasks set updated_at = ? where id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), recent.getId());
+
+        int moved = archiver.archive(LocalDateTime.now().minusDays(90));
+
+        Assertions.assertEquals(3, moved);
+        Assertions.assertEquals(3, archivedTaskRepository.findByUser_IdOrderByIdAsc(user.getId()).size());
+        Assertions.assertEquals(List.of(recent.getId()),
+                taskRepository.findByUser_IdAndIsDoneTrueOrderByIdAsc(user.getId()).stream().map(Task::getId).toList());
+        Assertions.assertEquals(List.of(active.getId()),
+                taskService.findActiveTasksByUser(user).stream().map(Task::getId).toList());
+        Assertions.assertEquals(List.of(done.get(0).getId(), done.get(1).getId(), done.get(2).getId(), recent.getId()),
+                taskService.findCompletedTasksByUser(user).stream().map(Task::getId).toList());
+        Assertions.assertEquals(List.of(done.get(0).getId(), done.get(1).getId(), done.get(2).getId(), recent.getId(),
+                        active.getId()),
+                taskService.findAllTasksByUser(user).stream().map(Task::getId).toList());
+        Assertions.assertEquals("Архив 1", taskService.findTaskByIdAndUser(done.get(0).getId(), user).getDescription());
+    }
+
+    /**
+     * Проверяет постраничное чтение выполненных задач из обеих таблиц.
+     * <br>
+     * Ожидаемое поведение: страницы идут по возрастанию ID без повторов и пропусков, у последней нет продолжения.
+     */
+    @Test
+    public void completedPagesSpanHotAndArchivedTasks() {
+        User user = userService.register("archive-pages", "password123", Role.USER);
+        List<Task> archived = createCompleted(user, "Страницы", 2);
+        age(user);
+        archiver.archive(LocalDateTime.now().minusDays(90));
+        List<Task> hot = createCompleted(user, "Страницы новая", 2);
+
+        TaskService.CompletedTasksPage first = taskService.findCompletedTasksByUser(user, null, 3);
+        TaskService.CompletedTasksPage second = taskService.findCompletedTasksByUser(user, first.next(), 3);
+
+        Assertions.assertEquals(List.of(archived.get(0).getId(), archived.get(1).getId(), hot.get(0).getId()),
+                first.tasks().stream().map(Task::getId).toList());
+        Assertions.assertEquals(List.of(hot.get(1).getId()), second.tasks().stream().map(Task::getId).toList());
+        Assertions.assertNull(second.next());
+    }
+
+    /**
+     * Проверяет возврат архивной задачи в активные и удаление архивной задачи.
+     * <br>
+     * Ожидаемое поведение: задача возвращается в {@code tasks} под тем же ID и исчезает из архива;
+     * удаленная архивная задача больше не находится.
+     */
+    @Test
+    public void reopenAndDeleteArchivedTask() {
+        User user = userService.register("archive-reopen", "password123", Role.USER);
+        List<Task> archived = createCompleted(user, "Возврат", 2);
+        age(user);
+        archiver.archive(LocalDateTime.now().minusDays(90));
+
+        Task reopened = taskService.markTaskAsNotDone(archived.get(0).getId(), user);
+        taskService.deleteTaskByIdAndUser(archived.get(1).getId(), user);
+
+        Assertions.assertEquals(archived.get(0).getId(), reopened.getId());
+        Assertions.assertFalse(reopened.isDone());
+        Assertions.assertEquals(List.of(archived.get(0).getId()),
+                taskService.findActiveTasksByUser(user).stream().map(Task::getId).toList());
+        Assertions.assertTrue(archivedTaskRepository.findByUser_IdOrderByIdAsc(user.getId()).isEmpty());
+        Assertions.assertTrue(taskService.findCompletedTasksByUser(user).isEmpty());
+    }
+
+    /**
+     * Проверяет создание и переименование задачи с описанием архивной задачи.
+     * <br>
+     * Ожидаемое поведение: выбрасывается DuplicateTaskException, как для задачи в {@code tasks}.
+     */
+    @Test
+    public void archivedDescriptionsAreDuplicates() {
+        User user = userService.register("archive-duplicate", "password123", Role.USER);
+        createCompleted(user, "Дубликат", 1);
+        age(user);
+        archiver.archive(LocalDateTime.now().minusDays(90));
+        Task active = taskService.createTask("Дубликат активная", user);
+
+        Assertions.assertThrows(DuplicateTaskException.class, () -> taskService.createTask("Дубликат 1", user));
+        Assertions.assertThrows(DuplicateTaskException.class,
+                () -> taskService.updateTaskDescription(active.getId(), "Дубликат 1", user));
+    }
+
+    /**
+     * Проверяет возврат задачи в активные, пока та же задача переносится в архив.
+     * <br>
+     * Ожидаемое поведение: возврат дожидается конца переноса и возвращает задачу из архива
+     * под тем же ID без ошибки.
+     */
+    @Test
+    public void reopenWaitsForConcurrentArchiving() throws Exception {
+        User user = userService.register("archive-race", "password123", Role.USER);
+        Task task = createCompleted(user, "Гонка", 1).get(0);
+        age(user);
+        CountDownLatch locked = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        CompletableFuture<Void> archiving = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    List<Long> ids = taskRepository.findArchivableIds(LocalDateTime.now().minusDays(90),
+                            PageRequest.of(0, 10));
+                    Assertions.assertTrue(ids.contains(task.getId()));
+                    locked.countDown();
+                    sleep(300);
+                    archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+                    taskRepository.deleteDoneByIds(ids);
+                }));
+        Assertions.assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        Task reopened = taskService.markTaskAsNotDone(task.getId(), user);
+        archiving.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(task.getId(), reopened.getId());
+        Assertions.assertFalse(reopened.isDone());
+        Assertions.assertEquals(List.of(task.getId()),
+                taskService.findActiveTasksByUser(user).stream().map(Task::getId).toList());
+        Assertions.assertTrue(archivedTaskRepository.findByUser_IdOrderByIdAsc(user.getId()).isEmpty());
+    }
+
+    /**
+     * Проверяет удаление пользователя с архивными задачами.
+     * <br>
+     * Ожидаемое поведение: удаляются и активные, и архивные задачи, пользователь удален.
+     */
+    @Test
+    public void deleteUserRemovesArchivedTasks() {
+        User user = userService.register("archive-delete", "password123", Role.USER);
+        createCompleted(user, "Удаление", 4);
+        age(user);
+        archiver.archive(LocalDateTime.now().minusDays(90));
+        taskService.createTask("Удаление активная", user);
+
+        long deleted = userAdminService.delete(user.getId(), "admin");
+
+        Assertions.assertEquals(5, deleted);
+        Assertions.assertTrue(archivedTaskRepository.findByUser_IdOrderByIdAsc(user.getId()).isEmpty());
+        Assertions.assertTrue(userService.findByUsername("archive-delete").isEmpty());
+    }
+
+    private List<Task> createCompleted(User user, String prefix, int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> taskService.markTaskAsDone(taskService.createTask(prefix + " " + i, user).getId(), user))
+                .toList();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void age(User user) {
+        jdbcTemplate.update("update tasks set updated_at = ? where user_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(100)), user.getId());
+    }
+}
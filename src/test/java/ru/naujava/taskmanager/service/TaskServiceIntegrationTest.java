@@ -8,6 +8,7 @@ import org.springframework.test.context.ActiveProfiles;
 import ru.naujava.taskmanager.entity.Role;
 import ru.naujava.taskmanager.entity.Task;
 import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.exception.TaskNotFoundException;
 
 import java.util.List;
 
@@ -123,6 +124,8 @@ public class TaskServiceIntegrationTest {
                 () -> taskService.deleteTaskByIdAndUser(999L, user));
 
         Assertions.assertEquals("Задача не найдена", exception.getMessage());
+        Assertions.assertInstanceOf(TaskNotFoundException.class, exception);
+        Assertions.assertEquals(0, exception.getStackTrace().length);
     }
 
     /**
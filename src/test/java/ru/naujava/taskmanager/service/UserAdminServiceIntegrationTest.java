@@ -0,0 +1,183 @@
+package ru.naujava.taskmanager.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import ru.naujava.taskmanager.entity.ApiKeyScope;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.repository.TaskRepository;
+import ru.naujava.taskmanager.security.TokenRevocationStore;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Тесты для сервиса управления пользователями {@link UserAdminService}.
+ * Удаление выполняет несколько транзакций, поэтому тесты не транзакционные и используют собственные имена.
+ */
+@SpringBootTest
+public class UserAdminServiceIntegrationTest {
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ApiKeyService apiKeyService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    /**
+     * Проверяет удаление пользователя, у которого задач больше размера части удаления.
+     * <br>
+     * Ожидаемое поведение: удаляются все задачи, API-ключи, refresh-токены и сам пользователь.
+     */
+    @Test
+    public void deleteRemovesUserWithTasksInChunks() {
+        User user = userService.register("admin-delete", "password123", Role.USER);
+        for (int i = 0; i < 10; i++) {
+            taskService.createTask("Задача " + i, user);
+        }
+        String apiKey = apiKeyService.create("admin-delete", "ci", Set.of(ApiKeyScope.TASKS_READ), null).key();
+        String refreshToken = refreshTokenService.issue(user);
+
+        long deleted = userAdminService.delete(user.getId(), "admin");
+
+        Assertions.assertEquals(10, deleted);
+        Assertions.assertTrue(userService.findByUsername("admin-delete").isEmpty());
+        Assertions.assertTrue(taskRepository.findByUser_IdOrderByIdAsc(user.getId()).isEmpty());
+        Assertions.assertTrue(apiKeyService.authenticate(apiKey).isEmpty());
+        Assertions.assertTrue(refreshTokenService.rotate(refreshToken).isEmpty());
+    }
+
+    /**
+     * Проверяет блокировку и разблокировку пользователя.
+     * <br>
+     * Ожидаемое поведение: заблокированный пользователь не проходит проверку пароля и JWT-аутентификацию,
+     * его ранее выданные токены и API-ключи не принимаются; после разблокировки вход снова возможен.
+     */
+    @Test
+    public void lockRejectsLoginTokensAndKeys() {
+        User user = userService.register("admin-lock", "password123", Role.USER);
+        String apiKey = apiKeyService.create("admin-lock", "ci", Set.of(ApiKeyScope.TASKS_READ), null).key();
+        Assertions.assertTrue(apiKeyService.authenticate(apiKey).isPresent());
+        String refreshToken = refreshTokenService.issue(user);
+        Date issuedAt = new Date();
+
+        userAdminService.setLocked(user.getId(), true, "admin");
+
+        Assertions.assertTrue(userService.authenticate("admin-lock", "password123").isEmpty());
+        Assertions.assertFalse(userDetailsService.loadUserByUsername("admin-lock").isAccountNonLocked());
+        Assertions.assertTrue(tokenRevocationStore.isRevoked("jti", "admin-lock", issuedAt));
+        Assertions.assertTrue(apiKeyService.authenticate(apiKey).isEmpty());
+        Assertions.assertTrue(refreshTokenService.rotate(refreshToken).isEmpty());
+
+        userAdminService.setLocked(user.getId(), false, "admin");
+
+        Assertions.assertTrue(userService.authenticate("admin-lock", "password123").isPresent());
+    }
+
+    /**
+     * Проверяет действия администратора над собственной учетной записью.
+     * <br>
+     * Ожидаемое поведение: выбрасывается IllegalArgumentException, пользователь не меняется.
+     */
+    @Test
+    public void cannotLockOrDeleteSelf() {
+        User user = userService.register("admin-self", "password123", Role.ADMIN);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> userAdminService.setLocked(user.getId(), true, "admin-self"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> userAdminService.delete(user.getId(), "admin-self"));
+
+        Assertions.assertFalse(userService.findByUsername("admin-self").orElseThrow().isLocked());
+    }
+
+    /**
+     * Проверяет поиск пользователей по части имени.
+     * <br>
+     * Ожидаемое поведение: возвращает только подходящих пользователей с числом их задач.
+     */
+    @Test
+    public void findUsersByNameWithTaskCounts() {
+        User user = userService.register("admin-search-target", "password123", Role.USER);
+        taskService.createTask("Первая", user);
+        taskService.createTask("Вторая", user);
+        userService.register("admin-search-other", "password123", Role.USER);
+
+        UserAdminService.UserDirectoryPage page =
+                userAdminService.findUsers("SEARCH-TARGET", UserAdminService.SearchMode.CONTAINS, null, 10);
+
+        Assertions.assertEquals(1, page.users().size());
+        Assertions.assertNull(page.next());
+        UserAdminService.UserSummary summary = page.users().get(0);
+        Assertions.assertEquals("admin-search-target", summary.username());
+        Assertions.assertEquals(2, summary.taskCount());
+        Assertions.assertFalse(summary.locked());
+    }
+
+    /**
+     * Проверяет поиск по началу имени с постраничным выводом.
+     * <br>
+     * Ожидаемое поведение: страницы идут по возрастанию имени без повторов и пропусков,
+     * у последней страницы нет продолжения; поиск по началу не находит имена, содержащие запрос в середине.
+     */
+    @Test
+    public void findUsersByPrefixWithKeysetPages() {
+        for (int i = 1; i <= 5; i++) {
+            userService.register("Admin-Keyset-" + i, "password123", Role.USER);
+        }
+        userService.register("x-admin-keyset", "password123", Role.USER);
+
+        UserAdminService.UserDirectoryPage first =
+                userAdminService.findUsers("admin-keyset", UserAdminService.SearchMode.PREFIX, null, 2);
+        UserAdminService.UserDirectoryPage second =
+                userAdminService.findUsers("admin-keyset", UserAdminService.SearchMode.PREFIX, first.next(), 2);
+        UserAdminService.UserDirectoryPage last =
+                userAdminService.findUsers("admin-keyset", UserAdminService.SearchMode.PREFIX, second.next(), 2);
+
+        Assertions.assertEquals(List.of("Admin-Keyset-1", "Admin-Keyset-2"), usernames(first));
+        Assertions.assertEquals(List.of("Admin-Keyset-3", "Admin-Keyset-4"), usernames(second));
+        Assertions.assertEquals(List.of("Admin-Keyset-5"), usernames(last));
+        Assertions.assertNull(last.next());
+    }
+
+    /**
+     * Проверяет, что символы шаблона LIKE в запросе ищутся буквально.
+     * <br>
+     * Ожидаемое поведение: запрос со знаком подчеркивания не совпадает с произвольным символом.
+     */
+    @Test
+    public void findUsersEscapesLikeWildcards() {
+        userService.register("admin_escape", "password123", Role.USER);
+        userService.register("adminxescape", "password123", Role.USER);
+
+        UserAdminService.UserDirectoryPage page =
+                userAdminService.findUsers("admin_esc", UserAdminService.SearchMode.PREFIX, null, 10);
+
+        Assertions.assertEquals(List.of("admin_escape"), usernames(page));
+    }
+
+    private static List<String> usernames(UserAdminService.UserDirectoryPage page) {
+        return page.users().stream().map(UserAdminService.UserSummary::username).toList();
+    }
+}
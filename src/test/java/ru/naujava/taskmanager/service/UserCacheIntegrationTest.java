@@ -0,0 +1,145 @@
+package ru.naujava.taskmanager.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.naujava.taskmanager.entity.Role;
+import ru.naujava.taskmanager.entity.User;
+import ru.naujava.taskmanager.monitoring.QueryBudget;
+import ru.naujava.taskmanager.monitoring.QueryBudgetExtension;
+import ru.naujava.taskmanager.repository.UserRepository;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тесты кэша второго уровня для пользователей: поиск по имени без SQL при попадании в кэш,
+ * вытеснение при изменении пароля и проверка пароля мимо кэша.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(QueryBudgetExtension.class)
+public class UserCacheIntegrationTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Повторный поиск пользователя по имени.
+     * <br>
+     * Ожидаемое поведение: пользователь берется из кэша без SQL-запросов.
+     */
+    @Test
+    public void findByUsernameIsServedFromCache(QueryBudget budget) throws Exception {
+        userService.register("cacheduser1", "password", Role.USER);
+        userRepository.findByUsername("cacheduser1").orElseThrow();
+
+        budget.expectAtMost(0, () -> {
+            User user = userRepository.findByUsername("cacheduser1").orElseThrow();
+            Assertions.assertEquals("cacheduser1", user.getUsername());
+        });
+        budget.expectAtMost(0, () ->
+                Assertions.assertTrue(userRepository.findByUsername("cacheduser1").isPresent()));
+    }
+
+    /**
+     * Поиск пользователя после смены пароля.
+     * <br>
+     * Ожидаемое поведение: возвращается пользователь с новым паролем.
+     */
+    @Test
+    public void changePasswordEvictsCachedUser() {
+        userService.register("cacheduser2", "password", Role.USER);
+        userRepository.findByUsername("cacheduser2").orElseThrow();
+
+        userService.changePassword("cacheduser2", "password", "newpassword");
+
+        User user = userRepository.findByUsername("cacheduser2").orElseThrow();
+        Assertions.assertTrue(passwordEncoder.matches("newpassword", user.getPassword()));
+    }
+
+    /**
+     * Вход после смены пароля и блокировки на другом узле: строка пользователя изменена в базе,
+     * а в локальном кэше остались прежние пароль и признак блокировки.
+     * <br>
+     * Ожидаемое поведение: вход через API, через форму и {@link UserService#authenticate} со старым
+     * паролем и вход заблокированного пользователя не проходят.
+     */
+    @Test
+    public void loginIgnoresStaleCachedUser() throws Exception {
+        changePasswordBehindCache("cachedlogin1");
+        changePasswordBehindCache("cachedlogin2");
+        changePasswordBehindCache("cachedlogin3");
+        userService.register("cachedlogin4", "password", Role.USER);
+        userRepository.findByUsername("cachedlogin4").orElseThrow();
+        jdbcTemplate.update("update users set locked = true where username = ?", "cachedlogin4");
+        Assertions.assertFalse(userRepository.findByUsername("cachedlogin4").orElseThrow().isLocked(),
+                "в кэше прежний признак блокировки");
+
+        performApiLogin("cachedlogin1", "password").andExpect(status().isUnauthorized());
+        mockMvc.perform(formLogin("/login").user("cachedlogin2").password("password"))
+                .andExpect(unauthenticated());
+        Assertions.assertTrue(userService.authenticate("cachedlogin3", "password").isEmpty());
+        performApiLogin("cachedlogin4", "password").andExpect(status().isForbidden());
+        performApiLogin("cachedlogin1", "newpassword").andExpect(status().isOk());
+    }
+
+    /**
+     * Проверяет публикацию статистики регионов кэша.
+     * <br>
+     * Ожидаемое поведение: есть метрика попаданий в регион пользователей.
+     */
+    @Test
+    public void cacheRegionStatisticsArePublished() {
+        userService.register("cacheduser3", "password", Role.USER);
+        userRepository.findByUsername("cacheduser3").orElseThrow();
+        userRepository.findByUsername("cacheduser3").orElseThrow();
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", User.CACHE_REGION, "result", "hit")
+                .functionCounter();
+        Assertions.assertNotNull(hits);
+        Assertions.assertTrue(hits.count() > 0);
+    }
+
+    private void changePasswordBehindCache(String username) {
+        userService.register(username, "password", Role.USER);
+        userRepository.findByUsername(username).orElseThrow();
+        jdbcTemplate.update("update users set password = ? where username = ?",
+                passwordEncoder.encode("newpassword"), username);
+        Assertions.assertTrue(passwordEncoder.matches("password",
+                userRepository.findByUsername(username).orElseThrow().getPassword()), "в кэше прежний пароль");
+    }
+
+    private ResultActions performApiLogin(String username, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+    }
+}
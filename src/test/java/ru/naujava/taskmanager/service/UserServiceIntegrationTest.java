@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import ru.naujava.taskmanager.entity.Role;
@@ -144,4 +145,27 @@ public class UserServiceIntegrationTest {
         Assertions.assertNotNull(savedUser.getId());
         Assertions.assertEquals("saveuser", savedUser.getUsername());
     }
+
+    /**
+     * Проверяет вход пользователя с хешем пароля старого формата (без префикса алгоритма).
+     * <br>
+     * Ожидаемое поведение: неверный пароль не меняет хеш, после успешного входа хеш заменяется
+     * на {@code {bcrypt}} и пароль по-прежнему подходит.
+     */
+    @Test
+    public void authenticateRehashesLegacyPassword() {
+        User user = userService.register("legacyuser", "password", Role.USER);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+        user.setPassword(legacyHash);
+        userService.save(user);
+
+        Assertions.assertTrue(userService.authenticate("legacyuser", "wrongpassword").isEmpty());
+        Assertions.assertEquals(legacyHash, userService.findByUsername("legacyuser").orElseThrow().getPassword());
+
+        Assertions.assertTrue(userService.authenticate("legacyuser", "password").isPresent());
+        String rehashed = userService.findByUsername("legacyuser").orElseThrow().getPassword();
+        Assertions.assertTrue(rehashed.startsWith("{bcrypt}"), rehashed);
+        Assertions.assertFalse(passwordEncoder.upgradeEncoding(rehashed));
+        Assertions.assertTrue(userService.authenticate("legacyuser", "password").isPresent());
+    }
 }